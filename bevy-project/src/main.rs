@@ -1,46 +1,55 @@
 use bevy::prelude::*;
-use rusqlite::{Connection, Result as SQLiteError};
+use serde::Deserialize;
 use std::{thread, time::Duration};
-use std::sync::{Arc, Mutex, RwLock};
+use std::sync::{Arc, RwLock};
 use bevy::utils::hashbrown::HashMap;
 
-const query: &str = r#"
-SELECT lt.language_name,
-       a.asset_name,
-       language_translation.translation
-FROM language_translation
-JOIN language_lookup lt ON lt.language_id = language_translation.language_id
-JOIN asset a ON a.asset_id = language_translation.asset_id;
-"#;
-
-fn main() -> SQLiteError<()> {
-    let path = "../sqlite/amorphous";
+const CHANGES_URL: &str = "http://localhost:7070/translations/changes";
+// the server holds the request open until something changes, at most this long
+const LONG_POLL_SECONDS: u32 = 30;
+
+fn main() {
     let map: HashMap<String, LanguageTranslation> = HashMap::new();
     let map_arc = Arc::new(RwLock::new(map));
     let resource_map_clone = Arc::clone(&map_arc);
     let thread_map_clone = Arc::clone(&map_arc);
 
-    // start polling
+    // follow the server's change feed: one snapshot, then only deltas
     thread::spawn(move || {
-        let mut connection = Connection::open(path).unwrap();
+        let agent = ureq::AgentBuilder::new()
+            .timeout_read(Duration::from_secs(LONG_POLL_SECONDS as u64 + 10))
+            .build();
+        let mut log = String::new();
+        let mut since: i64 = -1;
         loop {
-            let language_translations = poll(&mut connection);
-
-            match thread_map_clone.try_write() {
-                Ok(mut map) => {
-                    for lt in language_translations {
-                        map.insert(lt.asset_name.clone(), lt);
-                        println!("DB Updated @ {:?}", std::time::SystemTime::now());
-                        println!("DB Updated Data: {:?}", map);
-                    }
-                }
-                Err(_) => {
-                    println!("Write lock is not available yet, retrying...");
+            let feed = match poll(&agent, &log, since) {
+                Ok(feed) => feed,
+                Err(error) => {
+                    println!("Change feed unavailable, retrying: {}", error);
+                    thread::sleep(Duration::from_secs(1));
                     continue;
                 }
-            }
+            };
 
-            thread::sleep(Duration::from_secs(1));
+            let mut map = thread_map_clone.write().unwrap();
+            if feed.snapshot {
+                map.clear();
+            }
+            for change in feed.changes {
+                if let Some(previous) = &change.previous_asset_name {
+                    map.remove(previous);
+                }
+                let asset_name = change.asset_name.clone();
+                match change.into_translation() {
+                    Some(translation) => { map.insert(asset_name, translation); }
+                    None => { map.remove(&asset_name); }
+                }
+            }
+            if feed.snapshot || feed.version != since {
+                println!("DB Updated @ {:?} to version {}", std::time::SystemTime::now(), feed.version);
+            }
+            log = feed.log;
+            since = feed.version;
         }
     });
 
@@ -53,8 +62,6 @@ fn main() -> SQLiteError<()> {
         .add_systems(Update, text_color_system)
         .add_systems(Update, update_translation_system)
         .run();
-
-    Ok(())
 }
 
 #[derive(Resource)]
@@ -87,19 +94,39 @@ impl LanguageTranslation {
     }
 }
 
-fn poll(connection: &mut Connection) -> Vec<LanguageTranslation> {
-    let mut statement = connection.prepare(query).unwrap();
-    let translations: Vec<LanguageTranslation> = statement.query_map([], |row| {
-        Ok(LanguageTranslation::new(
-            row.get_unwrap(0),
-            row.get_unwrap(1),
-            row.get_unwrap(2)))
-    })
-        .unwrap()
-        .map(|t| t.unwrap())
-        .collect();
-
-    translations
+#[derive(Deserialize)]
+struct ChangeFeed {
+    log: String,
+    version: i64,
+    snapshot: bool,
+    changes: Vec<TranslationChange>,
+}
+
+#[derive(Deserialize)]
+#[serde(rename_all = "camelCase")]
+struct TranslationChange {
+    asset_name: String,
+    previous_asset_name: Option<String>,
+    language_name: Option<String>,
+    // null when the cell was deleted or cleared
+    translation: Option<String>,
+}
+
+impl TranslationChange {
+    fn into_translation(self) -> Option<LanguageTranslation> {
+        let translation = self.translation?;
+        Some(LanguageTranslation::new(self.language_name.unwrap_or_default(), self.asset_name, translation))
+    }
+}
+
+fn poll(agent: &ureq::Agent, log: &str, since: i64) -> Result<ChangeFeed, Box<dyn std::error::Error>> {
+    let feed = agent.get(CHANGES_URL)
+        .query("log", log)
+        .query("since", &since.to_string())
+        .query("wait", &LONG_POLL_SECONDS.to_string())
+        .call()?
+        .into_json()?;
+    Ok(feed)
 }
 
 #[derive(Component)]
@@ -134,8 +161,10 @@ fn setup(mut commands: Commands, asset_server: Res<AssetServer>) {
 fn update_translation_system(mut q: Query<&mut Text, With<ColorText>>, language_translation_resource: Res<LanguageTranslationResource>) {
     let translations = language_translation_resource.database.read().unwrap();
     
+    // nothing to show until the first snapshot from the server has arrived
+    let Some(main_menu) = translations.get("GAME_MAIN_MENU") else { return };
     for mut text in &mut q {
-        text.sections[0].value.clone_from(&translations.get("GAME_MAIN_MENU").unwrap().translation)
+        text.sections[0].value.clone_from(&main_menu.translation)
     }
 }
 
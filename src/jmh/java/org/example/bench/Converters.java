@@ -0,0 +1,51 @@
+package org.example.bench;
+
+import org.example.db.LanguageTranslation;
+import org.example.db.RowMapper;
+import org.example.query.Match;
+
+/**
+ * Row mappers for the {@link LegacyQueries} result shapes. Each one reads typed columns straight off the
+ * {@link java.sql.ResultSet}, so no row passes through an {@code Object[]} or a boxed cell.
+ */
+final class Converters {
+    // LANGUAGE_TRANSLATIONS_WITH_META and SPECIFIC_ASSET_SEARCH
+    static final RowMapper<LanguageTranslationWithMeta> languageTranslationWithMeta =
+            (row -> new LanguageTranslationWithMeta(
+                    row.getInt(1),
+                    row.getString(2),
+                    row.getString(3),
+                    row.getString(4),
+                    row.getString(5),
+                    row.getString(6),
+                    row.getString(7),
+                    row.getString(8),
+                    row.getLong(9)
+            ));
+
+    // same columns as languageTranslationWithMeta, skipping the intermediate record
+    static final RowMapper<Match> match =
+            (row -> new Match(
+                    row.getInt(1), // asset id
+                    row.getString(3), // asset url
+                    row.getString(2), // asset name
+                    row.getString(4), // asset description
+                    row.getLong(9), // max(updated)
+                    row.getString(8), // user name
+                    null
+            ));
+
+    // LANGUAGE_TRANSLATIONS_FOR_ASSET
+    static final RowMapper<LanguageTranslation> languageTranslation =
+            (row -> new LanguageTranslation(
+                    row.getInt(1), // asset id
+                    row.getString(2), // language name
+                    row.getString(3), // translation
+                    row.getLong(4), // updated
+                    row.getString(5), // asset name
+                    row.getString(6), // updated by
+                    row.getInt(7), // project id
+                    row.getInt(8), // language id
+                    row.getInt(9) // user id
+            ));
+}
@@ -0,0 +1,110 @@
+package org.example.bench;
+
+import org.example.db.DBUtils;
+import org.example.db.NamedQuery;
+import org.example.db.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link Converters} row mappers over a fixed window of rows. {@link #stepOnly} walks the same rows without
+ * mapping them, so the difference to it is what the mapping itself costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ConvertersBenchmark {
+    private static final int WINDOW_ASSETS = 250;
+
+    // the LegacyQueries.LANGUAGE_TRANSLATIONS_WITH_META columns, restricted to a range of assets instead of the whole table
+    private static final NamedQuery WITH_META_WINDOW = new NamedQuery("benchWithMetaWindow", """
+            SELECT language_translation.asset_id, asset_name, asset_url, asset_description, language_name, project_name, translation, user_name, updated
+            FROM language_translation
+            JOIN main.asset a on language_translation.asset_id = a.asset_id
+            JOIN main.project p on language_translation.project_id = p.project_id
+            JOIN main.user u on language_translation.who_updated = u.user_id
+            JOIN main.language_lookup ll on language_translation.language_id = ll.language_id
+            WHERE language_translation.asset_id BETWEEN ? AND ?;
+            """);
+
+    // the LegacyQueries.LANGUAGE_TRANSLATIONS_FOR_ASSET columns over a range of assets
+    private static final NamedQuery FOR_ASSET_WINDOW = new NamedQuery("benchForAssetWindow", """
+            SELECT language_translation.asset_id,
+                   ll.language_name,
+                   language_translation.translation,
+                   language_translation.updated,
+                   asset.asset_name,
+                   user.user_name AS updatedBy,
+                   language_translation.project_id,
+                   language_translation.language_id,
+                   user.user_id
+            FROM language_translation
+            JOIN language_lookup ll ON language_translation.language_id = ll.language_id
+            JOIN user ON user.user_id = language_translation.who_updated
+            JOIN asset ON asset.asset_id = language_translation.asset_id
+            WHERE language_translation.asset_id BETWEEN ? AND ?;
+            """);
+
+    @Param({"1000", "100000", "1000000"})
+    public int assets;
+
+    private int from;
+    private int to;
+
+    @Setup(Level.Trial)
+    public void open() {
+        SyntheticData.open(assets);
+        from = Math.max(1, assets / 2 - WINDOW_ASSETS / 2);
+        to = from + WINDOW_ASSETS - 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        DBUtils.close();
+    }
+
+    @Benchmark
+    public void stepOnly(Blackhole blackhole) throws SQLException {
+        consume(WITH_META_WINDOW, row -> row, blackhole);
+    }
+
+    @Benchmark
+    public void languageTranslationWithMeta(Blackhole blackhole) throws SQLException {
+        consume(WITH_META_WINDOW, Converters.languageTranslationWithMeta, blackhole);
+    }
+
+    @Benchmark
+    public void match(Blackhole blackhole) throws SQLException {
+        consume(WITH_META_WINDOW, Converters.match, blackhole);
+    }
+
+    @Benchmark
+    public void languageTranslation(Blackhole blackhole) throws SQLException {
+        consume(FOR_ASSET_WINDOW, Converters.languageTranslation, blackhole);
+    }
+
+    private <T> void consume(NamedQuery query, RowMapper<T> mapper, Blackhole blackhole) throws SQLException {
+        DBUtils.pool().withReader(session -> {
+            session.forEach(query, mapper, blackhole::consume, from, to);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.bench;
+
+import org.example.db.DBUtils;
+import org.example.db.LanguageTranslation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point lookups through {@link DBUtils} and the pooled, statement-cached read path, against a random asset each
+ * invocation so SQLite's page cache sees a realistic spread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DbAccessBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int assets;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void open() {
+        SyntheticData.open(assets);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        DBUtils.close();
+    }
+
+    @Benchmark
+    public ArrayList<LanguageTranslationWithMeta> specificAssetSearch() {
+        return DBUtils.query(LegacyQueries.SPECIFIC_ASSET_SEARCH, Converters.languageTranslationWithMeta, nextAssetId());
+    }
+
+    @Benchmark
+    public ArrayList<LanguageTranslation> translationsForAsset() {
+        return DBUtils.query(LegacyQueries.LANGUAGE_TRANSLATIONS_FOR_ASSET, Converters.languageTranslation, nextAssetId());
+    }
+
+    private int nextAssetId() {
+        return 1 + random.nextInt(assets);
+    }
+}
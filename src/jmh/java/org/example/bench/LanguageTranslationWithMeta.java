@@ -1,7 +1,7 @@
-package org.example.db;
+package org.example.bench;
 
-public record LanguageTranslationWithMeta(
-        Integer asset_id,
+record LanguageTranslationWithMeta(
+        int asset_id,
         String asset_name,
         String asset_url,
         String asset_description,
@@ -9,6 +9,6 @@ public record LanguageTranslationWithMeta(
         String project_name,
         String translation,
         String user_name,
-        Long updated
+        long updated
 ) {
 }
@@ -0,0 +1,58 @@
+package org.example.bench;
+
+import org.example.db.NamedQuery;
+
+/**
+ * The SQL read paths the editor answered from before the in-memory catalog replaced them, kept as baselines for
+ * {@link DbAccessBenchmark} and {@link ConvertersBenchmark}.
+ */
+final class LegacyQueries {
+    // one row per asset and project, SQLite takes the bare columns from the row that holds max(updated)
+    static final NamedQuery LANGUAGE_TRANSLATIONS_WITH_META = new NamedQuery("languageTranslationsWithMeta", """
+            SELECT language_translation.asset_id, asset_name, asset_url, asset_description, language_name, project_name, translation, user_name, max(updated)
+            FROM language_translation
+            JOIN main.asset a on language_translation.asset_id = a.asset_id
+            JOIN main.project p on language_translation.project_id = p.project_id
+            JOIN main.user u on language_translation.who_updated = u.user_id
+            JOIN main.language_lookup ll on language_translation.language_id = ll.language_id
+            GROUP BY language_translation.asset_id, language_translation.project_id;
+            """);
+
+    // select most recently updated asset
+    static final NamedQuery SPECIFIC_ASSET_SEARCH = new NamedQuery("specificAssetSearch", """
+            SELECT language_translation.asset_id,
+                   asset_name,
+                   asset_url,
+                   asset_description,
+                   language_name,
+                   project_name,
+                   translation,
+                   user_name,
+                   max(updated)
+            FROM language_translation
+                     JOIN main.asset a on language_translation.asset_id = a.asset_id
+                     JOIN main.project p on language_translation.project_id = p.project_id
+                     JOIN main.user u on language_translation.who_updated = u.user_id
+                     JOIN main.language_lookup ll on language_translation.language_id = ll.language_id
+            WHERE language_translation.asset_id = ?
+            GROUP BY language_translation.asset_id, language_translation.project_id;
+            """);
+
+    static final NamedQuery LANGUAGE_TRANSLATIONS_FOR_ASSET = new NamedQuery("languageTranslationsForAsset", """
+            SELECT language_translation.asset_id,
+                   ll.language_name,
+                   language_translation.translation,
+                   language_translation.updated,
+                   asset.asset_name,
+                   user.user_name AS updatedBy,
+                   language_translation.project_id,
+                   language_translation.language_id,
+                   user.user_id
+            FROM language_translation
+            JOIN language_lookup ll ON language_translation.language_id = ll.language_id
+            JOIN user ON user.user_id = language_translation.who_updated
+            JOIN asset ON asset.asset_id = language_translation.asset_id
+            WHERE language_translation.asset_id = ?
+            ORDER BY language_translation.language_id;
+            """);
+}
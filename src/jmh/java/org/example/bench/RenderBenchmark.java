@@ -0,0 +1,88 @@
+package org.example.bench;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogSnapshot;
+import org.example.db.DBUtils;
+import org.example.query.MenuHudQuery;
+import org.example.search.SearchIndex;
+import org.example.validation.Validator;
+import org.example.web.HtmlRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the two hot templates through the same {@link HtmlRenderer} the routes use, with the data already in
+ * hand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RenderBenchmark {
+    @Param({"1000"})
+    public int assets;
+
+    private final HtmlRenderer renderer = new HtmlRenderer(new DefaultMustacheFactory());
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final Validator validator = Validator.fromSystemProperties();
+    private CatalogSnapshot snapshot;
+    private MenuHudQuery.PartitionedMatches firstPage;
+    private MenuHudQuery.PartitionedMatches searchResults;
+    private String searchLike;
+    private int assetId;
+
+    @Setup(Level.Trial)
+    public void load() {
+        SyntheticData.open(assets);
+        Catalog.addListener(searchIndex);
+        Catalog.addListener(validator);
+        Catalog.load();
+        snapshot = Catalog.snapshot();
+
+        searchLike = SyntheticData.NOUNS[0];
+        firstPage = MenuHudQuery.run(snapshot, searchIndex, null, MenuHudQuery.NO_MORE, MenuHudQuery.NO_MORE, 50);
+        searchResults = MenuHudQuery.run(snapshot, searchIndex, searchLike, MenuHudQuery.NO_MORE, MenuHudQuery.NO_MORE, 50);
+        assetId = assets / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        DBUtils.close();
+    }
+
+    @Benchmark
+    public String queryResultsFirstPage() {
+        var writer = new StringWriter();
+        renderer.queryResults(writer, firstPage, null, null);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String queryResultsSearch() {
+        var writer = new StringWriter();
+        renderer.queryResults(writer, searchResults, searchLike, null);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String localization() {
+        return renderer.assetTranslations(snapshot, validator, assetId);
+    }
+}
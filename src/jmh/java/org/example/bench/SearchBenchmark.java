@@ -0,0 +1,107 @@
+package org.example.bench;
+
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogSnapshot;
+import org.example.db.DBUtils;
+import org.example.query.MenuHudQuery;
+import org.example.search.SearchIndex;
+import org.example.search.Typeahead;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Menu/HUD query over the in-memory catalog: ranked matches plus the page of non-matches, i.e. what
+ * {@code menuHUDSearch} and {@code menuHUDReverseSearch} used to answer with two SQL queries, and the asset-key
+ * typeahead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+    private static final int LIMIT = 200;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "100000", "1000000"})
+    public int assets;
+
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final Typeahead typeahead = new Typeahead();
+    private CatalogSnapshot snapshot;
+    private String[] queries;
+    private String[] typed;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void load() {
+        SyntheticData.open(assets);
+        Catalog.addListener(searchIndex);
+        Catalog.addListener(typeahead);
+        Catalog.load();
+        snapshot = Catalog.snapshot();
+
+        // a mix of broad single-word queries, narrow two-word ones and one that matches nothing
+        queries = new String[]{
+                SyntheticData.NOUNS[3],
+                SyntheticData.ADJECTIVES[1] + " " + SyntheticData.NOUNS[5],
+                SyntheticData.assetName(assets / 2),
+                "unobtainium"
+        };
+        // keystrokes into the key box: a single letter, a whole segment, a later segment, a full key
+        typed = new String[]{
+                "g",
+                SyntheticData.NOUNS[3].toLowerCase(),
+                SyntheticData.NOUNS[5] + " " + (assets / 3),
+                SyntheticData.assetName(assets / 2)
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        DBUtils.close();
+    }
+
+    @Benchmark
+    public MenuHudQuery.PartitionedMatches search() {
+        return MenuHudQuery.run(snapshot, searchIndex, nextQuery(), MenuHudQuery.NO_MORE, MenuHudQuery.NO_MORE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public MenuHudQuery.PartitionedMatches firstPage() {
+        return MenuHudQuery.run(snapshot, searchIndex, null, MenuHudQuery.NO_MORE, MenuHudQuery.NO_MORE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SearchIndex.SearchResults indexOnly() {
+        return searchIndex.search(nextQuery(), LIMIT);
+    }
+
+    @Benchmark
+    public List<Typeahead.Suggestion> suggest() {
+        var query = typed[next];
+        next = (next + 1) % typed.length;
+        return typeahead.suggest(query, 10);
+    }
+
+    private String nextQuery() {
+        var query = queries[next];
+        next = (next + 1) % queries.length;
+        return query;
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.bench;
+
+import org.example.db.DBUtils;
+import org.example.db.Migrations;
+import org.example.db.NamedQuery;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Fills a throwaway SQLite database with a deterministic catalog of {@code assets} assets, each translated into every
+ * one of {@link #LANGUAGES}. Databases are generated once per size under {@code amorphous.bench.dataDir} and reused,
+ * since the million-asset one takes a while to write.
+ */
+public final class SyntheticData {
+    public static final String[][] LANGUAGES = {
+            {"English", "en"}, {"French", "fr"}, {"German", "de"}, {"Japanese", "ja"}
+    };
+    public static final String[] ADJECTIVES = {
+            "Rusty", "Gilded", "Ancient", "Cursed", "Frozen", "Burning", "Silent", "Hollow", "Crimson", "Feral"
+    };
+    public static final String[] NOUNS = {
+            "Sword", "Shield", "Lantern", "Potion", "Helmet", "Scroll", "Amulet", "Bow", "Gauntlet", "Map",
+            "Key", "Banner", "Compass", "Crown", "Dagger", "Ring"
+    };
+    private static final String[] PLACES = {
+            "the northern keep", "a sunken shrine", "the merchant quarter", "an abandoned mine", "the royal vault"
+    };
+    private static final int CHUNK_ROWS = 10_000;
+
+    private static final NamedQuery INSERT_LANGUAGE = new NamedQuery("benchInsertLanguage", """
+            INSERT INTO language_lookup (language_id, language_name, language_code) VALUES (?, ?, ?);
+            """);
+    private static final NamedQuery INSERT_PROJECT = new NamedQuery("benchInsertProject", """
+            INSERT INTO project (project_id, project_name) VALUES (?, ?);
+            """);
+    private static final NamedQuery INSERT_USER = new NamedQuery("benchInsertUser", """
+            INSERT INTO user (user_id, user_name) VALUES (?, ?);
+            """);
+    private static final NamedQuery INSERT_ASSET = new NamedQuery("benchInsertAsset", """
+            INSERT INTO asset (asset_id, asset_name, asset_url, asset_description) VALUES (?, ?, ?, ?);
+            """);
+    private static final NamedQuery INSERT_TRANSLATION = new NamedQuery("benchInsertTranslation", """
+            INSERT INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+            VALUES (?, ?, ?, ?, ?, ?);
+            """);
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Points {@link DBUtils} at the database of the given size, generating it first if needed.
+     */
+    public static void open(int assets) {
+        DBUtils.setUrl("jdbc:sqlite:" + database(assets));
+        // databases generated before a schema change are brought up to date rather than regenerated
+        Migrations.migrate();
+    }
+
+    public static synchronized Path database(int assets) {
+        var dataDir = Path.of(System.getProperty("amorphous.bench.dataDir", System.getProperty("java.io.tmpdir")));
+        var database = dataDir.resolve("assets-" + assets + ".db");
+        if (Files.exists(database)) {
+            return database;
+        }
+
+        try {
+            Files.createDirectories(dataDir);
+            // generate next to the target and move it into place once complete, so an aborted run is never reused
+            var partial = dataDir.resolve("assets-" + assets + ".db.partial");
+            Files.deleteIfExists(partial);
+            generate(partial, assets);
+            Files.move(partial, database, StandardCopyOption.ATOMIC_MOVE);
+            return database;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String assetName(int assetId) {
+        return ADJECTIVES[assetId % ADJECTIVES.length] + " " + NOUNS[(assetId / ADJECTIVES.length) % NOUNS.length] + " " + assetId;
+    }
+
+    private static void generate(Path file, int assets) {
+        DBUtils.setUrl("jdbc:sqlite:" + file);
+        try {
+            Migrations.migrate();
+
+            var languages = new ArrayList<Object[]>();
+            for (int i = 0; i < LANGUAGES.length; i++) {
+                languages.add(new Object[]{i + 1, LANGUAGES[i][0], LANGUAGES[i][1]});
+            }
+            insert(INSERT_LANGUAGE, languages);
+            insert(INSERT_PROJECT, rows(new Object[]{1, "Synthetic"}));
+            insert(INSERT_USER, rows(new Object[]{1, "bench"}, new Object[]{2, "translator"}));
+
+            var random = new SplittableRandom(assets);
+            var start = 1_600_000_000_000L;
+            var assetRows = new ArrayList<Object[]>(CHUNK_ROWS);
+            var translationRows = new ArrayList<Object[]>(CHUNK_ROWS);
+            for (int assetId = 1; assetId <= assets; assetId++) {
+                var name = assetName(assetId);
+                assetRows.add(new Object[]{
+                        assetId,
+                        name,
+                        "https://assets.example.org/" + assetId + ".png",
+                        "A " + name.toLowerCase() + " found in " + PLACES[random.nextInt(PLACES.length)] + "."
+                });
+                for (int language = 0; language < LANGUAGES.length; language++) {
+                    translationRows.add(new Object[]{
+                            assetId,
+                            1,
+                            language + 1,
+                            "[" + LANGUAGES[language][1] + "] " + name,
+                            start + random.nextLong(100_000_000_000L),
+                            1 + random.nextInt(2)
+                    });
+                }
+
+                if (translationRows.size() >= CHUNK_ROWS) {
+                    insert(INSERT_ASSET, assetRows);
+                    insert(INSERT_TRANSLATION, translationRows);
+                    assetRows.clear();
+                    translationRows.clear();
+                }
+            }
+            insert(INSERT_ASSET, assetRows);
+            insert(INSERT_TRANSLATION, translationRows);
+        } finally {
+            // checkpoints the WAL back into the file before it is moved
+            DBUtils.close();
+        }
+    }
+
+    private static void insert(NamedQuery insert, ArrayList<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (!DBUtils.updateBatchTransactionally(insert, rows)) {
+            throw new IllegalStateException("Could not write synthetic " + insert.name() + " rows");
+        }
+    }
+
+    private static ArrayList<Object[]> rows(Object[]... rows) {
+        var list = new ArrayList<Object[]>(rows.length);
+        for (var row : rows) {
+            list.add(row);
+        }
+        return list;
+    }
+}
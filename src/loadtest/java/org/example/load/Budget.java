@@ -0,0 +1,60 @@
+package org.example.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A latency or error budget for one route, e.g. {@code search.p99=50} (milliseconds) or {@code mutate.errors=0.01}
+ * (fraction of requests).
+ */
+public record Budget(String route, String statistic, double limit) {
+    private static final List<String> STATISTICS = List.of("p50", "p95", "p99", "max", "errors");
+
+    static List<Budget> parseAll(String budgets) {
+        var parsed = new ArrayList<Budget>();
+        for (var part : budgets.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            var equals = part.indexOf('=');
+            var dot = part.lastIndexOf('.', equals);
+            if (equals < 0 || dot < 0) {
+                throw new IllegalArgumentException("Expected route.statistic=limit in amorphous.load.budgets, got " + part);
+            }
+            var statistic = part.substring(dot + 1, equals).trim().toLowerCase(Locale.ROOT);
+            if (!STATISTICS.contains(statistic)) {
+                throw new IllegalArgumentException("Unknown budget statistic " + statistic + ", expected one of " + STATISTICS);
+            }
+            parsed.add(new Budget(part.substring(0, dot).trim(), statistic, Double.parseDouble(part.substring(equals + 1).trim())));
+        }
+        return parsed;
+    }
+
+    /**
+     * The observed value this budget is checked against, or NaN when the route saw no traffic.
+     */
+    public double observed(RouteReport report) {
+        if (report == null || report.requests() == 0) {
+            return Double.NaN;
+        }
+        return switch (statistic) {
+            case "p50" -> report.p50Millis();
+            case "p95" -> report.p95Millis();
+            case "p99" -> report.p99Millis();
+            case "max" -> report.maxMillis();
+            default -> report.errorRate();
+        };
+    }
+
+    public boolean exceededBy(RouteReport report) {
+        var observed = observed(report);
+        // a budgeted route that never ran cannot vouch for anything
+        return Double.isNaN(observed) || observed > limit;
+    }
+
+    @Override
+    public String toString() {
+        return route + "." + statistic + "=" + limit;
+    }
+}
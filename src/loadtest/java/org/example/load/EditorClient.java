@@ -0,0 +1,196 @@
+package org.example.load;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bench.SyntheticData;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Plays the requests behind one {@link Operation}, the way the htmx editor and the game client issue them, and
+ * records each under its route.
+ */
+public class EditorClient {
+    private static final Pattern TRANSLATION_FIELD = Pattern.compile("name=\"translation-(\\d+)-(\\d+)\"");
+    private static final Pattern EXPECTED_FIELD = Pattern.compile("name=\"expected-(\\d+)-(\\d+)\" value=\"(\\d+)\"");
+
+    private record Cursor(String log, long version) {
+    }
+
+    private final HttpClient http;
+    private final URI base;
+    private final int assets;
+    private final Duration timeout;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper json = new ObjectMapper();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final AtomicReference<Cursor> cursor = new AtomicReference<>();
+
+    public EditorClient(HttpClient http, URI base, LoadConfig config, LatencyRecorder recorder) {
+        this.http = http;
+        this.base = base;
+        this.assets = config.assets();
+        this.timeout = Duration.ofMillis(config.requestTimeoutMillis());
+        this.recorder = recorder;
+    }
+
+    /**
+     * Fetches the change-feed position once, outside of any measurement, like a game client does on startup.
+     */
+    public void bootstrap() throws IOException, InterruptedException {
+        var response = http.send(get("/translations/changes?since=-1"), HttpResponse.BodyHandlers.ofInputStream());
+        try (var body = response.body()) {
+            cursor.set(readCursor(body));
+        }
+    }
+
+    /**
+     * @param dueNanos when the open-loop schedule wanted this operation to start; the first request is timed from it
+     * @param measured false during warmup
+     */
+    public void run(Operation operation, long dueNanos, boolean measured) {
+        switch (operation) {
+            case SEARCH -> search(dueNanos, measured);
+            case INSPECT -> send("inspect", get("/inspect/asset/" + hotAssetId()), dueNanos, measured);
+            case EDIT -> edit(dueNanos, measured);
+            case POLL -> poll(dueNanos, measured);
+        }
+    }
+
+    private void search(long dueNanos, boolean measured) {
+        // any prefix of an asset name, as typed one keystroke at a time
+        var random = ThreadLocalRandom.current();
+        var name = SyntheticData.assetName(1 + random.nextInt(assets));
+        var typed = name.substring(0, 1 + random.nextInt(name.length()));
+        send("search", get("/menu-hud/search?searchLike=" + URLEncoder.encode(typed, StandardCharsets.UTF_8)), dueNanos, measured);
+    }
+
+    private void edit(long dueNanos, boolean measured) {
+        var assetId = hotAssetId();
+        var page = send("translations", get("/inspect/asset/translations/" + assetId), dueNanos, measured);
+        if (page == null) {
+            return;
+        }
+
+        var expected = new LinkedHashMap<String, String>();
+        var fields = EXPECTED_FIELD.matcher(page);
+        while (fields.find()) {
+            expected.put(fields.group(1) + "-" + fields.group(2), fields.group(3));
+        }
+        var cells = new ArrayList<String>();
+        var translations = TRANSLATION_FIELD.matcher(page);
+        while (translations.find()) {
+            var cell = translations.group(1) + "-" + translations.group(2);
+            if (expected.containsKey(cell)) {
+                cells.add(cell);
+            }
+        }
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        var cell = cells.get(ThreadLocalRandom.current().nextInt(cells.size()));
+        var form = new LinkedHashMap<String, Object>();
+        form.put("assetId", assetId);
+        form.put("translation-" + cell, "edited " + System.nanoTime());
+        form.put("expected-" + cell, expected.get(cell));
+        try {
+            var request = request("/translations/mutate")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(form)))
+                    .build();
+            send("mutate", request, System.nanoTime(), measured);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void poll(long dueNanos, boolean measured) {
+        var from = cursor.get();
+        var body = send("changes", get("/translations/changes?log=" + from.log() + "&since=" + from.version()), dueNanos, measured);
+        if (body == null) {
+            return;
+        }
+        try (var in = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))) {
+            var next = readCursor(in);
+            cursor.accumulateAndGet(next, (current, candidate) -> candidate.version() > current.version() ? candidate : current);
+        } catch (IOException e) {
+            // counted as a successful request, the cursor just does not move
+        }
+    }
+
+    /**
+     * @return the response body, or null when the request failed or answered with an error status
+     */
+    private String send(String route, HttpRequest request, long startNanos, boolean measured) {
+        String body = null;
+        var error = true;
+        try {
+            var response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            error = response.statusCode() >= 400;
+            body = error ? null : response.body();
+        } catch (IOException e) {
+            // timed out or refused: an error, timed up to now
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (measured) {
+            recorder.record(route, System.nanoTime() - startNanos, error);
+        }
+        return body;
+    }
+
+    // only the leading log and version fields are needed, so a snapshot feed is not parsed any further
+    private Cursor readCursor(InputStream body) throws IOException {
+        String log = null;
+        var version = -1L;
+        try (var parser = jsonFactory.createParser(body)) {
+            while (parser.nextToken() != null && (log == null || version < 0)) {
+                if (parser.currentToken() == JsonToken.FIELD_NAME && parser.getParsingContext().getParent().inRoot()) {
+                    var field = parser.currentName();
+                    parser.nextToken();
+                    if ("log".equals(field)) {
+                        log = parser.getText();
+                    } else if ("version".equals(field)) {
+                        version = parser.getLongValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        if (log == null || version < 0) {
+            throw new IOException("Change feed response carried no log and version");
+        }
+        return new Cursor(log, version);
+    }
+
+    // skewed towards low ids, so a hot set of assets gets most of the traffic and edits now and then collide
+    private int hotAssetId() {
+        var u = ThreadLocalRandom.current().nextDouble();
+        return 1 + (int) (assets * u * u * u);
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(timeout);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Keeps every measured latency per route. A run of a few minutes is a few hundred thousand samples, so exact
+ * percentiles from the sorted samples are affordable and need no histogram library.
+ */
+public class LatencyRecorder {
+    private final TreeMap<String, Samples> routes = new TreeMap<>();
+
+    public void record(String route, long nanos, boolean error) {
+        Samples samples;
+        synchronized (routes) {
+            samples = routes.computeIfAbsent(route, r -> new Samples());
+        }
+        samples.add(nanos, error);
+    }
+
+    public List<RouteReport> report(double seconds) {
+        var reports = new ArrayList<RouteReport>();
+        synchronized (routes) {
+            routes.forEach((route, samples) -> reports.add(samples.report(route, seconds)));
+        }
+        return reports;
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        private synchronized void add(long latency, boolean error) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            if (error) {
+                errors++;
+            }
+        }
+
+        private synchronized RouteReport report(String route, double seconds) {
+            var sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new RouteReport(route, size, errors, size / seconds,
+                    millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        // nearest rank
+        private static double millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            var rank = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, rank)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.load;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shape of one load-test run, read from {@code amorphous.load.*} system properties.
+ *
+ * @param rate         requests started per second, independent of how fast the server answers (open loop)
+ * @param mix          relative weight of each {@link Operation}
+ * @param maxInFlight  operations allowed to be outstanding at once; arrivals beyond it count as dropped errors
+ */
+public record LoadConfig(
+        int assets,
+        double rate,
+        int warmupSeconds,
+        int durationSeconds,
+        Map<Operation, Integer> mix,
+        int maxInFlight,
+        long requestTimeoutMillis,
+        List<Budget> budgets,
+        Path report
+) {
+    public static LoadConfig fromSystemProperties() {
+        var report = System.getProperty("amorphous.load.report");
+        return new LoadConfig(
+                Integer.getInteger("amorphous.load.assets", 10_000),
+                Double.parseDouble(System.getProperty("amorphous.load.rate", "200")),
+                Integer.getInteger("amorphous.load.warmupSeconds", 10),
+                Integer.getInteger("amorphous.load.durationSeconds", 60),
+                parseMix(System.getProperty("amorphous.load.mix", "search=60,inspect=25,edit=10,poll=5")),
+                Integer.getInteger("amorphous.load.maxInFlight", 2_000),
+                Long.getLong("amorphous.load.requestTimeoutMillis", 10_000),
+                Budget.parseAll(System.getProperty("amorphous.load.budgets", "")),
+                report == null || report.isBlank() ? null : Path.of(report));
+    }
+
+    /**
+     * {@code search=60,inspect=25,...}; operations left out do not run.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        var weights = new LinkedHashMap<Operation, Integer>();
+        for (var part : mix.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            var equals = part.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected operation=weight in amorphous.load.mix, got " + part);
+            }
+            var weight = Integer.parseInt(part.substring(equals + 1).trim());
+            if (weight > 0) {
+                weights.put(Operation.parse(part.substring(0, equals)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("amorphous.load.mix does not enable any operation");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.load;
+
+import java.util.List;
+
+/**
+ * Everything a run measured; written as JSON when {@code amorphous.load.report} is set, so runs can be compared
+ * and gated in CI.
+ *
+ * @param dropped operations that were due while {@link LoadConfig#maxInFlight()} were still outstanding
+ */
+public record LoadReport(
+        int assets,
+        double rate,
+        int durationSeconds,
+        long dropped,
+        List<RouteReport> routes,
+        List<String> violations
+) {
+}
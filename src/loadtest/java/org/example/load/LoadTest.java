@@ -0,0 +1,153 @@
+package org.example.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.Javalin;
+import org.example.Main;
+import org.example.bench.SyntheticData;
+import org.example.db.DBUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Starts {@link Main} on a throwaway copy of a synthetic database and replays an open-loop mix of editor traffic
+ * against it: operations arrive as a Poisson process at {@link LoadConfig#rate()} whether or not earlier ones have
+ * finished, each on its own virtual thread. Prints per-route latency percentiles, throughput and error rates, and
+ * exits with status 1 when a budget from {@code amorphous.load.budgets} is exceeded.
+ */
+public class LoadTest {
+    public static void main(String[] args) throws Exception {
+        var config = LoadConfig.fromSystemProperties();
+        var workDir = Files.createTempDirectory("amorphous-load-");
+        var database = workDir.resolve("amorphous");
+        Files.copy(SyntheticData.database(config.assets()), database);
+        DBUtils.setUrl("jdbc:sqlite:" + database);
+
+        Javalin app = null;
+        LoadReport report;
+        try (var http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofMillis(config.requestTimeoutMillis()))
+                .build()) {
+            app = Main.start(0);
+            var recorder = new LatencyRecorder();
+            var client = new EditorClient(http, URI.create("http://localhost:" + app.port()), config, recorder);
+            client.bootstrap();
+
+            var dropped = drive(config, client);
+            var routes = recorder.report(config.durationSeconds());
+            report = new LoadReport(config.assets(), config.rate(), config.durationSeconds(), dropped, routes, violations(config, routes, dropped));
+        } finally {
+            if (app != null) {
+                app.stop();
+            }
+            DBUtils.close();
+            deleteRecursively(workDir);
+        }
+
+        print(report);
+        if (config.report() != null) {
+            Files.createDirectories(config.report().toAbsolutePath().getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(config.report().toFile(), report);
+        }
+        System.exit(report.violations().isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * @return how many operations were dropped during the measured window because too many were outstanding
+     */
+    private static long drive(LoadConfig config, EditorClient client) {
+        var operations = new ArrayList<Operation>();
+        config.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+
+        var random = new SplittableRandom();
+        var inFlight = new Semaphore(config.maxInFlight());
+        var dropped = new AtomicLong();
+        var start = System.nanoTime();
+        var measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        var end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        var meanGapNanos = 1e9 / config.rate();
+
+        // closing the executor waits for the stragglers, each bounded by the request timeout
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var due = start; due < end; due += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos)) {
+                var wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                var measured = due >= measureFrom;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        dropped.incrementAndGet();
+                    }
+                    continue;
+                }
+                var operation = operations.get(random.nextInt(operations.size()));
+                var dueNanos = due;
+                executor.execute(() -> {
+                    try {
+                        client.run(operation, dueNanos, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return dropped.get();
+    }
+
+    private static List<String> violations(LoadConfig config, List<RouteReport> routes, long dropped) {
+        var violations = new ArrayList<String>();
+        for (var budget : config.budgets()) {
+            var route = routes.stream().filter(r -> r.route().equals(budget.route())).findFirst().orElse(null);
+            if (budget.exceededBy(route)) {
+                violations.add(budget + " exceeded, observed " + budget.observed(route));
+            }
+        }
+        if (dropped > 0 && !config.budgets().isEmpty()) {
+            // the server fell so far behind that the schedule could not be kept, latencies understate the damage
+            violations.add(dropped + " operations dropped at " + config.maxInFlight() + " in flight");
+        }
+        return violations;
+    }
+
+    private static void print(LoadReport report) {
+        System.out.printf("%n%d assets, %.0f ops/s for %ds, %d dropped%n", report.assets(), report.rate(), report.durationSeconds(), report.dropped());
+        System.out.printf("%-14s %9s %9s %8s %10s %10s %10s %10s%n", "route", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (var route : report.routes()) {
+            System.out.printf("%-14s %9d %9.1f %7.2f%% %10.2f %10.2f %10.2f %10.2f%n", route.route(), route.requests(),
+                    route.throughputPerSecond(), route.errorRate() * 100, route.p50Millis(), route.p95Millis(),
+                    route.p99Millis(), route.maxMillis());
+        }
+        for (var violation : report.violations()) {
+            System.out.println("BUDGET " + violation);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
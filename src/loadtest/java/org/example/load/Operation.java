@@ -0,0 +1,25 @@
+package org.example.load;
+
+import java.util.Locale;
+
+/**
+ * What one simulated editor action does. An action may issue several requests; each is reported under its route.
+ */
+public enum Operation {
+    // a keystroke in the Menu/HUD search box
+    SEARCH,
+    // opening an asset from the list
+    INSPECT,
+    // opening an asset's translations and saving one edited cell
+    EDIT,
+    // a game client catching up on the change feed
+    POLL;
+
+    public static Operation parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown load-test operation " + name);
+        }
+    }
+}
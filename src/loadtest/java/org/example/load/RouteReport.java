@@ -0,0 +1,20 @@
+package org.example.load;
+
+/**
+ * Latency distribution and error rate of one route over the measured part of a run. Latencies are taken from when
+ * the request was due, not when it was sent, so time spent queued behind a slow server counts against it.
+ */
+public record RouteReport(
+        String route,
+        long requests,
+        long errors,
+        double throughputPerSecond,
+        double p50Millis,
+        double p95Millis,
+        double p99Millis,
+        double maxMillis
+) {
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+}
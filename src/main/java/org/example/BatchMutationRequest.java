@@ -0,0 +1,11 @@
+package org.example;
+
+import org.example.mutation.TranslationMutation;
+
+import java.util.List;
+
+public record BatchMutationRequest(
+        Integer userId,
+        List<TranslationMutation> mutations
+) {
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import org.example.catalog.AssetEntry;
+import org.example.catalog.Catalog;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conditional GET for the per-asset views. Validators come straight from the catalog entry, so a 304 is decided
+ * before any lookup or template work happens.
+ */
+public class ConditionalGet {
+
+    /**
+     * Sets {@code ETag}, {@code Last-Modified} and {@code Cache-Control} for {@code entry} and answers 304 when the
+     * request's {@code If-None-Match} (or, without it, {@code If-Modified-Since}) shows the client is current.
+     *
+     * @return true when the response is already complete
+     */
+    public static boolean notModified(Context ctx, AssetEntry entry) {
+        if (entry == null) {
+            return false;
+        }
+
+        var loadedAt = Catalog.loadedAt();
+        var etag = etag(entry, loadedAt);
+        // an asset edit made before the last load left no timestamp behind, so nothing is older than the load
+        var modified = Math.max(entry.modified(), loadedAt);
+        ctx.header(Header.ETAG, etag);
+        ctx.header(Header.LAST_MODIFIED, DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(modified), ZoneOffset.UTC)));
+        // always revalidate, the 304 is what makes repeat fetches cheap
+        ctx.header(Header.CACHE_CONTROL, "no-cache");
+
+        var ifNoneMatch = ctx.header(Header.IF_NONE_MATCH);
+        var current = ifNoneMatch != null
+                ? matches(ifNoneMatch, etag)
+                : notModifiedSince(ctx.header(Header.IF_MODIFIED_SINCE), modified);
+
+        if (current) {
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The version restarts at 0 with every catalog load and an asset-only edit does not survive one in
+     * {@code modified}, so the load time keeps tags from colliding across restarts.
+     */
+    static String etag(AssetEntry entry, long loadedAt) {
+        return "\"" + entry.assetId() + "-" + Long.toHexString(loadedAt) + "-" + entry.version() + "-"
+                + Long.toHexString(entry.modified()) + "\"";
+    }
+
+    public static boolean matches(String ifNoneMatch, String etag) {
+        for (var candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+            // If-None-Match uses the weak comparison, a W/ prefix added by a proxy still counts
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean notModifiedSince(String ifModifiedSince, long modified) {
+        if (ifModifiedSince == null) {
+            return false;
+        }
+        try {
+            var since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            // HTTP dates only carry whole seconds
+            return modified / 1000 <= since.getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
@@ -4,112 +4,204 @@ import com.fasterxml.jackson.core.StreamReadFeature;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.MustacheFactory;
 import io.javalin.Javalin;
+import io.javalin.compression.CompressionStrategy;
+import io.javalin.compression.Gzip;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.ConflictResponse;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import io.javalin.http.NotFoundResponse;
 import io.javalin.json.JavalinJackson;
+import org.example.bundle.BundleExporter;
+import org.example.cache.FragmentCache;
+import org.example.cache.FragmentCache.FragmentKey;
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogSnapshot;
+import org.example.coverage.Coverage;
+import org.example.db.ConnectionPool;
 import org.example.db.DBQueries;
 import org.example.db.DBUtils;
-import org.example.db.LanguageTranslation;
-import org.example.query.Match;
+import org.example.db.Migrations;
+import org.example.db.PoolSaturatedException;
+import org.example.feed.ChangeLog;
+import org.example.metrics.Histogram;
+import org.example.metrics.Metrics;
+import org.example.mutation.BatchMutation;
+import org.example.mutation.BatchResult;
+import org.example.mutation.MutationStatus;
+import org.example.mutation.TranslationMutation;
+import org.example.query.MenuHudQuery;
+import org.example.release.Release;
+import org.example.release.Releases;
+import org.example.runtime.KeyIndex;
+import org.example.runtime.LookupRequest;
+import org.example.runtime.LookupResult;
+import org.example.runtime.RuntimeFormat;
+import org.example.runtime.StringLookup;
+import org.example.search.SearchIndex;
+import org.example.search.Typeahead;
+import org.example.transfer.ExportFilter;
+import org.example.transfer.TransferFormat;
+import org.example.transfer.TranslationExporter;
+import org.example.transfer.TranslationImporter;
+import org.example.validation.Validator;
+import org.example.web.ContentEncoding;
+import org.example.web.HtmlRenderer;
+import org.example.web.StaticResources;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.time.Instant;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
-
-import static org.example.Converters.*;
-import static org.example.db.DBQueries.initTables;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.zip.Deflater;
 
 public class Main {
-    public static void main(String[] args) {
-        MustacheFactory mf = new DefaultMustacheFactory();
+    private static final Logger logger = LoggerFactory.getLogger(Main.class);
+    private static final Histogram requestDuration = Metrics.histogram("amorphous_http_request_duration_seconds",
+            "Time to handle an HTTP request, by matched route.", Histogram.LATENCY_SECONDS, "method", "route", "status");
+    private static final Histogram renderDuration = Metrics.histogram("amorphous_template_render_seconds",
+            "Time to render a fragment on a cache miss.", Histogram.LATENCY_SECONDS, "template");
+    private static final int PAGE_SIZE = Integer.getInteger("amorphous.menuHud.pageSize", 50);
+    private static final int MAX_CHANGES_WAIT_SECONDS = 60;
+    private static final int SUGGESTION_LIMIT = 10;
+    static final int DEFAULT_USER_ID = 1;
+    private static final int COVERAGE_ASSET_LIMIT = 200;
+    private static final int VALIDATION_ISSUE_LIMIT = 500;
 
-        initTables();
-
-        System.out.println(">> Serving Server");
+    public static void main(String[] args) {
+        start(Integer.getInteger("amorphous.http.port", 7070));
+    }
 
-        var app = Javalin.create(config -> {
+    /**
+     * Loads the catalog from the configured database and serves it on {@code port} (0 picks a free one). The
+     * catalog and its listeners are process-wide, so this runs once per JVM.
+     */
+    public static Javalin start(int port) {
+        MustacheFactory mf = new DefaultMustacheFactory();
+        var renderer = new HtmlRenderer(mf);
+        var searchIndex = new SearchIndex();
+        var typeahead = new Typeahead();
+        var keyIndex = new KeyIndex();
+        var coverage = new Coverage();
+        var validator = Validator.fromSystemProperties();
+        var fragmentCache = FragmentCache.fromSystemProperties();
+        var staticResources = StaticResources.load("index.html");
+        var changeLog = ChangeLog.fromSystemProperties();
+        var bundleExporter = BundleExporter.fromSystemProperties();
+        Catalog.addListener(searchIndex);
+        Catalog.addListener(typeahead);
+        Catalog.addListener(keyIndex);
+        Catalog.addListener(coverage);
+        Catalog.addListener(validator);
+        Catalog.addListener(fragmentCache);
+        Catalog.addListener(changeLog);
+
+        Migrations.migrate();
+        Runtime.getRuntime().addShutdownHook(new Thread(DBUtils::close));
+        Catalog.load();
+        var releases = new Releases();
+        releases.load();
+        registerMetrics(fragmentCache, changeLog);
+
+        logger.info("Serving Server");
+
+        return Javalin.create(config -> {
+                    // handlers mostly block on SQLite or wait on long polls; the database gate, not the thread pool, bounds them
+                    config.useVirtualThreads = Boolean.parseBoolean(System.getProperty("amorphous.http.virtualThreads", "true"));
+                    config.requestLogger.http((ctx, millis) -> {
+                        requestDuration.labels(ctx.method().name(), routeOf(ctx), Integer.toString(ctx.statusCode()))
+                                .observe(millis / 1000.0);
+                    });
+                    // responses that were not precompressed are gzipped on the fly above the same threshold
+                    var compression = new CompressionStrategy(null, new Gzip(6));
+                    compression.setDefaultMinSizeForCompression(ContentEncoding.COMPRESS_ABOVE);
+                    config.http.customCompression(compression);
                     config.jsonMapper(new JavalinJackson().updateMapper(mapper -> {
                         mapper.enable(StreamReadFeature.INCLUDE_SOURCE_IN_LOCATION.mappedFeature());
                     }));
                 })
                 .get("/", ctx -> {
-                    System.out.println(">> Serving Index");
-
-                    try (var stream = Files.lines(Paths.get(Objects.requireNonNull(Main.class.getResource("../../index.html")).toURI()))) {
-                        String foo = stream.collect(Collectors.joining("\n"));
-                        ctx.html(foo);
-                    } catch (IOException | URISyntaxException e) {
-                        throw new RuntimeException(e);
-                    }
+                    logger.debug("Serving Index");
+                    staticResources.serve(ctx, "index.html");
                 })
+                .get("/static/{name}", ctx -> staticResources.serve(ctx, ctx.pathParam("name")))
                 .get("/menu-hud/search", ctx -> {
                     String searchLike = ctx.queryParam("searchLike");
-                    System.out.println(">> searchLike: " + searchLike);
-
-                    var matches = DBUtils.execute(DBQueries.menuHUDSearch(searchLike))
-                            .stream()
-                            .map(languageTranslationWithMetaFromResults)
-                            .map(matchFromLanguageTranslationWithMeta)
-                            .collect(Collectors.toCollection(ArrayList::new));
-
-                    var nonMatches = DBUtils.execute(
-                                    DBQueries.menuHUDReverseSearch(
-                                            matches.stream()
-                                                    .map(Match::assetId)
-                                                    .collect(Collectors.toCollection(ArrayList::new))))
-                            .stream()
-                            .map(languageTranslationWithMetaFromResults)
-                            .map(matchFromLanguageTranslationWithMeta)
-                            .collect(Collectors.toCollection(ArrayList::new));
-
-                    var queryResultsExecutedTemplate = generateQueryResultsTemplate(matches, searchLike, nonMatches, mf);
-
-                    ctx.html(queryResultsExecutedTemplate);
+                    logger.debug("searchLike: {}", searchLike);
+
+                    var release = ctx.queryParam("release");
+                    var snapshot = snapshot(releases, release);
+                    var key = new FragmentKey("query-results", FragmentCache.ALL_ASSETS, snapshot.version(), variant(release, Objects.toString(searchLike, "")));
+                    sendCachedHtml(ctx, fragmentCache, key, writer -> {
+                        var index = release == null ? searchIndex : releases.searchIndex(release, searchIndex);
+                        var results = MenuHudQuery.run(snapshot, index, searchLike, MenuHudQuery.NO_MORE, MenuHudQuery.NO_MORE, PAGE_SIZE);
+                        renderer.queryResults(writer, results, searchLike, release);
+                    });
+                })
+                .get("/assets/suggest", ctx -> {
+                    // asset-key autocomplete, one JSON answer per keystroke
+                    var limit = ctx.queryParamAsClass("limit", Integer.class).getOrDefault(SUGGESTION_LIMIT);
+                    ctx.json(typeahead.suggest(ctx.queryParam("q"), limit));
                 })
                 .get("/menu-hud", ctx -> {
-                    System.out.println(">> Serving Menu/HUD");
-
-                    var matches = DBUtils.execute(DBQueries.LANGUAGE_TRANSLATIONS_WITH_META)
-                            .stream()
-                            .map(languageTranslationWithMetaFromResults)
-                            .map(matchFromLanguageTranslationWithMeta)
-                            .collect(Collectors.toCollection(ArrayList::new));
-
-                    var nonMatches = DBUtils.execute(
-                                    DBQueries.menuHUDReverseSearch(
-                                            matches.stream()
-                                                    .map(Match::assetId)
-                                                    .collect(Collectors.toCollection(ArrayList::new))))
-                            .stream()
-                            .map(languageTranslationWithMetaFromResults)
-                            .map(matchFromLanguageTranslationWithMeta)
-                            .collect(Collectors.toCollection(ArrayList::new));
-
-                    var searchExecutedTemplate = generateSearchTemplate(mf);
-                    var queryResultsExecutedTemplate = generateQueryResultsTemplate(matches, null, nonMatches, mf);
-
-                    ctx.html(searchExecutedTemplate + queryResultsExecutedTemplate);
+                    logger.debug("Serving Menu/HUD");
+
+                    var release = ctx.queryParam("release");
+                    var snapshot = snapshot(releases, release);
+                    var key = new FragmentKey("menu-hud", FragmentCache.ALL_ASSETS, snapshot.version(), variant(release, ""));
+                    sendCachedHtml(ctx, fragmentCache, key, writer -> {
+                        var results = MenuHudQuery.run(snapshot, searchIndex, null, MenuHudQuery.NO_MORE, MenuHudQuery.NO_MORE, PAGE_SIZE);
+                        mf.compile("search.mustache").execute(writer, Map.of());
+                        renderer.queryResults(writer, results, null, release);
+                    });
+                })
+                .get("/menu-hud/page", ctx -> {
+                    var list = ctx.queryParam("list");
+                    var searchLike = ctx.queryParam("searchLike");
+                    var after = ctx.queryParamAsClass("after", Integer.class).get();
+
+                    var nonMatchPage = "non-matches".equals(list);
+                    var release = ctx.queryParam("release");
+                    var snapshot = snapshot(releases, release);
+                    var variant = (nonMatchPage ? "non-matches:" : "matches:") + after + ":" + Objects.toString(searchLike, "");
+                    var key = new FragmentKey("menu-hud-page", FragmentCache.ALL_ASSETS, snapshot.version(), variant(release, variant));
+                    sendCachedHtml(ctx, fragmentCache, key, writer -> {
+                        var index = release == null ? searchIndex : releases.searchIndex(release, searchIndex);
+                        var results = nonMatchPage
+                                ? MenuHudQuery.run(snapshot, index, searchLike, MenuHudQuery.NO_MORE, after, PAGE_SIZE)
+                                : MenuHudQuery.run(snapshot, index, searchLike, after, MenuHudQuery.NO_MORE, PAGE_SIZE);
+                        renderer.menuHudPage(writer, results, nonMatchPage, searchLike, release);
+                    });
                 })
                 .get("/inspect/asset/{assetId}", ctx -> {
-                    System.out.println(">> Responding to inspect asset");
+                    logger.debug("Responding to inspect asset");
 
                     var assetId = Integer.parseInt(ctx.pathParam("assetId"));
 
-                    System.out.println(">> got assetID : " + assetId);
-
-                    var generatedHtml = getInspectAssetHtml(assetId, mf);
+                    logger.debug("got assetID : {}", assetId);
 
-                    ctx.html(generatedHtml);
+                    var release = ctx.queryParam("release");
+                    var snapshot = snapshot(releases, release);
+                    if (ConditionalGet.notModified(ctx, snapshot.asset(assetId))) {
+                        return;
+                    }
+                    sendInspectAssetHtml(ctx, fragmentCache, snapshot, release, assetId, renderer);
                 })
                 .get("/assets/mutate", ctx -> {
-                    System.out.println(">> Responding to mutate asset");
+                    logger.debug("Responding to mutate asset");
 
                     var title = ctx.queryParam("title");
                     var url = ctx.queryParam("url");
@@ -117,157 +209,443 @@ public class Main {
                     var assetId = Integer.parseInt(ctx.queryParam("assetId"));
 
                     // update asset
-                    System.out.println(">> updating asset");
-                    DBUtils.execute(DBQueries.updateAsset(title, url, description, assetId));
+                    logger.debug("updating asset");
+                    DBUtils.writeShared(session -> session.update(DBQueries.UPDATE_ASSET, title, url, description, assetId), rows -> {
+                        if (rows > 0) {
+                            Catalog.applyAsset(assetId, title, url, description);
+                        }
+                    });
                     // fetch the newly updated asset to display
-                    System.out.println(">> asset updated, displaying newly updated asset");
-                    var generatedHtml = getInspectAssetHtml(assetId, mf);
-
-                    ctx.html(generatedHtml);
+                    logger.debug("asset updated, displaying newly updated asset");
+                    sendInspectAssetHtml(ctx, fragmentCache, Catalog.snapshot(), null, assetId, renderer);
                 })
                 .get("/inspect/asset/translations/{assetId}", ctx -> {
-                    System.out.println(">> Serving asset's translations");
+                    logger.debug("Serving asset's translations");
                     var assetId = Integer.parseInt(ctx.pathParam("assetId"));
-                    System.out.println(">> got assetId " + assetId);
-                    var generatedHtml = generateAssetTranslationsHtml(assetId, mf);
-                    ctx.html(generatedHtml);
+                    logger.debug("got assetId {}", assetId);
+
+                    var release = ctx.queryParam("release");
+                    var snapshot = snapshot(releases, release);
+                    if (ConditionalGet.notModified(ctx, snapshot.asset(assetId))) {
+                        return;
+                    }
+                    sendAssetTranslationsHtml(ctx, fragmentCache, snapshot, validator, release, assetId, renderer);
                 })
                 .post("/translations/mutate", ctx -> {
-                    System.out.println(">> Responding to mutate translation");
-                    var mutations = ctx.bodyAsClass(MutateTranslationRequest.class);
-                    System.out.println("mutations: " + mutations);
-
-                    ArrayList<LanguageTranslation> mutating = DBUtils.execute(DBQueries.getLanguageTranslationsForAsset(mutations.assetId()))
-                            .stream()
-                            .map(languageTranslationFromObjectArray)
-                            // get all translations that are different from original
-                            .filter(translationBeforeMutation -> {
-                                String translationToMutate;
-                                switch (translationBeforeMutation.languageName()) {
-                                    case "english" -> translationToMutate = mutations.englishTranslation();
-                                    case "german" -> translationToMutate = mutations.germanTranslation();
-                                    default ->
-                                            throw new RuntimeException("Unsupported language: " + translationBeforeMutation.languageName());
-                                }
-                                return !Objects.equals(translationToMutate, translationBeforeMutation.translation());
-                            })
-                            // change the translation
-                            .map(translationBeforeMutation -> {
-                                switch (translationBeforeMutation.languageName()) {
-                                    case "english" -> {
-                                        return LanguageTranslation.withNewTranslation(
-                                                translationBeforeMutation,
-                                                mutations.englishTranslation(),
-                                                Instant.now().toEpochMilli(),
-                                                translationBeforeMutation.userId()); // KGF : TODO : get user that is performing the updated
-                                    }
-                                    case "german" -> {
-                                        return LanguageTranslation.withNewTranslation(
-                                                translationBeforeMutation,
-                                                mutations.germanTranslation(),
-                                                Instant.now().toEpochMilli(),
-                                                translationBeforeMutation.userId()); // KGF : TODO : get user that is performing the updated
-                                    }
-                                    default ->
-                                            throw new RuntimeException("Unsupported language: " + translationBeforeMutation.languageName());
-                                }
-                            })
-                            // collect the new translations
-                            .collect(Collectors.toCollection(ArrayList::new));
-
-                    System.out.println("Translations to be updated: " + mutating);
-
-                    // execute updates
-                    if (!mutating.isEmpty()) {
-                        DBUtils.executeMultipleUpdatesTransactionally(DBQueries.generateUpdatedTranslationStatements(mutating));
-                    } else {
-                        System.out.println(">> Not updating, no mutations occured in translation.");
+                    logger.debug("Responding to mutate translation");
+                    // the form posts translation-<projectId>-<languageId> with a matching expected-... timestamp
+                    Map<?, ?> form = ctx.bodyAsClass(Map.class);
+                    var assetId = formNumber(form, "assetId", Integer::parseInt);
+                    if (Catalog.snapshot().asset(assetId) == null) {
+                        throw new BadRequestResponse("Unknown asset " + assetId);
+                    }
+                    var mutations = new ArrayList<TranslationMutation>();
+                    for (var field : form.entrySet()) {
+                        var name = String.valueOf(field.getKey());
+                        if (!name.startsWith("translation-")) {
+                            continue;
+                        }
+                        var cell = name.substring("translation-".length());
+                        var dash = cell.indexOf('-');
+                        int projectId;
+                        int languageId;
+                        try {
+                            projectId = Integer.parseInt(cell.substring(0, Math.max(0, dash)));
+                            languageId = Integer.parseInt(cell.substring(dash + 1));
+                        } catch (NumberFormatException e) {
+                            throw new BadRequestResponse("Field " + name + " is not translation-<projectId>-<languageId>");
+                        }
+                        mutations.add(new TranslationMutation(
+                                assetId,
+                                projectId,
+                                languageId,
+                                String.valueOf(field.getValue()),
+                                formNumber(form, "expected-" + cell, Long::parseLong)));
                     }
 
-                    // return back the updated assets
-                    var generatedHtml = generateAssetTranslationsHtml(mutations.assetId(), mf);
+                    // KGF : TODO : get user that is performing the updated
+                    var result = BatchMutation.apply(mutations, DEFAULT_USER_ID, validator);
+                    logger.debug("applied {} translations, {} conflicts", result.applied(), result.conflicts());
 
-                    ctx.html(generatedHtml);
+                    // return back the updated assets, pointing out anything someone else saved first or that failed validation
+                    var snapshot = Catalog.snapshot();
+                    var unsaved = unsavedMessages(snapshot, result);
+                    if (unsaved.isEmpty()) {
+                        sendAssetTranslationsHtml(ctx, fragmentCache, snapshot, validator, null, assetId, renderer);
+                    } else {
+                        ctx.html(renderer.assetTranslations(snapshot, validator, assetId, unsaved));
+                    }
+                })
+                .post("/translations/batch", ctx -> {
+                    var request = ctx.bodyAsClass(BatchMutationRequest.class);
+                    if (request.mutations() == null) {
+                        throw new BadRequestResponse("mutations is required");
+                    }
+                    logger.debug("Applying a batch of {} translations", request.mutations().size());
+                    try {
+                        ctx.json(BatchMutation.apply(request.mutations(), Objects.requireNonNullElse(request.userId(), DEFAULT_USER_ID), validator));
+                    } catch (IllegalArgumentException e) {
+                        throw new BadRequestResponse(e.getMessage());
+                    }
+                })
+                .get("/translations/changes", ctx -> {
+                    var log = ctx.queryParam("log");
+                    var since = ctx.queryParamAsClass("since", Long.class).getOrDefault(-1L);
+                    var waitSeconds = Math.min(ctx.queryParamAsClass("wait", Integer.class).getOrDefault(0), MAX_CHANGES_WAIT_SECONDS);
+
+                    var feed = changeLog.changesSince(log, since);
+                    if (feed.snapshot() || !feed.changes().isEmpty() || waitSeconds <= 0) {
+                        ctx.json(feed);
+                        return;
+                    }
+                    // long poll: hold the request without a thread until the log moves or the wait runs out
+                    ctx.future(() -> changeLog.awaitChange(feed.version())
+                            .completeOnTimeout(feed.version(), waitSeconds, TimeUnit.SECONDS)
+                            .thenAccept(version -> ctx.json(changeLog.changesSince(feed.log(), feed.version()))));
+                })
+                .sse("/translations/changes/stream", client -> {
+                    // a reconnecting EventSource resumes from the last event it saw
+                    var lastEventId = client.ctx().header("Last-Event-ID");
+                    var log = client.ctx().queryParam("log");
+                    var since = client.ctx().queryParamAsClass("since", Long.class).getOrDefault(-1L);
+                    if (lastEventId != null && lastEventId.indexOf(':') > 0) {
+                        log = lastEventId.substring(0, lastEventId.indexOf(':'));
+                        since = Long.parseLong(lastEventId.substring(lastEventId.indexOf(':') + 1));
+                    }
+
+                    client.keepAlive();
+                    var subscription = changeLog.subscribe(log, since,
+                            feed -> client.sendEvent("changes", feed, feed.log() + ":" + feed.version()));
+                    client.onClose(() -> {
+                        try {
+                            subscription.close();
+                        } catch (Exception e) {
+                            logger.warn("could not close change feed subscription: {}", e.getMessage());
+                        }
+                    });
+                })
+                .get("/translations/export", ctx -> {
+                    logger.info("Exporting translations");
+                    var project = ctx.queryParamAsClass("project", Integer.class).allowNullable().get();
+                    var filter = new ExportFilter(ctx.queryParam("language"), project, ctx.queryParam("source"));
+                    try {
+                        var format = TransferFormat.parse(ctx.queryParamAsClass("format", String.class).getOrDefault("csv"));
+                        ctx.contentType(format.contentType());
+                        ctx.header(Header.CONTENT_DISPOSITION, "attachment; filename=\"translations" + format.extension() + "\"");
+                        TranslationExporter.export(snapshot(releases, ctx.queryParam("release")), format, filter, ctx.outputStream());
+                    } catch (IllegalArgumentException e) {
+                        throw new BadRequestResponse(e.getMessage());
+                    }
+                })
+                .post("/translations/import", ctx -> {
+                    TransferFormat format;
+                    try {
+                        format = TransferFormat.parse(ctx.queryParamAsClass("format", String.class).getOrDefault("csv"));
+                    } catch (IllegalArgumentException e) {
+                        throw new BadRequestResponse(e.getMessage());
+                    }
+                    var userId = ctx.queryParamAsClass("userId", Integer.class).getOrDefault(DEFAULT_USER_ID);
+                    var chunkSize = ctx.queryParamAsClass("chunkSize", Integer.class).getOrDefault(TranslationImporter.defaultChunkSize());
+                    logger.info("Importing {} translations in chunks of {}", format, chunkSize);
+
+                    TranslationImporter importer;
+                    try {
+                        importer = new TranslationImporter(userId, chunkSize, validator, soFar ->
+                                logger.info("import committed chunk {}, {} read, {} written", soFar.chunks(), soFar.read(), soFar.written()));
+                    } catch (IllegalArgumentException e) {
+                        throw new BadRequestResponse(e.getMessage());
+                    }
+                    try (var reader = format.reader(ctx.bodyInputStream())) {
+                        ctx.json(importer.run(reader));
+                    } catch (IOException e) {
+                        throw new BadRequestResponse(e.getMessage());
+                    }
+                })
+                .get("/runtime/strings", ctx -> {
+                    // small batches fit the query string: ?language=de&fallback=en&keys=A,B
+                    var request = new LookupRequest(
+                            ctx.queryParam("language"),
+                            commaSeparated(ctx.queryParam("fallback")),
+                            ctx.queryParamAsClass("project", Integer.class).allowNullable().get(),
+                            commaSeparated(ctx.queryParam("keys")),
+                            ctx.queryParamAsClass("pseudo", Boolean.class).getOrDefault(false));
+                    sendRuntimeStrings(ctx, releases, keyIndex, request, true);
+                })
+                .post("/runtime/strings", ctx -> {
+                    // hundreds of keys go in the body; a POST is never answered with 304
+                    sendRuntimeStrings(ctx, releases, keyIndex, ctx.bodyAsClass(LookupRequest.class), false);
+                })
+                .get("/coverage", ctx -> ctx.json(coverage.report(Catalog.snapshot())))
+                .get("/coverage/dashboard", ctx -> {
+                    var writer = new StringWriter();
+                    mf.compile("coverage.mustache").execute(writer, Map.of(
+                            "source", Coverage.SOURCE_LANGUAGE,
+                            "rows", coverage.report(Catalog.snapshot())));
+                    ctx.html(writer.toString());
                 })
-                .start(7070);
+                .get("/coverage/assets", ctx -> {
+                    var project = ctx.queryParamAsClass("project", Integer.class).get();
+                    var limit = ctx.queryParamAsClass("limit", Integer.class).getOrDefault(COVERAGE_ASSET_LIMIT);
+                    var language = ctx.queryParam("language");
+                    if (language == null) {
+                        throw new BadRequestResponse("language is required");
+                    }
+                    Coverage.State state;
+                    try {
+                        state = Coverage.State.valueOf(ctx.queryParamAsClass("state", String.class).getOrDefault("missing").toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new BadRequestResponse("state is one of missing, stale or translated");
+                    }
+                    try {
+                        ctx.json(coverage.assets(Catalog.snapshot(), project, language, state, limit));
+                    } catch (IllegalArgumentException e) {
+                        throw new BadRequestResponse(e.getMessage());
+                    }
+                })
+                .get("/validation", ctx -> {
+                    // ?severity=error&rule=placeholders&project=1&language=2&asset=7 narrow the issues, not the counts
+                    var severity = ctx.queryParam("severity");
+                    var rule = ctx.queryParam("rule");
+                    var project = ctx.queryParamAsClass("project", Integer.class).allowNullable().get();
+                    var language = ctx.queryParamAsClass("language", Integer.class).allowNullable().get();
+                    var asset = ctx.queryParamAsClass("asset", Integer.class).allowNullable().get();
+                    var limit = ctx.queryParamAsClass("limit", Integer.class).getOrDefault(VALIDATION_ISSUE_LIMIT);
+                    ctx.json(validator.report(Catalog.snapshot(), issue ->
+                            (severity == null || issue.severity().name().equalsIgnoreCase(severity))
+                                    && (rule == null || issue.rule().equals(rule))
+                                    && (project == null || issue.projectId() == project)
+                                    && (language == null || issue.languageId() == language)
+                                    && (asset == null || issue.assetId() == asset), limit));
+                })
+                .post("/export/bundles", ctx -> {
+                    logger.info("Exporting string bundles");
+                    ctx.json(bundleExporter.export(Catalog.snapshot()));
+                })
+                .post("/releases", ctx -> {
+                    Release release;
+                    try {
+                        release = releases.create(ctx.queryParam("name"));
+                    } catch (IllegalArgumentException e) {
+                        throw new BadRequestResponse(e.getMessage());
+                    }
+                    if (release == null) {
+                        throw new ConflictResponse("Release " + ctx.queryParam("name") + " already exists");
+                    }
+                    ctx.status(HttpStatus.CREATED);
+                    ctx.json(release);
+                })
+                .get("/releases", ctx -> ctx.json(releases.list()))
+                .get("/releases/{from}/diff/{to}", ctx -> {
+                    var diff = releases.diff(ctx.pathParam("from"), ctx.pathParam("to"));
+                    if (diff == null) {
+                        throw new NotFoundResponse("Unknown release");
+                    }
+                    ctx.json(diff);
+                })
+                .get("/metrics", ctx -> {
+                    ctx.contentType("text/plain; version=0.0.4; charset=utf-8");
+                    ctx.result(Metrics.scrape());
+                })
+                .get("/cache/stats", ctx -> ctx.json(fragmentCache.stats()))
+                .get("/db/stats", ctx -> {
+                    var pool = DBUtils.pool();
+                    ctx.json(Map.of(
+                            "writes", DBUtils.writes().stats(),
+                            "openReaders", pool.openReaders(),
+                            "idleReaders", pool.idleReaders(),
+                            "queuedReaders", pool.queuedReaders(),
+                            "queuedWriters", pool.queuedWriters(),
+                            "rejectedBorrows", pool.rejectedBorrows(),
+                            "shards", DBUtils.shards().stats()));
+                })
+                .exception(PoolSaturatedException.class, (e, ctx) -> {
+                    logger.warn("shedding request to {}: {}", ctx.path(), e.getMessage());
+                    ctx.status(HttpStatus.SERVICE_UNAVAILABLE);
+                    ctx.header(Header.RETRY_AFTER, "1");
+                    ctx.result("The server is busy, try again shortly.");
+                })
+                .start(port);
+    }
+
+    /**
+     * Gauges over state that is already counted elsewhere; they are read at scrape time.
+     */
+    private static void registerMetrics(FragmentCache fragmentCache, ChangeLog changeLog) {
+        Metrics.registerJvmMetrics();
+        Metrics.gauge("amorphous_cache_entries", "Rendered fragments held by the fragment cache.", () -> fragmentCache.stats().entries());
+        Metrics.gauge("amorphous_cache_bytes", "Bytes held by the fragment cache.", () -> fragmentCache.stats().bytes());
+        Metrics.counterFrom("amorphous_cache_lookups_total", "Fragment cache lookups by outcome.", "result")
+                .child(() -> fragmentCache.stats().hits(), "hit")
+                .child(() -> fragmentCache.stats().misses(), "miss");
+        Metrics.counterFrom("amorphous_cache_evictions_total", "Fragments dropped by the fragment cache, by reason.", "reason")
+                .child(() -> fragmentCache.stats().evictions(), "size")
+                .child(() -> fragmentCache.stats().invalidations(), "invalidated");
+        Metrics.gauge("amorphous_catalog_version", "Version of the current catalog snapshot.", changeLog::version);
+        Metrics.gauge("amorphous_db_readers", "Reader connections of the pool by state.", "state")
+                .child(() -> poolStat(pool -> pool.openReaders()), "open")
+                .child(() -> poolStat(pool -> pool.idleReaders()), "idle");
+        Metrics.gauge("amorphous_db_queued_borrows", "Callers waiting at the database gate.", "kind")
+                .child(() -> poolStat(pool -> pool.queuedReaders()), "read")
+                .child(() -> poolStat(pool -> pool.queuedWriters()), "write");
+        Metrics.gauge("amorphous_db_write_queue_depth", "Writes waiting for the next group commit.", () -> {
+            try {
+                return DBUtils.writes().stats().queued();
+            } catch (SQLException e) {
+                return Double.NaN;
+            }
+        });
+        Metrics.gauge("amorphous_db_shards", "Projects whose translations live in a shard of their own.", () -> {
+            try {
+                return DBUtils.shards().projects().size();
+            } catch (SQLException e) {
+                return Double.NaN;
+            }
+        });
+    }
+
+    /**
+     * The matched route pattern rather than the raw path, so path parameters don't explode the label space.
+     */
+    private static String routeOf(Context ctx) {
+        try {
+            return ctx.endpointHandlerPath();
+        } catch (IllegalStateException e) {
+            // nothing matched, e.g. a 404
+            return "unmatched";
+        }
     }
 
-    private static String generateAssetTranslationsHtml(int assetId, MustacheFactory mf) {
-        var translations = DBUtils.execute(DBQueries.getLanguageTranslationsForAsset(assetId))
-                .stream()
-                .map(languageTranslationFromObjectArray)
-                .collect(Collectors.toCollection(ArrayList::new));
-        var assets = DBUtils.execute(DBQueries.specificAssetSearch(assetId))
-                .stream()
-                .map(languageTranslationWithMetaFromResults)
-                .map(matchFromLanguageTranslationWithMeta)
-                .collect(Collectors.toCollection(ArrayList::new));
-        if (assets.size() != 1)
-            throw new RuntimeException("Found " + assets.size() + " assets with assetId " + assetId);
-        var asset = assets.getFirst();
-
-        var generatedHtml = generateAssetTranslationsTemplate(mf, translations, assetId, asset.title());
-        return generatedHtml;
+    private static double poolStat(ToIntFunction<ConnectionPool> stat) {
+        try {
+            return stat.applyAsInt(DBUtils.pool());
+        } catch (SQLException e) {
+            return Double.NaN;
+        }
     }
 
-    private static String generateAssetTranslationsTemplate(MustacheFactory mf, ArrayList<LanguageTranslation> translations, Integer assetId, String assetName) {
-        Writer writer = new StringWriter();
-        var assetTranslationsTemplate = mf.compile("localization.mustache");
-        var scope = Map.of("assetId", assetId,
-                "translations", translations,
-                "assetName", assetName);
-        var executedTemplate = assetTranslationsTemplate.execute(writer, scope);
-        return executedTemplate.toString();
+    /**
+     * Head, or the release a read route was asked for with {@code ?release=}.
+     */
+    private static CatalogSnapshot snapshot(Releases releases, String release) {
+        if (release == null) {
+            return Catalog.snapshot();
+        }
+        var snapshot = releases.snapshot(release);
+        if (snapshot == null) {
+            throw new NotFoundResponse("Unknown release " + release);
+        }
+        return snapshot;
     }
 
-    private static String getInspectAssetHtml(int assetId, MustacheFactory mf) {
-        var assets = DBUtils.execute(DBQueries.specificAssetSearch(assetId))
-                .stream()
-                .map(languageTranslationWithMetaFromResults)
-                .map(matchFromLanguageTranslationWithMeta)
-                .collect(Collectors.toCollection(ArrayList::new));
+    /**
+     * Answers a runtime lookup as JSON, or as {@link RuntimeFormat} for {@code ?format=binary} or a matching
+     * {@code Accept}, precompressed when the client takes gzip.
+     */
+    private static void sendRuntimeStrings(Context ctx, Releases releases, KeyIndex keyIndex, LookupRequest request, boolean conditional) {
+        var release = ctx.queryParam("release");
+        var snapshot = snapshot(releases, release);
+        var index = release == null ? keyIndex : releases.keyIndex(release, keyIndex);
+        var accept = ctx.header(Header.ACCEPT);
+        var binary = "binary".equals(ctx.queryParam("format")) || (accept != null && accept.contains(RuntimeFormat.CONTENT_TYPE));
+
+        LookupResult result;
+        try {
+            var etag = StringLookup.etag(index, snapshot, request, binary ? "binary" : "json");
+            ctx.header(Header.ETAG, etag);
+            ctx.header(Header.CACHE_CONTROL, "no-cache");
+            var ifNoneMatch = ctx.header(Header.IF_NONE_MATCH);
+            if (conditional && ifNoneMatch != null && ConditionalGet.matches(ifNoneMatch, etag)) {
+                ctx.status(HttpStatus.NOT_MODIFIED);
+                return;
+            }
+            result = StringLookup.resolve(snapshot, index, request);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestResponse(e.getMessage());
+        }
 
-        if (assets.size() != 1) {
-            throw new RuntimeException("Got multiple assets back for specific asset search. Id: " + assetId + ". Results: " + assets);
+        var body = binary
+                ? RuntimeFormat.encode(result)
+                : ctx.jsonMapper().toJsonString(result, LookupResult.class).getBytes(StandardCharsets.UTF_8);
+        ContentEncoding.send(ctx, binary ? RuntimeFormat.CONTENT_TYPE : "application/json", body,
+                ContentEncoding.gzipIfWorthIt(body, Deflater.BEST_SPEED));
+        ctx.header(Header.VARY, Header.ACCEPT + ", " + Header.ACCEPT_ENCODING);
+    }
+
+    /**
+     * A numeric form field, which arrives as a JSON number or a string.
+     */
+    private static <T> T formNumber(Map<?, ?> form, String field, Function<String, T> parse) {
+        var value = form.get(field);
+        if (value == null) {
+            throw new BadRequestResponse(field + " is required");
         }
+        try {
+            return parse.apply(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestResponse(field + " must be a whole number, got " + value);
+        }
+    }
 
-        var asset = assets.getFirst();
-        System.out.println(">> got asset : " + asset);
-
-        Writer writer = new StringWriter();
-        var inspectAssetCompiledTemplate = mf.compile("inspect-asset.mustache");
-        var generatedHtml = inspectAssetCompiledTemplate.execute(
-                writer,
-                Map.of("title", asset.title(),
-                        "assetId", asset.assetId(),
-                        "lastUpdatedTimeFormatted", asset.lastUpdatedTimeFormatted(),
-                        "lastUpdatedBy", asset.lastUpdatedBy(),
-                        "description", asset.description(),
-                        "href", asset.href()));
-        return generatedHtml.toString();
+    private static List<String> commaSeparated(String value) {
+        return value == null || value.isEmpty() ? null : List.of(value.split(","));
     }
 
-    private static String generateSearchTemplate(MustacheFactory mf) {
-        Writer writer1 = new StringWriter();
-        var searchCompiledTemplate = mf.compile("search.mustache");
-        return searchCompiledTemplate.execute(writer1, Map.of()).toString();
+    // a release can sit at the same catalog version as head, so its fragments need keys of their own
+    private static String variant(String release, String variant) {
+        return release == null ? variant : "release:" + release + ":" + variant;
     }
 
-    private static String generateQueryResultsTemplate(ArrayList<Match> matches, String searchLike, ArrayList<Match> nonMatches, MustacheFactory mf) {
-        HashMap<String, Object> scopes = new HashMap<>();
-        scopes.put("title", "Menu/HUD");
-        scopes.put("records-found", matches.size());
-        scopes.put("search", searchLike);
-        scopes.put("filter", "");
-        scopes.put("matches", matches);
-        scopes.put("non-matches", nonMatches);
-
-        try (Writer writer2 = new StringWriter()) {
-            var queryResultsCompiledTemplate = mf.compile("query-results.mustache");
-            return queryResultsCompiledTemplate.execute(writer2, scopes).toString();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    private static void sendAssetTranslationsHtml(Context ctx, FragmentCache fragmentCache, CatalogSnapshot snapshot, Validator validator, String release, int assetId, HtmlRenderer renderer) {
+        // issues only depend on the entry's own rows, so the asset version still keys the fragment
+        var key = new FragmentKey("localization", assetId, assetVersion(snapshot, assetId), variant(release, ""));
+        sendCachedHtml(ctx, fragmentCache, key, writer -> writer.write(renderer.assetTranslations(snapshot, validator, assetId)));
+    }
+
+    private static void sendInspectAssetHtml(Context ctx, FragmentCache fragmentCache, CatalogSnapshot snapshot, String release, int assetId, HtmlRenderer renderer) {
+        var key = new FragmentKey("inspect-asset", assetId, assetVersion(snapshot, assetId), variant(release, ""));
+        sendCachedHtml(ctx, fragmentCache, key, writer -> writer.write(renderer.inspectAsset(snapshot, assetId)));
+    }
+
+    private static long assetVersion(CatalogSnapshot snapshot, int assetId) {
+        var entry = snapshot.asset(assetId);
+        return entry == null ? -1 : entry.version();
+    }
+
+    private static List<String> unsavedMessages(CatalogSnapshot snapshot, BatchResult result) {
+        var messages = new ArrayList<String>();
+        for (var unsaved : result.results()) {
+            var language = snapshot.languages().get(unsaved.languageId());
+            var name = language == null ? "A translation" : language.name();
+            if (unsaved.status() == MutationStatus.CONFLICT) {
+                messages.add(name + " was saved by someone else in the meantime, your text for it was not applied");
+            } else if (unsaved.status() == MutationStatus.INVALID) {
+                messages.add(name + " was not saved: " + unsaved.message());
+            }
         }
+        return messages;
+    }
+
+    /**
+     * Serves the fragment for {@code key} from the cache, rendering it only on a miss. Rendered fragments are
+     * bounded (one page or one asset), so a miss renders into memory and both paths write ready UTF-8 bytes.
+     */
+    private static void sendCachedHtml(Context ctx, FragmentCache fragmentCache, FragmentKey key, HtmlBody body) {
+        var fragment = fragmentCache.get(key, () -> {
+            var start = System.nanoTime();
+            var writer = new StringWriter();
+            try {
+                body.write(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            renderDuration.labels(key.template()).observeNanos(System.nanoTime() - start);
+            return writer.toString();
+        });
+        ContentEncoding.send(ctx, "text/html; charset=utf-8", fragment.identity(), fragment.gzip());
     }
 
-}
\ No newline at end of file
+    @FunctionalInterface
+    private interface HtmlBody {
+        void write(Writer writer) throws IOException;
+    }
+}
@@ -1,8 +0,0 @@
-package org.example;
-
-public record MutateTranslationRequest(
-        Integer assetId,
-        String englishTranslation,
-        String germanTranslation
-) {
-}
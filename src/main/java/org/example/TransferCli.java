@@ -0,0 +1,81 @@
+package org.example;
+
+import org.example.catalog.Catalog;
+import org.example.db.DBUtils;
+import org.example.db.Migrations;
+import org.example.transfer.ExportFilter;
+import org.example.transfer.TransferFormat;
+import org.example.transfer.TranslationExporter;
+import org.example.transfer.TranslationImporter;
+import org.example.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+
+/**
+ * Bulk import and export without the server:
+ * <pre>
+ * import &lt;csv|json|xliff&gt; &lt;file&gt; [--user=1] [--chunk-size=1000]
+ * export &lt;csv|json|xliff&gt; &lt;file&gt; [--language=de] [--project=1] [--source=en]
+ * </pre>
+ */
+public class TransferCli {
+    private static final Logger logger = LoggerFactory.getLogger(TransferCli.class);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("usage: import|export <csv|json|xliff> <file> [--user=] [--chunk-size=] [--language=] [--project=] [--source=]");
+            System.exit(2);
+        }
+        var command = args[0];
+        var format = TransferFormat.parse(args[1]);
+        var file = Paths.get(args[2]);
+        var options = new HashMap<String, String>();
+        for (int i = 3; i < args.length; i++) {
+            var option = args[i];
+            var equals = option.indexOf('=');
+            if (!option.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Unrecognized option " + option);
+            }
+            options.put(option.substring(2, equals), option.substring(equals + 1));
+        }
+
+        try {
+            // imports are held to the same rules as edits in the editor
+            var validator = Validator.fromSystemProperties();
+            Catalog.addListener(validator);
+            Migrations.migrate();
+            Catalog.load();
+            switch (command) {
+                case "import" -> {
+                    var importer = new TranslationImporter(
+                            Integer.parseInt(options.getOrDefault("user", Integer.toString(Main.DEFAULT_USER_ID))),
+                            Integer.parseInt(options.getOrDefault("chunk-size", Integer.toString(TranslationImporter.defaultChunkSize()))),
+                            validator,
+                            soFar -> logger.info("Committed chunk {}, {} read, {} written, {} unchanged",
+                                    soFar.chunks(), soFar.read(), soFar.written(), soFar.unchanged()));
+                    try (var reader = format.reader(new BufferedInputStream(Files.newInputStream(file)))) {
+                        logger.info("Import finished: {}", importer.run(reader));
+                    }
+                }
+                case "export" -> {
+                    var project = options.get("project");
+                    var filter = new ExportFilter(options.get("language"), project == null ? null : Integer.valueOf(project), options.get("source"));
+                    try (var out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                        var written = TranslationExporter.export(Catalog.snapshot(), format, filter, out);
+                        logger.info("Exported {} translations to {}", written, file.toAbsolutePath());
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown command " + command + ", expected import or export");
+            }
+        } finally {
+            DBUtils.close();
+        }
+    }
+}
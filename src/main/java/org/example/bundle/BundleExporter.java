@@ -0,0 +1,193 @@
+package org.example.bundle;
+
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogSnapshot;
+import org.example.db.DBUtils;
+import org.example.db.Migrations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Exports one {@link BundleFormat} file per language and project from a catalog snapshot. A manifest next to the
+ * bundles records a fingerprint of each bundle's strings; bundles whose fingerprint did not change are left alone.
+ */
+public class BundleExporter {
+    private static final Logger logger = LoggerFactory.getLogger(BundleExporter.class);
+
+    public static final String MANIFEST = "manifest.properties";
+
+    public record ExportResult(long catalogVersion, List<String> written, List<String> unchanged, List<String> removed) {
+    }
+
+    private record BundleKey(int languageId, int projectId) {
+    }
+
+    private static final class Pending {
+        private final ArrayList<String> keys = new ArrayList<>();
+        private final ArrayList<String> values = new ArrayList<>();
+        private long fingerprint = 0xcbf29ce484222325L;
+
+        private void add(String key, String value) {
+            keys.add(key);
+            values.add(value);
+            fingerprint = mix(mix(fingerprint, key), value);
+        }
+
+        private static long mix(long hash, String text) {
+            if (text != null) {
+                for (int i = 0; i < text.length(); i++) {
+                    hash ^= text.charAt(i);
+                    hash *= 0x100000001b3L;
+                }
+            }
+            // separator, so ("ab", "c") and ("a", "bc") differ
+            hash ^= 0xff;
+            return hash * 0x100000001b3L;
+        }
+    }
+
+    private final Path directory;
+
+    public BundleExporter(Path directory) {
+        this.directory = directory;
+    }
+
+    public static BundleExporter fromSystemProperties() {
+        return new BundleExporter(Paths.get(System.getProperty("amorphous.bundles.dir", "bundles")));
+    }
+
+    public synchronized ExportResult export(CatalogSnapshot snapshot) throws IOException {
+        // assets are visited in id order and rows in language/project order, so fingerprints are stable
+        var bundles = new TreeMap<BundleKey, Pending>((a, b) -> a.languageId != b.languageId
+                ? Integer.compare(a.languageId, b.languageId)
+                : Integer.compare(a.projectId, b.projectId));
+        snapshot.assets().forEach((assetId, entry) -> {
+            for (var row : entry.translations()) {
+                bundles.computeIfAbsent(new BundleKey(row.languageId(), row.projectId()), key -> new Pending())
+                        .add(entry.asset().name(), row.translation());
+            }
+            return true;
+        });
+
+        Files.createDirectories(directory);
+        var previous = readManifest();
+        var manifest = new Properties();
+        var written = new ArrayList<String>();
+        var unchanged = new ArrayList<String>();
+
+        for (Map.Entry<BundleKey, Pending> bundle : bundles.entrySet()) {
+            var key = bundle.getKey();
+            var pending = bundle.getValue();
+            var fileName = BundleFormat.fileName(languageCode(snapshot, key.languageId()), key.projectId());
+            var fingerprint = Long.toHexString(pending.fingerprint);
+            manifest.setProperty(fileName, fingerprint);
+
+            var file = directory.resolve(fileName);
+            if (fingerprint.equals(previous.getProperty(fileName)) && Files.exists(file)) {
+                unchanged.add(fileName);
+                continue;
+            }
+
+            var writer = new BundleWriter(key.languageId(), key.projectId());
+            for (int i = 0; i < pending.keys.size(); i++) {
+                writer.add(pending.keys.get(i), pending.values.get(i));
+            }
+            writer.writeTo(file);
+            verify(file, key, pending);
+            written.add(fileName);
+        }
+
+        var removed = new ArrayList<String>();
+        for (var fileName : previous.stringPropertyNames()) {
+            if (!manifest.containsKey(fileName)) {
+                Files.deleteIfExists(directory.resolve(fileName));
+                removed.add(fileName);
+            }
+        }
+
+        if (!written.isEmpty() || !removed.isEmpty() || !Files.exists(directory.resolve(MANIFEST))) {
+            writeManifest(manifest);
+        }
+        return new ExportResult(snapshot.version(), written, unchanged, removed);
+    }
+
+    /**
+     * Reads {@code file} back the way a game would and checks that every key resolves to what was written.
+     */
+    private static void verify(Path file, BundleKey key, Pending pending) throws IOException {
+        // as in the writer: the first of two assets with the same name wins and a null text is stored empty
+        var expected = new HashMap<String, String>();
+        for (int i = 0; i < pending.keys.size(); i++) {
+            expected.putIfAbsent(pending.keys.get(i), Objects.requireNonNullElse(pending.values.get(i), ""));
+        }
+        var reader = BundleReader.map(file);
+        if (reader.languageId() != key.languageId() || reader.projectId() != key.projectId() || reader.size() != expected.size()) {
+            throw new IOException("Bundle " + file + " does not have the header that was written");
+        }
+        for (var entry : expected.entrySet()) {
+            if (!entry.getValue().equals(reader.get(entry.getKey()))) {
+                throw new IOException("Bundle " + file + " does not read back key " + entry.getKey());
+            }
+        }
+    }
+
+    private static String languageCode(CatalogSnapshot snapshot, int languageId) {
+        var language = snapshot.languages().get(languageId);
+        return language == null || language.code() == null || language.code().isBlank()
+                ? "language-" + languageId
+                : language.code();
+    }
+
+    private Properties readManifest() throws IOException {
+        var manifest = new Properties();
+        var file = directory.resolve(MANIFEST);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                manifest.load(reader);
+            }
+        }
+        return manifest;
+    }
+
+    private void writeManifest(Properties manifest) throws IOException {
+        var temporary = directory.resolve(MANIFEST + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            manifest.store(writer, "bundle fingerprints, delete to force a full export");
+        }
+        Files.move(temporary, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Entry point of the {@code exportBundles} Gradle task: brings the database schema up to date, loads the catalog
+     * and exports once.
+     */
+    public static void main(String[] args) throws IOException {
+        var exporter = args.length > 0 ? new BundleExporter(Paths.get(args[0])) : fromSystemProperties();
+        try {
+            Migrations.migrate();
+            Catalog.load();
+            var result = exporter.export(Catalog.snapshot());
+            logger.info("Exported bundles to {}, written {}, unchanged {}, removed {}", exporter.directory.toAbsolutePath(),
+                    result.written(), result.unchanged(), result.removed());
+        } finally {
+            DBUtils.close();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.bundle;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of a string bundle, all integers little endian:
+ * <pre>
+ * header   magic "AMLB", u16 format, u16 reserved, u32 language id, u32 project id,
+ *          u32 entry count, u32 index offset, u32 blob offset, u32 blob length        (32 bytes)
+ * index    entry count x { u64 key hash, u32 key offset, u32 key length,
+ *                          u32 value offset, u32 value length }                      (24 bytes each)
+ * blob     UTF-8 keys and values, offsets relative to the blob start
+ * </pre>
+ * The index is sorted by unsigned hash and then by key bytes, so a reader binary searches the hash and compares key
+ * bytes in place; nothing has to be decoded or copied until a value is actually used.
+ */
+public final class BundleFormat {
+    public static final int MAGIC = 0x424C4D41; // "AMLB" read little endian
+    public static final short FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int ENTRY_SIZE = 24;
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    public static final String EXTENSION = ".amlb";
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private BundleFormat() {
+    }
+
+    /**
+     * 64-bit FNV-1a over the key's UTF-8 bytes.
+     */
+    public static long hash(byte[] key) {
+        var hash = FNV_OFFSET_BASIS;
+        for (var b : key) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    public static long hash(String key) {
+        return hash(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String fileName(String languageCode, int projectId) {
+        return languageCode + "." + projectId + EXTENSION;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.bundle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-maps a bundle and looks keys up in place. Mirrors what a game side reader does; the export reads every
+ * bundle it writes back through it.
+ */
+public class BundleReader {
+    private final ByteBuffer buffer;
+    private final int languageId;
+    private final int projectId;
+    private final int count;
+    private final int indexOffset;
+    private final int blobOffset;
+
+    public BundleReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(BundleFormat.ORDER);
+        if (buffer.getInt(0) != BundleFormat.MAGIC || buffer.getShort(4) != BundleFormat.FORMAT_VERSION) {
+            throw new IOException("Not a version " + BundleFormat.FORMAT_VERSION + " string bundle");
+        }
+        this.languageId = buffer.getInt(8);
+        this.projectId = buffer.getInt(12);
+        this.count = buffer.getInt(16);
+        this.indexOffset = buffer.getInt(20);
+        this.blobOffset = buffer.getInt(24);
+    }
+
+    public static BundleReader map(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new BundleReader(mapped);
+        }
+    }
+
+    public int languageId() {
+        return languageId;
+    }
+
+    public int projectId() {
+        return projectId;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the value for {@code key}, or null when the bundle does not have it
+     */
+    public String get(String key) {
+        var keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        var hash = BundleFormat.hash(keyBytes);
+
+        // lower bound on the hash, then walk the (almost always single) run of equal hashes
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(buffer.getLong(entry(mid)), hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < count && buffer.getLong(entry(i)) == hash; i++) {
+            var at = entry(i);
+            if (keyEquals(buffer.getInt(at + 8), buffer.getInt(at + 12), keyBytes)) {
+                var value = new byte[buffer.getInt(at + 20)];
+                buffer.get(blobOffset + buffer.getInt(at + 16), value);
+                return new String(value, StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private int entry(int i) {
+        return indexOffset + i * BundleFormat.ENTRY_SIZE;
+    }
+
+    private boolean keyEquals(int offset, int length, byte[] key) {
+        if (length != key.length) {
+            return false;
+        }
+        var start = blobOffset + offset;
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.bundle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Collects the strings of one language and project and writes them as a {@link BundleFormat} file.
+ */
+public class BundleWriter {
+    private record Entry(long hash, byte[] key, byte[] value) {
+    }
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing((Entry entry) -> entry.hash, Long::compareUnsigned)
+            .thenComparing((a, b) -> Arrays.compareUnsigned(a.key, b.key));
+
+    private final int languageId;
+    private final int projectId;
+    private final ArrayList<Entry> entries = new ArrayList<>();
+
+    public BundleWriter(int languageId, int projectId) {
+        this.languageId = languageId;
+        this.projectId = projectId;
+    }
+
+    public void add(String key, String value) {
+        var keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        entries.add(new Entry(BundleFormat.hash(keyBytes), keyBytes, value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Writes next to {@code file} first and moves it into place, so a game mapping the old bundle never sees a
+     * half written one.
+     */
+    public void writeTo(Path file) throws IOException {
+        entries.sort(ENTRY_ORDER);
+
+        var blob = new ByteArrayOutputStream();
+        var index = ByteBuffer.allocate(entries.size() * BundleFormat.ENTRY_SIZE).order(BundleFormat.ORDER);
+        var count = 0;
+        Entry previous = null;
+        for (var entry : entries) {
+            // two assets with the same name: the first one wins, as a lookup could never reach the second
+            if (previous != null && ENTRY_ORDER.compare(previous, entry) == 0) {
+                continue;
+            }
+            index.putLong(entry.hash);
+            index.putInt(blob.size());
+            index.putInt(entry.key.length);
+            blob.write(entry.key);
+            index.putInt(blob.size());
+            index.putInt(entry.value.length);
+            blob.write(entry.value);
+            previous = entry;
+            count++;
+        }
+        index.flip();
+
+        var indexOffset = BundleFormat.HEADER_SIZE;
+        var blobOffset = indexOffset + count * BundleFormat.ENTRY_SIZE;
+        var header = ByteBuffer.allocate(BundleFormat.HEADER_SIZE).order(BundleFormat.ORDER)
+                .putInt(BundleFormat.MAGIC)
+                .putShort(BundleFormat.FORMAT_VERSION)
+                .putShort((short) 0)
+                .putInt(languageId)
+                .putInt(projectId)
+                .putInt(count)
+                .putInt(indexOffset)
+                .putInt(blobOffset)
+                .putInt(blob.size())
+                .flip();
+
+        var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffers = new ByteBuffer[]{header, index, ByteBuffer.wrap(blob.toByteArray())};
+            // a gathering write may stop short, buffers drain in order so the last one tells when all are out
+            while (buffers[buffers.length - 1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
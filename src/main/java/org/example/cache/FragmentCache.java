@@ -0,0 +1,152 @@
+package org.example.cache;
+
+import org.example.catalog.CatalogListener;
+import org.example.catalog.CatalogSnapshot;
+import org.example.web.ContentEncoding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+
+/**
+ * Bounded LRU cache of rendered htmx fragments, stored as UTF-8 bytes ready to write to the response. Fragments of
+ * at least {@link ContentEncoding#COMPRESS_ABOVE} bytes also keep a gzip variant, compressed once when they are
+ * rendered instead of on every response; both variants count towards the size bound.
+ * <p>
+ * Keys carry the version of what they were rendered from, so a stale entry can never be served. On top of that the
+ * cache follows the {@link org.example.catalog.Catalog}: a change drops the entries of exactly the changed assets,
+ * plus the catalog-wide ones ({@link #ALL_ASSETS}) such as the Menu/HUD list.
+ */
+public class FragmentCache implements CatalogListener {
+    public static final int ALL_ASSETS = -1;
+
+    public record FragmentKey(String template, int assetId, long version, String variant) {
+    }
+
+    public record Fragment(byte[] identity, byte[] gzip) {
+        long size() {
+            return identity.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, long invalidations, int entries, long bytes, long maxBytes) {
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<FragmentKey, Fragment> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final HashMap<Integer, HashSet<FragmentKey>> keysByAsset = new HashMap<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public FragmentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static FragmentCache fromSystemProperties() {
+        return new FragmentCache(Long.getLong("amorphous.cache.maxBytes", 32L * 1024 * 1024));
+    }
+
+    /**
+     * Cached fragment for {@code key}, rendering and storing it on a miss. Rendering and compression happen outside
+     * the lock; two requests racing on the same miss both render and the last one wins.
+     */
+    public Fragment get(FragmentKey key, Supplier<String> render) {
+        synchronized (this) {
+            var cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        var html = render.get().getBytes(StandardCharsets.UTF_8);
+        // a fast level: misses are rendered on the request path
+        var rendered = new Fragment(html, ContentEncoding.gzipIfWorthIt(html, Deflater.BEST_SPEED));
+        put(key, rendered);
+        return rendered;
+    }
+
+    public synchronized void invalidate(int assetId) {
+        var keys = keysByAsset.remove(assetId);
+        if (keys == null) {
+            return;
+        }
+        for (var key : keys) {
+            var removed = entries.remove(key);
+            if (removed != null) {
+                bytes -= removed.size();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        keysByAsset.clear();
+        bytes = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), bytes, maxBytes);
+    }
+
+    @Override
+    public void onLoad(CatalogSnapshot snapshot) {
+        clear();
+    }
+
+    @Override
+    public void onChange(CatalogSnapshot before, CatalogSnapshot after, int[] changedAssetIds) {
+        for (var assetId : changedAssetIds) {
+            invalidate(assetId);
+        }
+        invalidate(ALL_ASSETS);
+    }
+
+    private synchronized void put(FragmentKey key, Fragment rendered) {
+        if (rendered.size() > maxBytes) {
+            return;
+        }
+        var previous = entries.put(key, rendered);
+        if (previous != null) {
+            bytes -= previous.size();
+        }
+        bytes += rendered.size();
+        keysByAsset.computeIfAbsent(key.assetId(), id -> new HashSet<>()).add(key);
+
+        if (bytes > maxBytes) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        var evicted = new ArrayList<FragmentKey>();
+        var iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<FragmentKey, Fragment> eldest = iterator.next();
+            bytes -= eldest.getValue().size();
+            evicted.add(eldest.getKey());
+            iterator.remove();
+            evictions++;
+        }
+        for (var key : evicted) {
+            var keys = keysByAsset.get(key.assetId());
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByAsset.remove(key.assetId());
+                }
+            }
+        }
+    }
+}
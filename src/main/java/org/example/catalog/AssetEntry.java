@@ -0,0 +1,118 @@
+package org.example.catalog;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * One asset and all of its translation rows, sorted by language id then project id. {@code latest} holds the most
+ * recently updated row of each project, sorted by project id. {@code version} is the catalog version that last
+ * touched the entry and {@code modified} the epoch millis of that change; asset edits do not touch any
+ * {@code updated} column, so {@code modified} is the only timestamp that sees them.
+ */
+public record AssetEntry(
+        AssetRow asset,
+        TranslationRow[] translations,
+        TranslationRow[] latest,
+        long version,
+        long modified
+) {
+    static final Comparator<TranslationRow> TRANSLATION_ORDER = Comparator
+            .comparingInt(TranslationRow::languageId)
+            .thenComparingInt(TranslationRow::projectId);
+
+    public int assetId() {
+        return asset.assetId();
+    }
+
+    public TranslationRow translation(int projectId, int languageId) {
+        for (var row : translations) {
+            if (row.projectId() == projectId && row.languageId() == languageId) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The most recent row of {@code projectId}, or null when the project has no translation of this asset.
+     */
+    public TranslationRow latest(int projectId) {
+        for (var row : latest) {
+            if (row.projectId() == projectId) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    static AssetEntry created(AssetRow asset, long version, long modified) {
+        return new AssetEntry(asset, new TranslationRow[0], new TranslationRow[0], version, modified);
+    }
+
+    static AssetEntry loaded(AssetRow asset, TranslationRow[] translations) {
+        var modified = 0L;
+        for (var row : translations) {
+            modified = Math.max(modified, row.updated());
+        }
+        return new AssetEntry(asset, translations, latestPerProject(translations), 0, modified);
+    }
+
+    AssetEntry withAsset(AssetRow newAsset, long newVersion, long newModified) {
+        return new AssetEntry(newAsset, translations, latest, newVersion, Math.max(modified, newModified));
+    }
+
+    AssetEntry withTranslation(TranslationRow row, long newVersion) {
+        var newModified = Math.max(modified, row.updated());
+        for (int i = 0; i < translations.length; i++) {
+            if (translations[i].sameCell(row)) {
+                var replaced = translations.clone();
+                replaced[i] = row;
+                var current = latest(row.projectId());
+                // only a cell that was the latest and got an older stamp needs its project rescanned
+                var newLatest = current.sameCell(row) && row.updated() < current.updated()
+                        ? latestPerProject(replaced)
+                        : withLatest(row);
+                return new AssetEntry(asset, replaced, newLatest, newVersion, newModified);
+            }
+        }
+        var inserted = Arrays.copyOf(translations, translations.length + 1);
+        inserted[translations.length] = row;
+        Arrays.sort(inserted, TRANSLATION_ORDER);
+        return new AssetEntry(asset, inserted, withLatest(row), newVersion, newModified);
+    }
+
+    private TranslationRow[] withLatest(TranslationRow row) {
+        for (int i = 0; i < latest.length; i++) {
+            if (latest[i].projectId() == row.projectId()) {
+                if (row.updated() < latest[i].updated()) {
+                    return latest;
+                }
+                var replaced = latest.clone();
+                replaced[i] = row;
+                return replaced;
+            }
+        }
+        var added = Arrays.copyOf(latest, latest.length + 1);
+        added[latest.length] = row;
+        Arrays.sort(added, Comparator.comparingInt(TranslationRow::projectId));
+        return added;
+    }
+
+    private static TranslationRow[] latestPerProject(TranslationRow[] translations) {
+        var latest = new TranslationRow[0];
+        for (var row : translations) {
+            var i = 0;
+            while (i < latest.length && latest[i].projectId() != row.projectId()) {
+                i++;
+            }
+            if (i == latest.length) {
+                latest = Arrays.copyOf(latest, latest.length + 1);
+                latest[i] = row;
+            } else if (row.updated() > latest[i].updated()) {
+                latest[i] = row;
+            }
+        }
+        Arrays.sort(latest, Comparator.comparingInt(TranslationRow::projectId));
+        return latest;
+    }
+}
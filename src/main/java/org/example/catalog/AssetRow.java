@@ -0,0 +1,9 @@
+package org.example.catalog;
+
+public record AssetRow(
+        int assetId,
+        String name,
+        String url,
+        String description
+) {
+}
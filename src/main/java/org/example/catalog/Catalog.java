@@ -0,0 +1,205 @@
+package org.example.catalog;
+
+import org.example.db.DBQueries;
+import org.example.db.DBSession;
+import org.example.db.DBUtils;
+import org.example.db.LanguageTranslation;
+import org.example.db.RowMapper;
+import org.example.db.Shards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory read model of the translation catalog. Loaded once at startup and then kept current by the mutate
+ * routes, which call {@code apply*} only after their SQLite commit succeeded.
+ */
+public class Catalog {
+    private static final Logger logger = LoggerFactory.getLogger(Catalog.class);
+    private static final AtomicReference<CatalogSnapshot> current = new AtomicReference<>(
+            new CatalogSnapshot(0, CowArray.empty(), CowArray.empty(), CowArray.empty(), CowArray.empty()));
+    private static final Object writeLock = new Object();
+    private static final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile long loadedAt;
+
+    public static void addListener(CatalogListener listener) {
+        listeners.add(listener);
+    }
+
+    public static CatalogSnapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Epoch millis of the last load. Versions restart at 0 and asset edits, which only live in memory, are
+     * forgotten with every load, so validators built on either need this to stay apart across restarts.
+     */
+    public static long loadedAt() {
+        return loadedAt;
+    }
+
+    public static void load() {
+        logger.info("Loading catalog");
+        try {
+            var shards = DBUtils.shards();
+            var loaded = DBUtils.pool().withReader(session -> read(session, shards));
+            synchronized (writeLock) {
+                loadedAt = System.currentTimeMillis();
+                current.set(loaded);
+                for (var listener : listeners) {
+                    listener.onLoad(loaded);
+                }
+            }
+            logger.info("Loaded catalog with {} assets", loaded.assets().size());
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not load catalog", e);
+        }
+    }
+
+    public static void applyAsset(int assetId, String name, String url, String description) {
+        synchronized (writeLock) {
+            var snapshot = current.get();
+            var version = snapshot.version() + 1;
+            var entry = snapshot.asset(assetId);
+            var asset = new AssetRow(assetId, name, url, description);
+            var updated = entry == null
+                    ? AssetEntry.created(asset, version, System.currentTimeMillis())
+                    : entry.withAsset(asset, version, System.currentTimeMillis());
+            publish(snapshot, withAssets(snapshot, version, snapshot.assets().with(assetId, updated)), new int[]{assetId});
+        }
+    }
+
+    public static void applyTranslations(List<LanguageTranslation> translations) {
+        synchronized (writeLock) {
+            var snapshot = current.get();
+            var version = snapshot.version() + 1;
+            var assets = snapshot.assets();
+            var changed = new int[translations.size()];
+            var changedCount = 0;
+
+            for (var translation : translations) {
+                var entry = assets.get(translation.assetId());
+                if (entry == null) {
+                    continue;
+                }
+                var row = new TranslationRow(
+                        translation.assetId(),
+                        translation.projectId(),
+                        translation.languageId(),
+                        translation.translation(),
+                        translation.updated(),
+                        translation.userId());
+                assets = assets.with(translation.assetId(), entry.withTranslation(row, version));
+                if (changedCount == 0 || changed[changedCount - 1] != translation.assetId()) {
+                    changed[changedCount++] = translation.assetId();
+                }
+            }
+            publish(snapshot, withAssets(snapshot, version, assets), Arrays.stream(changed, 0, changedCount).distinct().toArray());
+        }
+    }
+
+    private static void publish(CatalogSnapshot before, CatalogSnapshot after, int[] changedAssetIds) {
+        current.set(after);
+        for (var listener : listeners) {
+            listener.onChange(before, after, changedAssetIds);
+        }
+    }
+
+    private static CatalogSnapshot withAssets(CatalogSnapshot snapshot, long version, CowArray<AssetEntry> assets) {
+        return new CatalogSnapshot(version, assets, snapshot.languages(), snapshot.projects(), snapshot.users());
+    }
+
+    private static final RowMapper<LanguageRow> languageRow =
+            (row -> new LanguageRow(row.getInt(1), row.getString(2), row.getString(3)));
+
+    private static final RowMapper<ProjectRow> projectRow =
+            (row -> new ProjectRow(row.getInt(1), row.getString(2)));
+
+    private static final RowMapper<UserRow> userRow =
+            (row -> new UserRow(row.getInt(1), row.getString(2)));
+
+    private static final RowMapper<AssetRow> assetRow =
+            (row -> new AssetRow(row.getInt(1), row.getString(2), row.getString(3), row.getString(4)));
+
+    private static final RowMapper<TranslationRow> translationRow =
+            (row -> new TranslationRow(
+                    row.getInt(1), // asset id
+                    row.getInt(2), // project id
+                    row.getInt(3), // language id
+                    row.getString(4), // translation
+                    row.getLong(5), // updated
+                    row.getInt(6) // who updated
+            ));
+
+    // the ORDER BY of CATALOG_TRANSLATIONS
+    private static final Comparator<TranslationRow> translationOrder = Comparator
+            .comparingInt(TranslationRow::assetId)
+            .thenComparingInt(TranslationRow::languageId)
+            .thenComparingInt(TranslationRow::projectId);
+
+    /**
+     * Reads every table of the primary inside one transaction so the catalog matches a single point in its WAL.
+     * Translations of sharded projects are read from each shard in parallel and merged in; each of those is
+     * consistent within its own shard.
+     */
+    private static CatalogSnapshot read(DBSession session, Shards shards) throws SQLException {
+        var connection = session.connection();
+        connection.setAutoCommit(false);
+        try {
+            var languages = new CowArray.Builder<LanguageRow>();
+            session.forEach(DBQueries.CATALOG_LANGUAGES, languageRow, row -> languages.put(row.languageId(), row));
+
+            var projects = new CowArray.Builder<ProjectRow>();
+            session.forEach(DBQueries.CATALOG_PROJECTS, projectRow, row -> projects.put(row.projectId(), row));
+
+            var users = new CowArray.Builder<UserRow>();
+            session.forEach(DBQueries.CATALOG_USERS, userRow, row -> users.put(row.userId(), row));
+
+            var assetRows = new CowArray.Builder<AssetRow>();
+            session.forEach(DBQueries.CATALOG_ASSETS, assetRow, row -> assetRows.put(row.assetId(), row));
+
+            // rows arrive ordered by asset, language, project so each asset's block is already sorted
+            var assets = new CowArray.Builder<AssetEntry>();
+            var rowsForAsset = new ArrayList<TranslationRow>();
+            shards.forEachMerged(session, DBQueries.CATALOG_TRANSLATIONS, translationRow, translationOrder, row -> {
+                if (!rowsForAsset.isEmpty() && rowsForAsset.getFirst().assetId() != row.assetId()) {
+                    putEntry(assets, assetRows, rowsForAsset);
+                }
+                rowsForAsset.add(row);
+            });
+            if (!rowsForAsset.isEmpty()) {
+                putEntry(assets, assetRows, rowsForAsset);
+            }
+
+            // assets without any translation still need an entry so they can be edited and found
+            assetRows.build().forEach((assetId, asset) -> {
+                if (assets.get(assetId) == null) {
+                    assets.put(assetId, AssetEntry.loaded(asset, new TranslationRow[0]));
+                }
+                return true;
+            });
+
+            return new CatalogSnapshot(0, assets.build(), languages.build(), projects.build(), users.build());
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void putEntry(CowArray.Builder<AssetEntry> assets,
+                                 CowArray.Builder<AssetRow> assetRows,
+                                 ArrayList<TranslationRow> rowsForAsset) {
+        var asset = assetRows.get(rowsForAsset.getFirst().assetId());
+        if (asset != null) {
+            assets.put(asset.assetId(), AssetEntry.loaded(asset, rowsForAsset.toArray(new TranslationRow[0])));
+        }
+        rowsForAsset.clear();
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * What changed between two catalog snapshots: asset rows and translation cells, each as a before/after pair where
+ * null means absent. Both lists are ordered by asset id, cells then by language and project.
+ * <p>
+ * Snapshots derived from one another share every untouched chunk and entry, so {@link #between} only looks at what
+ * was written in between; two snapshots loaded separately still diff correctly, just by comparing everything.
+ */
+public record CatalogDiff(List<AssetChange> assets, List<CellChange> cells) {
+
+    public record AssetChange(int assetId, AssetRow before, AssetRow after) {
+    }
+
+    public record CellChange(int assetId, int projectId, int languageId, TranslationRow before, TranslationRow after) {
+    }
+
+    public static CatalogDiff between(CatalogSnapshot before, CatalogSnapshot after) {
+        var assets = new ArrayList<AssetChange>();
+        var cells = new ArrayList<CellChange>();
+        before.assets().forEachDifference(after.assets(), (assetId, was, is) -> {
+            var wasAsset = was == null ? null : was.asset();
+            var isAsset = is == null ? null : is.asset();
+            if (!Objects.equals(wasAsset, isAsset)) {
+                assets.add(new AssetChange(assetId, wasAsset, isAsset));
+            }
+            var wasRows = was == null ? new TranslationRow[0] : was.translations();
+            var isRows = is == null ? new TranslationRow[0] : is.translations();
+            if (wasRows != isRows) {
+                diffCells(wasRows, isRows, cells);
+            }
+        });
+        return new CatalogDiff(assets, cells);
+    }
+
+    public boolean isEmpty() {
+        return assets.isEmpty() && cells.isEmpty();
+    }
+
+    /**
+     * {@code base} with every change applied, sharing all untouched entries with it. Only the {@code after} side
+     * is read, so a diff rebuilt from storage can leave {@code before} null.
+     */
+    public CatalogSnapshot applyTo(CatalogSnapshot base, long version) {
+        var assetChanges = new TreeMap<Integer, AssetChange>();
+        for (var change : assets) {
+            assetChanges.put(change.assetId(), change);
+        }
+        var cellChanges = new TreeMap<Integer, List<CellChange>>();
+        for (var change : cells) {
+            cellChanges.computeIfAbsent(change.assetId(), assetId -> new ArrayList<>()).add(change);
+        }
+        var touched = new TreeSet<>(assetChanges.keySet());
+        touched.addAll(cellChanges.keySet());
+
+        var entries = base.assets();
+        for (var assetId : touched) {
+            var entry = entries.get(assetId);
+            var assetChange = assetChanges.get(assetId);
+            var asset = assetChange != null ? assetChange.after() : entry == null ? null : entry.asset();
+            if (asset == null) {
+                entries = entries.with(assetId, null);
+                continue;
+            }
+
+            var rows = new ArrayList<>(Arrays.asList(entry == null ? new TranslationRow[0] : entry.translations()));
+            for (var change : cellChanges.getOrDefault(assetId, List.of())) {
+                rows.removeIf(row -> row.projectId() == change.projectId() && row.languageId() == change.languageId());
+                if (change.after() != null) {
+                    rows.add(change.after());
+                }
+            }
+            rows.sort(AssetEntry.TRANSLATION_ORDER);
+            var loaded = AssetEntry.loaded(asset, rows.toArray(new TranslationRow[0]));
+            entries = entries.with(assetId, new AssetEntry(loaded.asset(), loaded.translations(), loaded.latest(), version, loaded.modified()));
+        }
+        return new CatalogSnapshot(version, entries, base.languages(), base.projects(), base.users());
+    }
+
+    // both sides are sorted by language then project
+    private static void diffCells(TranslationRow[] before, TranslationRow[] after, List<CellChange> cells) {
+        int i = 0;
+        int j = 0;
+        while (i < before.length || j < after.length) {
+            var order = i == before.length ? 1 : j == after.length ? -1 : AssetEntry.TRANSLATION_ORDER.compare(before[i], after[j]);
+            if (order < 0) {
+                cells.add(change(before[i], null));
+                i++;
+            } else if (order > 0) {
+                cells.add(change(null, after[j]));
+                j++;
+            } else {
+                if (!before[i].equals(after[j])) {
+                    cells.add(change(before[i], after[j]));
+                }
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private static CellChange change(TranslationRow before, TranslationRow after) {
+        var cell = before != null ? before : after;
+        return new CellChange(cell.assetId(), cell.projectId(), cell.languageId(), before, after);
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.catalog;
+
+/**
+ * Derived structures (indexes, caches, feeds) that follow the catalog. Callbacks run on the writing thread, in
+ * commit order, right after the new snapshot is published.
+ */
+public interface CatalogListener {
+    void onLoad(CatalogSnapshot snapshot);
+
+    void onChange(CatalogSnapshot before, CatalogSnapshot after, int[] changedAssetIds);
+}
@@ -0,0 +1,110 @@
+package org.example.catalog;
+
+import org.example.db.LanguageTranslation;
+import org.example.query.Match;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable view of the whole translation catalog at one {@code version}. Readers grab the current snapshot from
+ * {@link Catalog#snapshot()} and never lock; writers publish a new snapshot that shares every untouched chunk.
+ */
+public record CatalogSnapshot(
+        long version,
+        CowArray<AssetEntry> assets,
+        CowArray<LanguageRow> languages,
+        CowArray<ProjectRow> projects,
+        CowArray<UserRow> users
+) {
+    public AssetEntry asset(int assetId) {
+        return assets.get(assetId);
+    }
+
+    /**
+     * Id of the language with {@code code}, ignoring case, or -1 when there is none.
+     */
+    public int languageId(String code) {
+        var found = new int[]{-1};
+        languages.forEach((languageId, language) -> {
+            if (code.equalsIgnoreCase(language.code())) {
+                found[0] = languageId;
+                return false;
+            }
+            return true;
+        });
+        return found[0];
+    }
+
+    /**
+     * One match per asset and project that has translations, carrying the most recent update, ordered by asset id.
+     */
+    public ArrayList<Match> matches() {
+        var matches = new ArrayList<Match>(assets.size());
+        assets.forEach((assetId, entry) -> {
+            appendMatches(entry, matches);
+            return true;
+        });
+        return matches;
+    }
+
+    public ArrayList<Match> matches(int assetId) {
+        var matches = new ArrayList<Match>(1);
+        var entry = assets.get(assetId);
+        if (entry != null) {
+            appendMatches(entry, matches);
+        }
+        return matches;
+    }
+
+    /**
+     * Every translation of the asset with its language and user names, ordered by language id.
+     */
+    public ArrayList<LanguageTranslation> translations(int assetId) {
+        var translations = new ArrayList<LanguageTranslation>();
+        var entry = assets.get(assetId);
+        if (entry == null) {
+            return translations;
+        }
+
+        for (var row : entry.translations()) {
+            var language = languages.get(row.languageId());
+            var user = users.get(row.whoUpdated());
+            if (language == null || user == null) {
+                continue;
+            }
+            translations.add(new LanguageTranslation(
+                    row.assetId(),
+                    language.name(),
+                    row.translation(),
+                    row.updated(),
+                    entry.asset().name(),
+                    user.name(),
+                    row.projectId(),
+                    row.languageId(),
+                    row.whoUpdated()));
+        }
+        return translations;
+    }
+
+    /**
+     * Reads the per-project latest row the entry keeps up to date, so no translation row is scanned.
+     */
+    public void appendMatches(AssetEntry entry, List<Match> matches) {
+        for (var latest : entry.latest()) {
+            var user = users.get(latest.whoUpdated());
+            if (user == null || languages.get(latest.languageId()) == null || projects.get(latest.projectId()) == null) {
+                continue;
+            }
+            var asset = entry.asset();
+            matches.add(new Match(
+                    asset.assetId(),
+                    asset.url(),
+                    asset.name(),
+                    asset.description(),
+                    latest.updated(),
+                    user.name(),
+                    null));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, dense array keyed by a primitive int id. Values live in fixed-size chunks so {@link #with(int, Object)}
+ * copies only the chunk index and the one chunk it touches; every other chunk is shared with the previous version.
+ */
+public final class CowArray<T> {
+    static final int SHIFT = 6;
+    static final int CHUNK_SIZE = 1 << SHIFT;
+    static final int MASK = CHUNK_SIZE - 1;
+
+    private static final CowArray<?> EMPTY = new CowArray<>(new Object[0][], 0);
+
+    private final Object[][] chunks;
+    private final int size;
+
+    private CowArray(Object[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CowArray<T> empty() {
+        return (CowArray<T>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        if (key < 0) {
+            return null;
+        }
+        var chunkIndex = key >>> SHIFT;
+        if (chunkIndex >= chunks.length) {
+            return null;
+        }
+        var chunk = chunks[chunkIndex];
+        return chunk == null ? null : (T) chunk[key & MASK];
+    }
+
+    public CowArray<T> with(int key, T value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+        var chunkIndex = key >>> SHIFT;
+        var newChunks = Arrays.copyOf(chunks, Math.max(chunks.length, chunkIndex + 1));
+        var chunk = newChunks[chunkIndex];
+        var newChunk = chunk == null ? new Object[CHUNK_SIZE] : chunk.clone();
+        var previous = newChunk[key & MASK];
+        newChunk[key & MASK] = value;
+        newChunks[chunkIndex] = newChunk;
+
+        var newSize = size + (previous == null ? 1 : 0) - (value == null ? 1 : 0);
+        return new CowArray<>(newChunks, newSize);
+    }
+
+    /**
+     * Number of non-null entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * One past the highest key that could hold a value.
+     */
+    public int capacity() {
+        return chunks.length << SHIFT;
+    }
+
+    /**
+     * Visits non-null entries in ascending key order, starting at {@code fromKey}, until the visitor returns false.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachFrom(int fromKey, Visitor<T> visitor) {
+        for (int c = Math.max(0, fromKey) >>> SHIFT; c < chunks.length; c++) {
+            var chunk = chunks[c];
+            if (chunk == null) {
+                continue;
+            }
+            var start = c == (Math.max(0, fromKey) >>> SHIFT) ? Math.max(0, fromKey) & MASK : 0;
+            for (int i = start; i < CHUNK_SIZE; i++) {
+                if (chunk[i] != null && !visitor.visit((c << SHIFT) | i, (T) chunk[i])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public void forEach(Visitor<T> visitor) {
+        forEachFrom(0, visitor);
+    }
+
+    /**
+     * Visits every key whose value is a different reference in {@code other}, in ascending key order. Chunks both
+     * versions share are skipped whole, so comparing a version with one derived from it costs in the chunks that
+     * were written in between, not in the size of the array.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachDifference(CowArray<T> other, DifferenceVisitor<T> visitor) {
+        var length = Math.max(chunks.length, other.chunks.length);
+        for (int c = 0; c < length; c++) {
+            var mine = c < chunks.length ? chunks[c] : null;
+            var theirs = c < other.chunks.length ? other.chunks[c] : null;
+            if (mine == theirs) {
+                continue;
+            }
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                var before = mine == null ? null : mine[i];
+                var after = theirs == null ? null : theirs[i];
+                if (before != after) {
+                    visitor.visit((c << SHIFT) | i, (T) before, (T) after);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor<T> {
+        boolean visit(int key, T value);
+    }
+
+    @FunctionalInterface
+    public interface DifferenceVisitor<T> {
+        void visit(int key, T before, T after);
+    }
+
+    /**
+     * Mutable builder for bulk loads, so filling n entries costs O(n) instead of n copy-on-write steps.
+     */
+    public static final class Builder<T> {
+        private Object[][] chunks = new Object[0][];
+        private int size;
+
+        public Builder<T> put(int key, T value) {
+            if (key < 0) {
+                throw new IllegalArgumentException("Negative key: " + key);
+            }
+            var chunkIndex = key >>> SHIFT;
+            if (chunkIndex >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, Math.max(chunkIndex + 1, chunks.length * 2));
+            }
+            if (chunks[chunkIndex] == null) {
+                chunks[chunkIndex] = new Object[CHUNK_SIZE];
+            }
+            if (chunks[chunkIndex][key & MASK] == null) {
+                size++;
+            }
+            chunks[chunkIndex][key & MASK] = value;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int key) {
+            var chunkIndex = key >>> SHIFT;
+            if (key < 0 || chunkIndex >= chunks.length || chunks[chunkIndex] == null) {
+                return null;
+            }
+            return (T) chunks[chunkIndex][key & MASK];
+        }
+
+        public CowArray<T> build() {
+            var last = chunks.length;
+            while (last > 0 && chunks[last - 1] == null) {
+                last--;
+            }
+            var built = new CowArray<T>(Arrays.copyOf(chunks, last), size);
+            chunks = new Object[0][];
+            size = 0;
+            return built;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.catalog;
+
+public record LanguageRow(
+        int languageId,
+        String name,
+        String code
+) {
+}
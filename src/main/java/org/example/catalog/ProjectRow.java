@@ -0,0 +1,7 @@
+package org.example.catalog;
+
+public record ProjectRow(
+        int projectId,
+        String name
+) {
+}
@@ -0,0 +1,14 @@
+package org.example.catalog;
+
+public record TranslationRow(
+        int assetId,
+        int projectId,
+        int languageId,
+        String translation,
+        long updated, // epoch millis
+        int whoUpdated
+) {
+    public boolean sameCell(TranslationRow other) {
+        return assetId == other.assetId && projectId == other.projectId && languageId == other.languageId;
+    }
+}
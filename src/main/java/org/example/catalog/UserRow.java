@@ -0,0 +1,7 @@
+package org.example.catalog;
+
+public record UserRow(
+        int userId,
+        String name
+) {
+}
@@ -0,0 +1,182 @@
+package org.example.coverage;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.CatalogListener;
+import org.example.catalog.CatalogSnapshot;
+import org.example.catalog.TranslationRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Translated and stale counters per project and language, kept next to the catalog so a coverage report never
+ * aggregates {@code language_translation}. A change re-counts only the assets it touched, subtracting what each
+ * contributed before and adding what it contributes after; editing a source text therefore moves the stale count of
+ * every translation of that asset at once. A load counts slices of the asset range in parallel.
+ * <p>
+ * A translation counts once its text is non-empty. It is stale when the source language row of the same asset and
+ * project is newer.
+ */
+public class Coverage implements CatalogListener {
+    public static final String SOURCE_LANGUAGE = System.getProperty("amorphous.coverage.sourceLanguage", "en");
+    // asset ids per parallel slice of a load; small catalogs end up as one slice
+    private static final int LOAD_SLICE = 4096;
+
+    private static final Logger logger = LoggerFactory.getLogger(Coverage.class);
+
+    public enum State {
+        TRANSLATED, MISSING, STALE
+    }
+
+    /**
+     * {translated, stale} per project and language, keyed by {@link #cell}.
+     */
+    private static final class Counts {
+        private final HashMap<Long, long[]> cells = new HashMap<>();
+        private long assets;
+
+        private void add(AssetEntry entry, int sign, int sourceLanguageId) {
+            assets += sign;
+            for (var row : entry.translations()) {
+                if (!hasText(row)) {
+                    continue;
+                }
+                var counts = cells.computeIfAbsent(cell(row.projectId(), row.languageId()), key -> new long[2]);
+                counts[0] += sign;
+                if (isStale(entry, row, sourceLanguageId)) {
+                    counts[1] += sign;
+                }
+            }
+        }
+
+        private Counts merge(Counts other) {
+            assets += other.assets;
+            other.cells.forEach((key, counts) -> {
+                var mine = cells.computeIfAbsent(key, k -> new long[2]);
+                mine[0] += counts[0];
+                mine[1] += counts[1];
+            });
+            return this;
+        }
+    }
+
+    private Counts counts = new Counts();
+    private int sourceLanguageId = -1;
+
+    @Override
+    public void onLoad(CatalogSnapshot snapshot) {
+        var started = System.nanoTime();
+        var sourceId = snapshot.languageId(SOURCE_LANGUAGE);
+        var assets = snapshot.assets();
+        var slices = (assets.capacity() + LOAD_SLICE - 1) / LOAD_SLICE;
+        var loaded = IntStream.range(0, slices).parallel()
+                .mapToObj(slice -> {
+                    var sliceCounts = new Counts();
+                    var end = (slice + 1) * LOAD_SLICE;
+                    assets.forEachFrom(slice * LOAD_SLICE, (assetId, entry) -> {
+                        if (assetId >= end) {
+                            return false;
+                        }
+                        sliceCounts.add(entry, 1, sourceId);
+                        return true;
+                    });
+                    return sliceCounts;
+                })
+                .reduce(new Counts(), Counts::merge);
+        synchronized (this) {
+            counts = loaded;
+            sourceLanguageId = sourceId;
+        }
+        logger.info("Counted coverage of {} assets in {} slices in {} ms", loaded.assets, slices,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public synchronized void onChange(CatalogSnapshot before, CatalogSnapshot after, int[] changedAssetIds) {
+        for (var assetId : changedAssetIds) {
+            var was = before.asset(assetId);
+            var is = after.asset(assetId);
+            if (was == is) {
+                continue;
+            }
+            if (was != null) {
+                counts.add(was, -1, sourceLanguageId);
+            }
+            if (is != null) {
+                counts.add(is, 1, sourceLanguageId);
+            }
+        }
+    }
+
+    /**
+     * One row per project and language of {@code snapshot}, ordered by project then language.
+     */
+    public synchronized List<CoverageRow> report(CatalogSnapshot snapshot) {
+        var rows = new ArrayList<CoverageRow>();
+        snapshot.projects().forEach((projectId, project) -> {
+            snapshot.languages().forEach((languageId, language) -> {
+                var cell = counts.cells.getOrDefault(cell(projectId, languageId), new long[2]);
+                var assets = counts.assets;
+                rows.add(new CoverageRow(projectId, project.name(), languageId, language.code(),
+                        languageId == sourceLanguageId, assets, cell[0], assets - cell[0], cell[1],
+                        assets == 0 ? 100.0 : Math.round(cell[0] * 1000.0 / assets) / 10.0));
+                return true;
+            });
+            return true;
+        });
+        return rows;
+    }
+
+    /**
+     * Up to {@code limit} assets of {@code projectId} in {@code languageCode} that are in {@code state}, in asset id
+     * order. Walks the in-memory catalog, not the database.
+     *
+     * @throws IllegalArgumentException for an unknown language
+     */
+    public List<CoverageAsset> assets(CatalogSnapshot snapshot, int projectId, String languageCode, State state, int limit) {
+        var languageId = snapshot.languageId(languageCode);
+        if (languageId < 0) {
+            throw new IllegalArgumentException("Unknown language " + languageCode);
+        }
+        int sourceId;
+        synchronized (this) {
+            sourceId = sourceLanguageId;
+        }
+
+        var assets = new ArrayList<CoverageAsset>();
+        snapshot.assets().forEach((assetId, entry) -> {
+            if (assets.size() >= limit) {
+                return false;
+            }
+            var row = entry.translation(projectId, languageId);
+            var source = sourceId < 0 ? null : entry.translation(projectId, sourceId);
+            var current = !hasText(row) ? State.MISSING : isStale(entry, row, sourceId) ? State.STALE : State.TRANSLATED;
+            if (current == state) {
+                assets.add(new CoverageAsset(assetId, entry.asset().name(), current,
+                        row == null ? null : row.updated(), source == null ? null : source.updated()));
+            }
+            return true;
+        });
+        return assets;
+    }
+
+    private static boolean hasText(TranslationRow row) {
+        return row != null && row.translation() != null && !row.translation().isEmpty();
+    }
+
+    private static boolean isStale(AssetEntry entry, TranslationRow row, int sourceLanguageId) {
+        if (sourceLanguageId < 0 || row.languageId() == sourceLanguageId) {
+            return false;
+        }
+        var source = entry.translation(row.projectId(), sourceLanguageId);
+        return hasText(source) && source.updated() > row.updated();
+    }
+
+    private static long cell(int projectId, int languageId) {
+        return ((long) projectId << 32) | (languageId & 0xffffffffL);
+    }
+}
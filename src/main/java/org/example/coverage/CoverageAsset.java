@@ -0,0 +1,14 @@
+package org.example.coverage;
+
+/**
+ * One asset behind a coverage count. {@code updated} is the translation's timestamp and {@code sourceUpdated} that
+ * of the source text; either is null when the row does not exist.
+ */
+public record CoverageAsset(
+        int assetId,
+        String name,
+        Coverage.State state,
+        Long updated,
+        Long sourceUpdated
+) {
+}
@@ -0,0 +1,29 @@
+package org.example.coverage;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Coverage of one language in one project. Every asset is expected in every project and language, so
+ * {@code missing} is {@code assets - translated}; {@code stale} counts translations older than the source text of
+ * the same asset and project, and is always 0 for the source language itself.
+ */
+public record CoverageRow(
+        int projectId,
+        String project,
+        int languageId,
+        String language,
+        boolean source,
+        long assets,
+        long translated,
+        long missing,
+        long stale,
+        double percentTranslated
+) {
+    /**
+     * {@code language} encoded for a query string, for the dashboard's drill-down links.
+     */
+    public String languageParam() {
+        return URLEncoder.encode(language, StandardCharsets.UTF_8);
+    }
+}
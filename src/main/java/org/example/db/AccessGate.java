@@ -0,0 +1,106 @@
+package org.example.db;
+
+import org.example.metrics.Counter;
+import org.example.metrics.Histogram;
+import org.example.metrics.Metrics;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control in front of the {@link ConnectionPool}: up to {@code readers} concurrent readers, exactly one
+ * writer, and a bounded number of callers allowed to wait for either. Past that, or past the timeout, callers are
+ * shed with {@link PoolSaturatedException} rather than piling up.
+ * <p>
+ * With request handlers on virtual threads this is what bounds database concurrency; SQLite calls go through JNI
+ * and pin their carrier thread, so the gate also keeps them from occupying every carrier.
+ */
+final class AccessGate {
+    private static final Histogram waitTime = Metrics.histogram("amorphous_db_gate_wait_seconds",
+            "Time spent waiting for database read or write access.", Histogram.LATENCY_SECONDS, "kind");
+    private static final Counter rejections = Metrics.counter("amorphous_db_gate_rejections_total",
+            "Database accesses shed because the gate was saturated.", "kind");
+
+    private final Semaphore reads;
+    private final Semaphore write = new Semaphore(1, true);
+    private final AtomicInteger queuedReads = new AtomicInteger();
+    private final AtomicInteger queuedWrites = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final int maxQueuedReads;
+    private final int maxQueuedWrites;
+    private final long timeoutMillis;
+
+    AccessGate(int readers, int maxQueuedReads, int maxQueuedWrites, long timeoutMillis) {
+        this.reads = new Semaphore(readers, true);
+        this.maxQueuedReads = maxQueuedReads;
+        this.maxQueuedWrites = maxQueuedWrites;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    void enterRead() {
+        enter(reads, queuedReads, maxQueuedReads, "read");
+    }
+
+    void exitRead() {
+        reads.release();
+    }
+
+    void enterWrite() {
+        enter(write, queuedWrites, maxQueuedWrites, "write");
+    }
+
+    void exitWrite() {
+        write.release();
+    }
+
+    /**
+     * For shutdown: waits for the writer without a timeout.
+     */
+    void enterWriteUninterruptibly() {
+        write.acquireUninterruptibly();
+    }
+
+    int queuedReads() {
+        return queuedReads.get();
+    }
+
+    int queuedWrites() {
+        return queuedWrites.get();
+    }
+
+    long rejected() {
+        return rejected.get();
+    }
+
+    private void enter(Semaphore permits, AtomicInteger queued, int maxQueued, String kind) {
+        if (permits.tryAcquire()) {
+            waitTime.labels(kind).observe(0);
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            reject(kind);
+            throw new PoolSaturatedException("Database " + kind + " queue is full, " + maxQueued + " callers already waiting");
+        }
+        var start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                reject(kind);
+                throw new PoolSaturatedException("Timed out after " + timeoutMillis + "ms waiting for database " + kind + " access");
+            }
+            waitTime.labels(kind).observeNanos(System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PoolSaturatedException("Interrupted while waiting for database " + kind + " access");
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void reject(String kind) {
+        rejected.incrementAndGet();
+        rejections.labels(kind).inc();
+    }
+}
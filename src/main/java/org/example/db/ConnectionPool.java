@@ -0,0 +1,227 @@
+package org.example.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small pool over one SQLite file: up to {@link PoolConfig#readers()} read-only connections and a single
+ * dedicated writer. The database runs in WAL mode so readers keep serving while the writer commits. Every borrow
+ * passes the {@link AccessGate} first, which sheds load once too many callers are waiting.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+    private final PoolConfig config;
+    private final ArrayBlockingQueue<PooledConnection> idleReaders;
+    private final AtomicInteger openReaders = new AtomicInteger();
+    private final AccessGate gate;
+    private PooledConnection writer;
+    private volatile boolean closed;
+
+    public ConnectionPool(PoolConfig config) throws SQLException {
+        this.config = config;
+        this.idleReaders = new ArrayBlockingQueue<>(config.readers());
+        this.gate = new AccessGate(config.readers(), config.maxQueuedReaders(), config.maxQueuedWriters(), config.borrowTimeoutMillis());
+        // open the writer first, it creates the file and switches it to WAL before any read-only connection attaches
+        this.writer = new PooledConnection(openWriter());
+    }
+
+    public <T> T withReader(SQLFunction<T> work) throws SQLException {
+        gate.enterRead();
+        try {
+            var reader = borrowReader();
+            try {
+                return work.apply(reader.session);
+            } finally {
+                releaseReader(reader);
+            }
+        } finally {
+            gate.exitRead();
+        }
+    }
+
+    /**
+     * Not reentrant: {@code work} must not borrow the writer again.
+     */
+    public <T> T withWriter(SQLFunction<T> work) throws SQLException {
+        gate.enterWrite();
+        try {
+            ensureOpen();
+            if (!isHealthy(writer)) {
+                closeQuietly(writer);
+                writer = new PooledConnection(openWriter());
+            }
+            try {
+                return work.apply(writer.session);
+            } finally {
+                // never hand an open transaction to the next caller
+                var connection = writer.session.connection();
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                writer.touch();
+            }
+        } finally {
+            gate.exitWrite();
+        }
+    }
+
+    public int openReaders() {
+        return openReaders.get();
+    }
+
+    public int idleReaders() {
+        return idleReaders.size();
+    }
+
+    public int queuedReaders() {
+        return gate.queuedReads();
+    }
+
+    public int queuedWriters() {
+        return gate.queuedWrites();
+    }
+
+    public long rejectedBorrows() {
+        return gate.rejected();
+    }
+
+    private PooledConnection borrowReader() throws SQLException {
+        ensureOpen();
+        var reader = idleReaders.poll();
+
+        if (reader == null) {
+            if (openReaders.incrementAndGet() <= config.readers()) {
+                try {
+                    return new PooledConnection(openReader());
+                } catch (SQLException e) {
+                    openReaders.decrementAndGet();
+                    throw e;
+                }
+            }
+            openReaders.decrementAndGet();
+
+            try {
+                reader = idleReaders.poll(config.borrowTimeoutMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a reader connection", e);
+            }
+            if (reader == null) {
+                throw new SQLException("Timed out after " + config.borrowTimeoutMillis() + "ms waiting for a reader connection");
+            }
+        }
+
+        if (isHealthy(reader)) {
+            return reader;
+        }
+        closeQuietly(reader);
+        try {
+            return new PooledConnection(openReader());
+        } catch (SQLException e) {
+            openReaders.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void releaseReader(PooledConnection reader) {
+        reader.touch();
+        if (closed || !idleReaders.offer(reader)) {
+            closeQuietly(reader);
+            openReaders.decrementAndGet();
+        }
+    }
+
+    /**
+     * Cheap for recently used connections; only a connection that sat idle longer than
+     * {@link PoolConfig#validateAfterIdleMillis()} is round-tripped through {@link Connection#isValid(int)}.
+     */
+    private boolean isHealthy(PooledConnection pooled) {
+        try {
+            var connection = pooled.session.connection();
+            if (connection.isClosed()) {
+                return false;
+            }
+            var idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.lastUsedNanos);
+            return idleMillis < config.validateAfterIdleMillis() || connection.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openWriter() throws SQLException {
+        var sqliteConfig = baseConfig();
+        sqliteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        sqliteConfig.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        return DriverManager.getConnection(config.url(), sqliteConfig.toProperties());
+    }
+
+    private Connection openReader() throws SQLException {
+        var sqliteConfig = baseConfig();
+        sqliteConfig.setReadOnly(true);
+        return DriverManager.getConnection(config.url(), sqliteConfig.toProperties());
+    }
+
+    private SQLiteConfig baseConfig() {
+        var sqliteConfig = new SQLiteConfig();
+        sqliteConfig.setBusyTimeout(config.busyTimeoutMillis());
+        // negative cache_size is in KiB rather than pages
+        sqliteConfig.setCacheSize(-config.cacheSizeKiB());
+        sqliteConfig.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(config.mmapSizeBytes()));
+        return sqliteConfig;
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool for " + config.url() + " is closed");
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+
+        PooledConnection reader;
+        while ((reader = idleReaders.poll()) != null) {
+            closeQuietly(reader);
+            openReaders.decrementAndGet();
+        }
+
+        gate.enterWriteUninterruptibly();
+        try {
+            closeQuietly(writer);
+        } finally {
+            gate.exitWrite();
+        }
+    }
+
+    private static void closeQuietly(PooledConnection pooled) {
+        try {
+            // closing the connection also closes its cached statements
+            pooled.session.connection().close();
+        } catch (SQLException e) {
+            logger.warn("could not close connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledConnection {
+        private final DBSession session;
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledConnection(Connection connection) {
+            this.session = new DBSession(connection);
+        }
+
+        private void touch() {
+            lastUsedNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.db;
+
+import org.example.metrics.Counter;
+import org.example.metrics.Histogram;
+import org.example.metrics.Metrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A pooled connection together with its cache of prepared {@link NamedQuery} statements. Only ever used by the
+ * thread that borrowed it from the {@link ConnectionPool}.
+ */
+public class DBSession {
+    private static final Histogram queryDuration = Metrics.histogram("amorphous_db_query_duration_seconds",
+            "Time to run a named query, including consuming its rows.", Histogram.LATENCY_SECONDS, "query");
+    private static final Counter queryRows = Metrics.counter("amorphous_db_query_rows_total",
+            "Rows read or written by a named query.", "query");
+
+    private final Connection connection;
+    private final HashMap<NamedQuery, PreparedStatement> statements = new HashMap<>();
+
+    DBSession(Connection connection) {
+        this.connection = connection;
+    }
+
+    public Connection connection() {
+        return connection;
+    }
+
+    public <T> ArrayList<T> query(NamedQuery query, RowMapper<T> mapper, Object... parameters) throws SQLException {
+        var rows = new ArrayList<T>();
+        forEach(query, mapper, rows::add, parameters);
+        return rows;
+    }
+
+    /**
+     * Maps and hands over one row at a time, so nothing but the current row is held in memory.
+     */
+    public <T> void forEach(NamedQuery query, RowMapper<T> mapper, RowConsumer<T> consumer, Object... parameters) throws SQLException {
+        var start = System.nanoTime();
+        var rows = 0;
+        var statement = prepared(query, parameters);
+        try (var results = statement.executeQuery()) {
+            while (results.next()) {
+                consumer.accept(mapper.map(results));
+                rows++;
+            }
+        } finally {
+            record(query, start, rows);
+        }
+    }
+
+    public int update(NamedQuery query, Object... parameters) throws SQLException {
+        var start = System.nanoTime();
+        var rows = 0;
+        try {
+            rows = prepared(query, parameters).executeUpdate();
+            return rows;
+        } finally {
+            record(query, start, rows);
+        }
+    }
+
+    /**
+     * Runs the statement once per parameter row as a single JDBC batch.
+     */
+    public int[] updateBatch(NamedQuery query, List<Object[]> parameterRows) throws SQLException {
+        var start = System.nanoTime();
+        var rows = 0;
+        try {
+            var statement = prepared(query);
+            for (var parameters : parameterRows) {
+                bind(statement, parameters);
+                statement.addBatch();
+            }
+            var counts = statement.executeBatch();
+            for (var count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return counts;
+        } finally {
+            record(query, start, rows);
+        }
+    }
+
+    private static void record(NamedQuery query, long start, int rows) {
+        queryDuration.labels(query.name()).observeNanos(System.nanoTime() - start);
+        queryRows.labels(query.name()).inc(rows);
+    }
+
+    private PreparedStatement prepared(NamedQuery query, Object... parameters) throws SQLException {
+        var statement = statements.get(query);
+        if (statement == null) {
+            statement = connection.prepareStatement(query.sql());
+            statements.put(query, statement);
+        }
+        bind(statement, parameters);
+        return statement;
+    }
+
+    private static void bind(PreparedStatement statement, Object[] parameters) throws SQLException {
+        statement.clearParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            var index = i + 1;
+            switch (parameters[i]) {
+                case null -> statement.setNull(index, Types.NULL);
+                case Integer value -> statement.setInt(index, value);
+                case Long value -> statement.setLong(index, value);
+                case String value -> statement.setString(index, value);
+                case Double value -> statement.setDouble(index, value);
+                case Boolean value -> statement.setInt(index, value ? 1 : 0);
+                case byte[] value -> statement.setBytes(index, value);
+                default -> throw new SQLException("Unsupported parameter type " + parameters[i].getClass().getName()
+                        + " at index " + index);
+            }
+        }
+    }
+}
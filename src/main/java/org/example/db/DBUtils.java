@@ -1,60 +1,164 @@
 package org.example.db;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
-
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Static entry point to the databases: the primary, which holds the shared tables, and the project {@link Shards}.
+ * Methods without a project run on the primary.
+ */
 public class DBUtils {
-    static String url = "jdbc:sqlite:sqlite/amorphous";
+    private static final Logger logger = LoggerFactory.getLogger(DBUtils.class);
+    static String url = System.getProperty("amorphous.db.url", "jdbc:sqlite:sqlite/amorphous");
+    private static Database primary;
+    private static Shards shards;
 
-    public static void setUrl(String url) {
+    public static synchronized void setUrl(String url) {
         DBUtils.url = url;
+        close();
     }
 
-    public static void executeMultipleUpdatesTransactionally(ArrayList<String> updates) {
+    public static synchronized Database primary() throws SQLException {
+        if (primary == null) {
+            primary = new Database(url);
+        }
+        return primary;
+    }
 
-        try (Connection connection = DriverManager.getConnection(url)) {
+    /**
+     * Opened on first use, after the primary is migrated.
+     */
+    public static synchronized Shards shards() throws SQLException {
+        if (shards == null) {
+            var opened = Shards.fromSystemProperties(primary());
+            opened.open();
+            shards = opened;
+        }
+        return shards;
+    }
 
-            connection.setAutoCommit(false);
+    public static ConnectionPool pool() throws SQLException {
+        return primary().pool();
+    }
 
-            for (var u : updates) {
-                Statement statement = connection.createStatement();
-                statement.executeUpdate(u);
-            }
+    public static WritePipeline writes() throws SQLException {
+        return primary().writes();
+    }
 
-            connection.commit();
+    public static synchronized void close() {
+        // drain queued writes before their connection goes away
+        if (shards != null) {
+            shards.close();
+            shards = null;
+        }
+        if (primary != null) {
+            primary.close();
+            primary = null;
+        }
+    }
 
+    /**
+     * Runs {@code work} in the next group commit of the primary's {@link WritePipeline} and waits until it is
+     * durable. {@code afterCommit} (may be null) sees the result on the writer thread, in commit order.
+     *
+     * @return the result of {@code work}, or null when the write failed
+     */
+    public static <T> T write(SQLFunction<T> work, Consumer<? super T> afterCommit) {
+        try {
+            return primary().write(work, afterCommit);
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            return failed(e);
         }
     }
 
-    public static ArrayList<Object[]> execute(String query) {
-        try (Connection connection = DriverManager.getConnection(url)) {
+    /**
+     * Writes to a shared table on the primary and its replica in every shard, see {@link Shards#writeShared}.
+     */
+    public static <T> T writeShared(SQLFunction<T> work, Consumer<? super T> afterCommit) {
+        try {
+            return shards().writeShared(work, afterCommit);
+        } catch (SQLException e) {
+            return failed(e);
+        }
+    }
 
-            var statement = connection.createStatement();
+    /**
+     * One write per project, each on the database that holds that project, see {@link Shards#writeEach}.
+     *
+     * @return the result per project; a project whose write failed is missing
+     */
+    public static <T> Map<Integer, T> writeEach(Map<Integer, SQLFunction<T>> workByProject, Consumer<? super T> afterCommit) {
+        try {
+            return shards().writeEach(workByProject, afterCommit);
+        } catch (SQLException e) {
+            failed(e);
+            return Map.of();
+        }
+    }
 
-            var results = statement.executeQuery(query);
+    /**
+     * Runs every parameter row of {@code update} as one batch; the rows commit or roll back together.
+     */
+    public static boolean updateBatchTransactionally(NamedQuery update, List<Object[]> parameterRows) {
+        return updateBatchTransactionally(update, parameterRows, null);
+    }
 
-            var columnCount = results.getMetaData().getColumnCount();
-            var rows = new ArrayList<Object[]>();
+    public static boolean updateBatchTransactionally(NamedQuery update, List<Object[]> parameterRows, Runnable afterCommit) {
+        try {
+            return primary().updateBatchTransactionally(update, parameterRows, afterCommit);
+        } catch (SQLException e) {
+            failed(e);
+            return false;
+        }
+    }
 
-            while (results.next()) {
-                var row = new Object[columnCount];
-                for (int i = 1; i <= columnCount; i++) {
-                    row[i - 1] = results.getObject(i);
-                }
-                rows.add(row);
-            }
+    public static int update(NamedQuery update, Object... parameters) {
+        try {
+            return primary().update(update, parameters);
+        } catch (SQLException e) {
+            failed(e);
+            return 0;
+        }
+    }
 
-            return rows;
+    /**
+     * For one-off statements such as DDL that are not worth preparing and caching.
+     */
+    public static int executeUpdate(String update) {
+        try {
+            return primary().executeUpdate(update);
+        } catch (SQLException e) {
+            failed(e);
+            return 0;
+        }
+    }
 
+    public static <T> ArrayList<T> query(NamedQuery query, RowMapper<T> mapper, Object... parameters) {
+        try {
+            return primary().query(query, mapper, parameters);
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            logger.warn("query {} failed: {}", query.name(), e.getMessage());
             return new ArrayList<>();
         }
     }
-}
 
+    public static <T> boolean forEach(NamedQuery query, RowMapper<T> mapper, RowConsumer<T> consumer, Object... parameters) {
+        try {
+            return primary().forEach(query, mapper, consumer, parameters);
+        } catch (SQLException e) {
+            logger.warn("query {} failed: {}", query.name(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static <T> T failed(SQLException e) {
+        logger.warn("write failed: {}", e.getMessage());
+        return null;
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * One SQLite file: its {@link ConnectionPool} and the {@link WritePipeline} every write to it goes through. The
+ * primary database and each project shard is one of these; {@link DBUtils} routes between them.
+ */
+public class Database implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Database.class);
+    private final String url;
+    private final ConnectionPool pool;
+    private WritePipeline writes;
+
+    public Database(String url) throws SQLException {
+        this.url = url;
+        this.pool = new ConnectionPool(PoolConfig.fromSystemProperties(url));
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public ConnectionPool pool() {
+        return pool;
+    }
+
+    public synchronized WritePipeline writes() {
+        if (writes == null) {
+            writes = WritePipeline.fromSystemProperties(pool);
+        }
+        return writes;
+    }
+
+    /**
+     * Queues {@code work} for the next group commit without waiting for it, see {@link WritePipeline#submit}.
+     */
+    public <T> CompletableFuture<T> submit(SQLFunction<T> work, Consumer<? super T> afterCommit) {
+        return writes().submit(work, afterCommit);
+    }
+
+    /**
+     * Runs {@code work} in the next group commit of the {@link WritePipeline} and waits until it is durable.
+     * {@code afterCommit} (may be null) sees the result on the writer thread, in commit order.
+     *
+     * @return the result of {@code work}, or null when the write failed
+     */
+    public <T> T write(SQLFunction<T> work, Consumer<? super T> afterCommit) {
+        return join(submit(work, afterCommit));
+    }
+
+    /**
+     * Waits for a {@link #submit submitted} write.
+     *
+     * @return its result, or null when the write failed
+     */
+    static <T> T join(CompletableFuture<T> write) {
+        try {
+            return write.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PoolSaturatedException saturated) {
+                throw saturated;
+            }
+            logger.warn("write failed: {}", e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    public boolean updateBatchTransactionally(NamedQuery update, List<Object[]> parameterRows, Runnable afterCommit) {
+        return write(session -> {
+            session.updateBatch(update, parameterRows);
+            return true;
+        }, afterCommit == null ? null : committed -> afterCommit.run()) != null;
+    }
+
+    public int update(NamedQuery update, Object... parameters) {
+        var rows = write(session -> session.update(update, parameters), null);
+        return rows == null ? 0 : rows;
+    }
+
+    public int executeUpdate(String update) {
+        var rows = write(session -> {
+            try (var statement = session.connection().createStatement()) {
+                return statement.executeUpdate(update);
+            }
+        }, null);
+        return rows == null ? 0 : rows;
+    }
+
+    public <T> ArrayList<T> query(NamedQuery query, RowMapper<T> mapper, Object... parameters) {
+        try {
+            return pool.withReader(session -> session.query(query, mapper, parameters));
+        } catch (SQLException e) {
+            logger.warn("query {} on {} failed: {}", query.name(), url, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    public <T> boolean forEach(NamedQuery query, RowMapper<T> mapper, RowConsumer<T> consumer, Object... parameters) {
+        try {
+            return pool.withReader(session -> {
+                session.forEach(query, mapper, consumer, parameters);
+                return true;
+            });
+        } catch (SQLException e) {
+            logger.warn("query {} on {} failed: {}", query.name(), url, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Drains queued writes before their connection goes away.
+     */
+    @Override
+    public synchronized void close() {
+        if (writes != null) {
+            writes.close();
+            writes = null;
+        }
+        pool.close();
+    }
+}
@@ -5,15 +5,15 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 public record LanguageTranslation(
-        Integer assetId,
+        int assetId,
         String languageName,
         String translation,
-        Long updated,
+        long updated, // epoch millis
         String assetTitle,
         String updatedBy,
-        Integer projectId,
-        Integer languageId,
-        Integer userId
+        int projectId,
+        int languageId,
+        int userId
 ) {
     public String lastUpdatedTimeFormatted() {
         var instant = Instant.ofEpochMilli(this.updated);
@@ -24,8 +24,8 @@ public record LanguageTranslation(
 
     public static LanguageTranslation withNewTranslation(LanguageTranslation original,
                                                          String newTranslation,
-                                                         Long updated,
-                                                         Integer userId) {
+                                                         long updated,
+                                                         int userId) {
         return new LanguageTranslation(
                 original.assetId,
                 original.languageName,
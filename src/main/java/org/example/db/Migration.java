@@ -0,0 +1,22 @@
+package org.example.db;
+
+/**
+ * One step of the schema history. Steps run in {@code version} order, each in the same transaction as the
+ * {@code schema_version} row that records it, so a failing step leaves the database at the previous version.
+ */
+public record Migration(
+        int version,
+        String description,
+        SQLFunction<?> apply
+) {
+    public static Migration sql(int version, String description, String... statements) {
+        return new Migration(version, description, session -> {
+            try (var statement = session.connection().createStatement()) {
+                for (var sql : statements) {
+                    statement.executeUpdate(sql);
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,254 @@
+package org.example.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * The ordered schema history, applied at startup. Append new steps at the end with the next version; never edit
+ * one that has shipped.
+ */
+public class Migrations {
+    private static final Logger logger = LoggerFactory.getLogger(Migrations.class);
+
+    private static final NamedQuery CURRENT_VERSION = new NamedQuery("schemaVersion", """
+            SELECT coalesce(max(version), 0)
+            FROM schema_version;
+            """);
+
+    private static final NamedQuery RECORD_VERSION = new NamedQuery("recordSchemaVersion", """
+            INSERT INTO schema_version (version, description, applied)
+            VALUES (?, ?, ?);
+            """);
+
+    private static final NamedQuery ASSET_COLUMNS = new NamedQuery("assetColumns", """
+            SELECT name
+            FROM pragma_table_info('asset');
+            """);
+
+    static final List<Migration> ALL = List.of(
+            new Migration(1, "baseline tables", Migrations::baseline),
+
+            Migration.sql(2, "indexes for the translation joins and per-asset latest update",
+                    // covers max(updated) per asset and project, and the row it came from, without touching the table
+                    """
+                    CREATE INDEX IF NOT EXISTS language_translation_latest
+                    ON language_translation (asset_id, project_id, updated, language_id, who_updated)""",
+                    // the catalog load reads in this order
+                    """
+                    CREATE INDEX IF NOT EXISTS language_translation_asset_language
+                    ON language_translation (asset_id, language_id, project_id)""",
+                    """
+                    CREATE INDEX IF NOT EXISTS language_translation_who_updated
+                    ON language_translation (who_updated)""",
+                    """
+                    CREATE INDEX IF NOT EXISTS language_translation_language
+                    ON language_translation (language_id)"""),
+
+            Migration.sql(3, "asset_latest_update summary maintained by triggers",
+                    """
+                    CREATE TABLE asset_latest_update (
+                        asset_id INT NOT NULL,
+                        project_id INT NOT NULL,
+                        language_id INT NOT NULL,
+                        updated DATETIME,
+                        who_updated INT,
+                        PRIMARY KEY (asset_id, project_id)
+                    ) WITHOUT ROWID""",
+                    // SQLite takes the bare columns from the row that holds max(updated)
+                    """
+                    INSERT INTO asset_latest_update (asset_id, project_id, language_id, updated, who_updated)
+                    SELECT asset_id, project_id, language_id, max(updated), who_updated
+                    FROM language_translation
+                    GROUP BY asset_id, project_id""",
+                    // a new cell can only move the latest forward
+                    """
+                    CREATE TRIGGER asset_latest_update_insert AFTER INSERT ON language_translation
+                    BEGIN
+                        INSERT INTO asset_latest_update (asset_id, project_id, language_id, updated, who_updated)
+                        VALUES (NEW.asset_id, NEW.project_id, NEW.language_id, NEW.updated, NEW.who_updated)
+                        ON CONFLICT (asset_id, project_id) DO UPDATE
+                        SET language_id = excluded.language_id,
+                            updated     = excluded.updated,
+                            who_updated = excluded.who_updated
+                        WHERE excluded.updated >= asset_latest_update.updated;
+                    END""",
+                    // an update or delete may take the latest away, so recompute the few cells of that asset and project
+                    """
+                    CREATE TRIGGER asset_latest_update_update AFTER UPDATE ON language_translation
+                    BEGIN
+                        DELETE FROM asset_latest_update
+                        WHERE (asset_id = OLD.asset_id AND project_id = OLD.project_id)
+                           OR (asset_id = NEW.asset_id AND project_id = NEW.project_id);
+                        INSERT INTO asset_latest_update (asset_id, project_id, language_id, updated, who_updated)
+                        SELECT asset_id, project_id, language_id, max(updated), who_updated
+                        FROM language_translation
+                        WHERE (asset_id = OLD.asset_id AND project_id = OLD.project_id)
+                           OR (asset_id = NEW.asset_id AND project_id = NEW.project_id)
+                        GROUP BY asset_id, project_id;
+                    END""",
+                    """
+                    CREATE TRIGGER asset_latest_update_delete AFTER DELETE ON language_translation
+                    BEGIN
+                        DELETE FROM asset_latest_update
+                        WHERE asset_id = OLD.asset_id AND project_id = OLD.project_id;
+                        INSERT INTO asset_latest_update (asset_id, project_id, language_id, updated, who_updated)
+                        SELECT asset_id, project_id, language_id, max(updated), who_updated
+                        FROM language_translation
+                        WHERE asset_id = OLD.asset_id AND project_id = OLD.project_id
+                        GROUP BY asset_id, project_id;
+                    END"""),
+
+            Migration.sql(4, "project_shard registry",
+                    """
+                    CREATE TABLE project_shard (
+                        project_id INTEGER PRIMARY KEY,
+                        file TEXT NOT NULL,
+                        created DATETIME NOT NULL
+                    )"""),
+
+            // each release stores only what changed since the one before it
+            Migration.sql(5, "release snapshots as a delta log",
+                    """
+                    CREATE TABLE release (
+                        release_id INTEGER PRIMARY KEY,
+                        name TEXT NOT NULL UNIQUE,
+                        created DATETIME NOT NULL,
+                        catalog_version INT NOT NULL
+                    )""",
+                    """
+                    CREATE TABLE release_asset (
+                        release_id INT NOT NULL,
+                        asset_id INT NOT NULL,
+                        asset_name VARCHAR(50),
+                        asset_url VARCHAR(50),
+                        asset_description TEXT,
+                        removed INT NOT NULL,
+                        PRIMARY KEY (release_id, asset_id)
+                    ) WITHOUT ROWID""",
+                    """
+                    CREATE TABLE release_translation (
+                        release_id INT NOT NULL,
+                        asset_id INT NOT NULL,
+                        project_id INT NOT NULL,
+                        language_id INT NOT NULL,
+                        translation TEXT,
+                        updated DATETIME,
+                        who_updated INT,
+                        removed INT NOT NULL,
+                        PRIMARY KEY (release_id, asset_id, project_id, language_id)
+                    ) WITHOUT ROWID"""),
+
+            // every read of the latest row per asset and project is answered by the catalog, so the triggers of
+            // version 3 only added work to each translation write
+            Migration.sql(6, "drop the asset_latest_update summary",
+                    "DROP TRIGGER IF EXISTS asset_latest_update_insert",
+                    "DROP TRIGGER IF EXISTS asset_latest_update_update",
+                    "DROP TRIGGER IF EXISTS asset_latest_update_delete",
+                    "DROP TABLE IF EXISTS asset_latest_update")
+    );
+
+    /**
+     * Brings the primary database up to the latest version.
+     *
+     * @return the schema version afterwards
+     */
+    public static int migrate() {
+        try {
+            return migrate(DBUtils.primary());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not open the database to migrate it", e);
+        }
+    }
+
+    /**
+     * Brings {@code database}, the primary or a project shard, up to the latest version.
+     */
+    public static int migrate(Database database) {
+        database.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied DATETIME NOT NULL
+                );""");
+
+        var version = currentVersion(database);
+        for (var migration : ALL) {
+            if (migration.version() <= version) {
+                continue;
+            }
+            logger.info("Migrating {} to version {}: {}", database.url(), migration.version(), migration.description());
+            var applied = database.write(session -> {
+                // another process may have migrated since we looked
+                if (session.query(CURRENT_VERSION, row -> row.getInt(1)).getFirst() >= migration.version()) {
+                    return false;
+                }
+                migration.apply().apply(session);
+                session.update(RECORD_VERSION, migration.version(), migration.description(), System.currentTimeMillis());
+                return true;
+            }, null);
+            if (applied == null) {
+                throw new IllegalStateException("Schema migration " + migration.version() + " (" + migration.description() + ") failed");
+            }
+            version = migration.version();
+        }
+        return version;
+    }
+
+    public static int currentVersion(Database database) {
+        var versions = database.query(CURRENT_VERSION, row -> row.getInt(1));
+        if (versions.isEmpty()) {
+            throw new IllegalStateException("Could not read the schema version");
+        }
+        return versions.getFirst();
+    }
+
+    /**
+     * The tables as they were before migrations existed. Databases from back then may lack
+     * {@code asset_description}, which every asset query reads.
+     */
+    private static Void baseline(DBSession session) throws SQLException {
+        try (var statement = session.connection().createStatement()) {
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS language_lookup (
+                        language_id PRIMARY KEY NOT NULL,
+                        language_name VARCHAR(50) NOT NULL,
+                        language_code VARCHAR(10) NOT NULL
+                    )""");
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS language_translation (
+                        asset_id INT,
+                        project_id INT,
+                        language_id INT,
+                        translation TEXT,
+                        updated DATETIME,
+                        who_updated INT,
+                        PRIMARY KEY (asset_id, project_id, language_id)
+                    )""");
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS project (
+                        project_id INTEGER PRIMARY KEY,
+                        project_name VARCHAR(50) NOT NULL
+                    )""");
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS user (
+                        user_id INTEGER PRIMARY KEY,
+                        user_name VARCHAR(50) NOT NULL
+                    )""");
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS asset (
+                        asset_id INTEGER PRIMARY KEY,
+                        asset_name VARCHAR(50) NOT NULL,
+                        asset_url  VARCHAR(50) NOT NULL,
+                        asset_description TEXT
+                    )""");
+
+            if (!session.query(ASSET_COLUMNS, row -> row.getString(1)).contains("asset_description")) {
+                statement.executeUpdate("ALTER TABLE asset ADD COLUMN asset_description TEXT");
+            }
+        }
+        return null;
+    }
+}
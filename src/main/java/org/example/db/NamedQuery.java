@@ -0,0 +1,11 @@
+package org.example.db;
+
+/**
+ * A parameterized ({@code ?}) SQL statement. Each pooled connection prepares it once, on first use, and reuses the
+ * {@link java.sql.PreparedStatement} after that.
+ */
+public record NamedQuery(
+        String name,
+        String sql
+) {
+}
@@ -0,0 +1,31 @@
+package org.example.db;
+
+/**
+ * Sizing and PRAGMA settings for {@link ConnectionPool}. Every value can be overridden with a
+ * {@code -Damorphous.db.*} system property, see {@link #fromSystemProperties(String)}.
+ */
+public record PoolConfig(
+        String url,
+        int readers,
+        int maxQueuedReaders,
+        int maxQueuedWriters,
+        long borrowTimeoutMillis,
+        long validateAfterIdleMillis,
+        int busyTimeoutMillis,
+        int cacheSizeKiB,
+        long mmapSizeBytes
+) {
+    public static PoolConfig fromSystemProperties(String url) {
+        return new PoolConfig(
+                url,
+                Integer.getInteger("amorphous.db.readers", Math.max(2, Runtime.getRuntime().availableProcessors())),
+                Integer.getInteger("amorphous.db.maxQueuedReaders", 256),
+                Integer.getInteger("amorphous.db.maxQueuedWriters", 64),
+                Long.getLong("amorphous.db.borrowTimeoutMillis", 5_000L),
+                Long.getLong("amorphous.db.validateAfterIdleMillis", 30_000L),
+                Integer.getInteger("amorphous.db.busyTimeoutMillis", 5_000),
+                Integer.getInteger("amorphous.db.cacheSizeKiB", 8_192),
+                Long.getLong("amorphous.db.mmapSizeBytes", 256L * 1024 * 1024)
+        );
+    }
+}
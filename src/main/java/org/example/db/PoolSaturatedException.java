@@ -0,0 +1,14 @@
+package org.example.db;
+
+/**
+ * Thrown instead of queueing further when the database gate is full or a caller waited too long. Unchecked so it
+ * passes through the {@link DBUtils} helpers, which swallow ordinary {@code SQLException}s, and reaches the HTTP
+ * layer as a 503.
+ */
+public class PoolSaturatedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PoolSaturatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.db;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface RowConsumer<T> {
+    void accept(T row) throws SQLException;
+}
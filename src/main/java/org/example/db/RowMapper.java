@@ -0,0 +1,12 @@
+package org.example.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Builds one record from the current row of a {@link ResultSet}, reading typed columns directly.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet row) throws SQLException;
+}
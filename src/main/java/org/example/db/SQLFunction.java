@@ -0,0 +1,8 @@
+package org.example.db;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SQLFunction<T> {
+    T apply(DBSession session) throws SQLException;
+}
@@ -0,0 +1,365 @@
+package org.example.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Routes each project's translations to a SQLite file of its own, so every project gets its own writer and a long
+ * import into one game no longer queues the saves of all the others.
+ * <p>
+ * The primary database stays the home of the shared tables ({@code language_lookup}, {@code user},
+ * {@code project}, {@code asset}) and of the translations of every project that has no shard yet. A shard is
+ * created the first time a project is written: its rows move over inside a primary write, so nothing the project
+ * committed earlier is left behind, and {@code project_shard} records the move. Each shard carries the full schema
+ * and a replica of the shared tables, refreshed when it opens, so per-project queries still join locally.
+ * <p>
+ * Without {@code amorphous.db.shardDir} every project routes to the primary, as before.
+ */
+public class Shards implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Shards.class);
+
+    private record ReplicatedTable(String table, int columns, NamedQuery select, NamedQuery clear, NamedQuery insert) {
+        static ReplicatedTable of(String table, String... columns) {
+            var names = String.join(", ", columns);
+            return new ReplicatedTable(table, columns.length,
+                    new NamedQuery("replicaSelect_" + table, "SELECT " + names + " FROM " + table + ";"),
+                    new NamedQuery("replicaClear_" + table, "DELETE FROM " + table + ";"),
+                    new NamedQuery("replicaInsert_" + table, "INSERT INTO " + table + " (" + names + ") VALUES ("
+                            + "?, ".repeat(columns.length - 1) + "?);"));
+        }
+    }
+
+    private static final List<ReplicatedTable> SHARED_TABLES = List.of(
+            ReplicatedTable.of("language_lookup", "language_id", "language_name", "language_code"),
+            ReplicatedTable.of("user", "user_id", "user_name"),
+            ReplicatedTable.of("project", "project_id", "project_name"),
+            ReplicatedTable.of("asset", "asset_id", "asset_name", "asset_url", "asset_description"));
+
+    private static final NamedQuery REGISTERED_SHARDS = new NamedQuery("registeredShards", """
+            SELECT project_id, file
+            FROM project_shard
+            ORDER BY project_id;
+            """);
+
+    private static final NamedQuery REGISTER_SHARD = new NamedQuery("registerShard", """
+            INSERT INTO project_shard (project_id, file, created)
+            VALUES (?, ?, ?);
+            """);
+
+    private static final NamedQuery PROJECT_TRANSLATIONS = new NamedQuery("projectTranslations", """
+            SELECT asset_id, project_id, language_id, translation, updated, who_updated
+            FROM language_translation
+            WHERE project_id = ?;
+            """);
+
+    // a rerun after a crash between the shard commit and the primary commit finds the rows already there
+    private static final NamedQuery COPY_TRANSLATION = new NamedQuery("copyTranslation", """
+            INSERT OR REPLACE INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+            VALUES (?, ?, ?, ?, ?, ?);
+            """);
+
+    private static final NamedQuery DELETE_PROJECT_TRANSLATIONS = new NamedQuery("deleteProjectTranslations", """
+            DELETE FROM language_translation
+            WHERE project_id = ?;
+            """);
+
+    private final Database primary;
+    private final Path directory;
+    private final ConcurrentHashMap<Integer, Database> shards = new ConcurrentHashMap<>();
+
+    public Shards(Database primary, Path directory) {
+        this.primary = primary;
+        this.directory = directory;
+    }
+
+    public static Shards fromSystemProperties(Database primary) {
+        var directory = System.getProperty("amorphous.db.shardDir");
+        return new Shards(primary, directory == null ? null : Path.of(directory));
+    }
+
+    public boolean enabled() {
+        return directory != null;
+    }
+
+    /**
+     * Opens every shard {@code project_shard} lists and refreshes its copy of the shared tables.
+     */
+    public void open() throws SQLException {
+        var registered = primary.query(REGISTERED_SHARDS, row -> Map.entry(row.getInt(1), row.getString(2)));
+        if (registered.isEmpty()) {
+            return;
+        }
+        if (!enabled()) {
+            throw new IllegalStateException(registered.size() + " projects live in shards, set amorphous.db.shardDir to the directory that holds "
+                    + registered.getFirst().getValue());
+        }
+        for (var shard : registered) {
+            var database = new Database(url(directory.resolve(shard.getValue())));
+            try {
+                Migrations.migrate(database);
+                var shared = primary.pool().withReader(Shards::readSharedTables);
+                if (database.write(to -> writeSharedTables(to, shared), null) == null) {
+                    throw new SQLException("Could not refresh the shared tables of " + shard.getValue());
+                }
+            } catch (RuntimeException | SQLException e) {
+                database.close();
+                throw e;
+            }
+            shards.put(shard.getKey(), database);
+        }
+        logger.info("Opened {} project shards in {}", shards.size(), directory.toAbsolutePath());
+    }
+
+    /**
+     * The database that holds {@code projectId}'s translations, creating its shard on first use.
+     */
+    public Database forProject(int projectId) throws SQLException {
+        if (!enabled()) {
+            return primary;
+        }
+        var shard = shards.get(projectId);
+        return shard != null ? shard : create(projectId);
+    }
+
+    /**
+     * Project ids that have a shard.
+     */
+    public List<Integer> projects() {
+        return List.copyOf(new TreeMap<>(shards).keySet());
+    }
+
+    public Map<Integer, WritePipeline.Stats> stats() {
+        var stats = new TreeMap<Integer, WritePipeline.Stats>();
+        shards.forEach((projectId, shard) -> stats.put(projectId, shard.writes().stats()));
+        return stats;
+    }
+
+    /**
+     * Submits one write per project to the database that holds it, so projects on different shards commit in
+     * parallel, and waits for all of them. {@code afterCommit} runs on the writer thread of each project's database.
+     *
+     * @return the result per project; a project whose write failed is missing
+     * @throws PoolSaturatedException when no write could be queued at all
+     */
+    public <T> Map<Integer, T> writeEach(Map<Integer, SQLFunction<T>> workByProject, Consumer<? super T> afterCommit) {
+        var submitted = new LinkedHashMap<Integer, CompletableFuture<T>>();
+        PoolSaturatedException saturated = null;
+        for (var work : workByProject.entrySet()) {
+            try {
+                submitted.put(work.getKey(), forProject(work.getKey()).submit(work.getValue(), afterCommit));
+            } catch (PoolSaturatedException e) {
+                saturated = e;
+            } catch (SQLException | RuntimeException e) {
+                logger.warn("could not route a write for project {}: {}", work.getKey(), e.getMessage());
+            }
+        }
+        if (submitted.isEmpty() && saturated != null) {
+            throw saturated;
+        }
+
+        var results = new LinkedHashMap<Integer, T>();
+        for (var write : submitted.entrySet()) {
+            var result = Database.join(write.getValue());
+            if (result != null) {
+                results.put(write.getKey(), result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Writes a shared table: {@code work} commits on the primary first and is then applied to every shard's
+     * replica. A replica that fails to follow is only stale until its shard is opened again.
+     *
+     * @return the primary's result, or null when the primary write failed
+     */
+    public <T> T writeShared(SQLFunction<T> work, Consumer<? super T> afterCommit) {
+        var result = primary.write(work, afterCommit);
+        if (result == null || shards.isEmpty()) {
+            return result;
+        }
+        var replicas = new LinkedHashMap<Integer, CompletableFuture<T>>();
+        shards.forEach((projectId, shard) -> {
+            try {
+                replicas.put(projectId, shard.submit(work, null));
+            } catch (PoolSaturatedException e) {
+                logger.warn("shared tables of shard {} are stale: {}", projectId, e.getMessage());
+            }
+        });
+        replicas.forEach((projectId, replica) -> {
+            if (Database.join(replica) == null) {
+                logger.warn("shared tables of shard {} are stale until it is reopened", projectId);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Streams {@code query} over the primary and every shard in {@code order}, which each database's own
+     * {@code ORDER BY} must already follow. With shards the query runs on all of them in parallel and the sorted
+     * results are merged; without, rows stream straight from {@code primarySession}.
+     */
+    public <T> void forEachMerged(DBSession primarySession, NamedQuery query, RowMapper<T> mapper,
+                                  Comparator<? super T> order, RowConsumer<T> consumer) throws SQLException {
+        var databases = List.copyOf(shards.values());
+        if (databases.isEmpty()) {
+            primarySession.forEach(query, mapper, consumer);
+            return;
+        }
+
+        var sources = new ArrayList<List<T>>(databases.size() + 1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var futures = new ArrayList<Future<ArrayList<T>>>(databases.size());
+            for (var database : databases) {
+                futures.add(executor.submit(() -> database.pool().withReader(session -> session.query(query, mapper))));
+            }
+            sources.add(primarySession.query(query, mapper));
+            for (var future : futures) {
+                sources.add(result(future));
+            }
+        }
+        merge(sources, order, consumer);
+    }
+
+    private Database create(int projectId) throws SQLException {
+        synchronized (this) {
+            var existing = shards.get(projectId);
+            if (existing != null) {
+                return existing;
+            }
+
+            var file = "project-" + projectId + ".db";
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new SQLException("Could not create the shard directory " + directory, e);
+            }
+            var shard = new Database(url(directory.resolve(file)));
+            try {
+                Migrations.migrate(shard);
+                // runs as a primary write, so every write this project queued on the primary is in the rows it copies;
+                // the shard's writer only gets plain rows, the primary session never leaves the primary's writer thread
+                var moved = primary.write(session -> {
+                    var shared = readSharedTables(session);
+                    var rows = session.query(PROJECT_TRANSLATIONS, columns(6), projectId);
+                    var copied = shard.write(to -> {
+                        writeSharedTables(to, shared);
+                        if (!rows.isEmpty()) {
+                            to.updateBatch(COPY_TRANSLATION, rows);
+                        }
+                        return true;
+                    }, null);
+                    if (copied == null) {
+                        throw new SQLException("Could not copy project " + projectId + " into " + file);
+                    }
+                    session.update(DELETE_PROJECT_TRANSLATIONS, projectId);
+                    session.update(REGISTER_SHARD, projectId, file, System.currentTimeMillis());
+                    return rows.size();
+                }, null);
+                if (moved == null) {
+                    throw new SQLException("Could not move project " + projectId + " into its shard");
+                }
+                logger.info("Created shard {} for project {} with {} translations", file, projectId, moved);
+            } catch (RuntimeException | SQLException e) {
+                shard.close();
+                throw e;
+            }
+            shards.put(projectId, shard);
+            return shard;
+        }
+    }
+
+    /**
+     * Rows of every shared table, in {@link #SHARED_TABLES} order.
+     */
+    private static List<List<Object[]>> readSharedTables(DBSession from) throws SQLException {
+        var tables = new ArrayList<List<Object[]>>(SHARED_TABLES.size());
+        for (var table : SHARED_TABLES) {
+            tables.add(from.query(table.select(), columns(table.columns())));
+        }
+        return tables;
+    }
+
+    private static Boolean writeSharedTables(DBSession to, List<List<Object[]>> tables) throws SQLException {
+        for (int i = 0; i < SHARED_TABLES.size(); i++) {
+            var table = SHARED_TABLES.get(i);
+            var rows = tables.get(i);
+            to.update(table.clear());
+            if (!rows.isEmpty()) {
+                to.updateBatch(table.insert(), rows);
+            }
+        }
+        return true;
+    }
+
+    private static RowMapper<Object[]> columns(int count) {
+        return row -> {
+            var values = new Object[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = row.getObject(i + 1);
+            }
+            return values;
+        };
+    }
+
+    private static <T> void merge(List<List<T>> sources, Comparator<? super T> order, RowConsumer<T> consumer) throws SQLException {
+        // heads of the sources, as {source, position}
+        var heads = new PriorityQueue<int[]>(sources.size(),
+                (a, b) -> order.compare(sources.get(a[0]).get(a[1]), sources.get(b[0]).get(b[1])));
+        for (int source = 0; source < sources.size(); source++) {
+            if (!sources.get(source).isEmpty()) {
+                heads.add(new int[]{source, 0});
+            }
+        }
+        while (!heads.isEmpty()) {
+            var head = heads.poll();
+            var rows = sources.get(head[0]);
+            consumer.accept(rows.get(head[1]));
+            if (++head[1] < rows.size()) {
+                heads.add(head);
+            }
+        }
+    }
+
+    private static <T> T result(Future<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while reading the shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException cause) {
+                throw cause;
+            }
+            throw new SQLException("Reading a shard failed", e.getCause());
+        }
+    }
+
+    private static String url(Path file) {
+        return "jdbc:sqlite:" + file;
+    }
+
+    @Override
+    public void close() {
+        shards.values().forEach(Database::close);
+        shards.clear();
+    }
+}
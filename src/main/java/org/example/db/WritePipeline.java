@@ -0,0 +1,241 @@
+package org.example.db;
+
+import org.example.metrics.Histogram;
+import org.example.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Every database write goes through here. One writer thread takes whatever is queued, up to
+ * {@code maxBatch} tasks or until {@code windowMicros} passed since the first one, and runs the group in a single
+ * transaction with one savepoint per task: a failing task is rolled back to its savepoint and fails alone, the
+ * rest share one commit (and one WAL fsync). Callers get a future that completes once their task is durable.
+ * <p>
+ * {@code afterCommit} callbacks run on the writer thread, in commit order, before the next group starts, which is
+ * where the in-memory catalog is updated.
+ */
+public class WritePipeline implements AutoCloseable {
+    public record Stats(
+            long submitted,
+            long committedTasks,
+            long failedTasks,
+            long rejectedTasks,
+            long groups,
+            int maxGroupSize,
+            double meanGroupSize,
+            double meanLatencyMicros,
+            long maxLatencyMicros,
+            int queued
+    ) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(WritePipeline.class);
+    private static final Histogram writeLatency = Metrics.histogram("amorphous_db_write_latency_seconds",
+            "Time from submitting a write to its group commit.", Histogram.LATENCY_SECONDS);
+    private static final Histogram groupSize = Metrics.histogram("amorphous_db_write_group_size",
+            "Writes committed together in one group.", new double[]{1, 2, 4, 8, 16, 32, 64, 128, 256, 512});
+
+    private static final class Task<T> {
+        private final SQLFunction<T> work;
+        private final Consumer<? super T> afterCommit;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long submittedNanos = System.nanoTime();
+        private T result;
+        private Exception failure;
+
+        private Task(SQLFunction<T> work, Consumer<? super T> afterCommit) {
+            this.work = work;
+            this.afterCommit = afterCommit;
+        }
+
+        private void run(DBSession session) throws SQLException {
+            var connection = session.connection();
+            var savepoint = connection.setSavepoint();
+            try {
+                result = work.apply(session);
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback(savepoint);
+                failure = e;
+            }
+        }
+
+        private void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+                return;
+            }
+            try {
+                if (afterCommit != null) {
+                    afterCommit.accept(result);
+                }
+            } catch (RuntimeException e) {
+                // the write is committed either way, only the follow-up failed
+                logger.error("after-commit callback failed", e);
+            }
+            future.complete(result);
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final ArrayBlockingQueue<Task<?>> queue;
+    private final int maxBatch;
+    private final long windowNanos;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private long submitted;
+    private long committedTasks;
+    private long failedTasks;
+    private long rejectedTasks;
+    private long groups;
+    private int maxGroupSize;
+    private long latencyMicrosTotal;
+    private long maxLatencyMicros;
+
+    public WritePipeline(ConnectionPool pool, int maxQueued, int maxBatch, long windowMicros) {
+        this.pool = pool;
+        this.queue = new ArrayBlockingQueue<>(maxQueued);
+        this.maxBatch = maxBatch;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.writer = new Thread(this::run, "amorphous-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static WritePipeline fromSystemProperties(ConnectionPool pool) {
+        return new WritePipeline(
+                pool,
+                Integer.getInteger("amorphous.db.write.maxQueued", 1024),
+                Integer.getInteger("amorphous.db.write.maxBatch", 256),
+                Long.getLong("amorphous.db.write.windowMicros", 1_000L));
+    }
+
+    /**
+     * Queues {@code work} for the next group commit. {@code work} must not commit, roll back or change auto-commit;
+     * the pipeline owns the transaction.
+     */
+    public <T> CompletableFuture<T> submit(SQLFunction<T> work, Consumer<? super T> afterCommit) {
+        var task = new Task<>(work, afterCommit);
+        synchronized (this) {
+            if (closed || !queue.offer(task)) {
+                rejectedTasks++;
+                throw new PoolSaturatedException(closed
+                        ? "The write pipeline is closed"
+                        : "Write queue is full, " + queue.size() + " writes already waiting");
+            }
+            submitted++;
+        }
+        return task.future;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(
+                submitted,
+                committedTasks,
+                failedTasks,
+                rejectedTasks,
+                groups,
+                maxGroupSize,
+                groups == 0 ? 0 : (double) (committedTasks + failedTasks) / groups,
+                committedTasks + failedTasks == 0 ? 0 : (double) latencyMicrosTotal / (committedTasks + failedTasks),
+                maxLatencyMicros,
+                queue.size());
+    }
+
+    private void run() {
+        var group = new ArrayList<Task<?>>(maxBatch);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                var deadline = System.nanoTime() + windowNanos;
+                while (group.size() < maxBatch) {
+                    var remaining = deadline - System.nanoTime();
+                    var next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                // close() interrupts a writer waiting on an empty queue, keep draining until it is really empty
+                if (group.isEmpty()) {
+                    continue;
+                }
+            }
+
+            commit(group);
+            group.clear();
+        }
+    }
+
+    private void commit(ArrayList<Task<?>> group) {
+        try {
+            pool.withWriter(session -> {
+                var connection = session.connection();
+                connection.setAutoCommit(false);
+                for (var task : group) {
+                    task.run(session);
+                }
+                connection.commit();
+                connection.setAutoCommit(true);
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("group commit of {} writes failed: {}", group.size(), e.getMessage());
+            for (var task : group) {
+                if (task.failure == null) {
+                    task.failure = e;
+                }
+            }
+        }
+
+        var now = System.nanoTime();
+        groupSize.observe(group.size());
+        synchronized (this) {
+            groups++;
+            maxGroupSize = Math.max(maxGroupSize, group.size());
+            for (var task : group) {
+                if (task.failure == null) {
+                    committedTasks++;
+                } else {
+                    failedTasks++;
+                }
+                writeLatency.observeNanos(now - task.submittedNanos);
+                var latencyMicros = TimeUnit.NANOSECONDS.toMicros(now - task.submittedNanos);
+                latencyMicrosTotal += latencyMicros;
+                maxLatencyMicros = Math.max(maxLatencyMicros, latencyMicros);
+            }
+        }
+        for (var task : group) {
+            task.complete();
+        }
+    }
+
+    /**
+     * Stops taking writes and waits for everything already queued to commit.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.feed;
+
+import java.util.List;
+
+/**
+ * Answer to "what changed since version X of log L". With {@code snapshot} set the client was too far behind (or
+ * on another log) and {@code changes} holds every cell instead of a delta; either way it resumes from
+ * {@code log} and {@code version}.
+ */
+public record ChangeFeed(
+        String log,
+        long version,
+        boolean snapshot,
+        List<TranslationChange> changes
+) {
+}
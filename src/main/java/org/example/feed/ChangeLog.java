@@ -0,0 +1,247 @@
+package org.example.feed;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.CatalogListener;
+import org.example.catalog.CatalogSnapshot;
+import org.example.catalog.TranslationRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, monotonically versioned log of translation changes, fed by the catalog after every committed mutation.
+ * <p>
+ * Versions are catalog versions, which restart with every load, so each log also carries an id; a client that
+ * presents another log's id, or a version older than what the ring still holds, gets a full snapshot instead of a
+ * delta. Subscribers share the one ring and only keep a cursor into it: a slow subscriber is never buffered for,
+ * it just receives everything that piled up in one delta once it is ready again, or a snapshot if it fell off the
+ * end.
+ */
+public class ChangeLog implements CatalogListener {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLog.class);
+    private record Batch(long version, TranslationChange[] changes) {
+    }
+
+    private final Batch[] ring;
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private String logId = newLogId();
+    private CatalogSnapshot snapshot;
+    private long version;
+    // every version after this one is still in the ring
+    private long retainedAfter;
+    private int head;
+    private int size;
+    // one future per waiter; a waiter that times out or is cancelled takes itself out
+    private final HashSet<CompletableFuture<Long>> waiters = new HashSet<>();
+
+    public ChangeLog(int capacity) {
+        this.ring = new Batch[capacity];
+    }
+
+    public static ChangeLog fromSystemProperties() {
+        return new ChangeLog(Integer.getInteger("amorphous.feed.capacity", 1024));
+    }
+
+    public ChangeFeed changesSince(String log, long since) {
+        CatalogSnapshot fallback;
+        synchronized (this) {
+            if (logId.equals(log) && since >= retainedAfter && since <= version) {
+                var changes = new ArrayList<TranslationChange>();
+                for (int i = 0; i < size; i++) {
+                    var batch = ring[(head + i) % ring.length];
+                    if (batch.version() > since) {
+                        changes.addAll(Arrays.asList(batch.changes()));
+                    }
+                }
+                return new ChangeFeed(logId, version, false, changes);
+            }
+            fallback = snapshot;
+            log = logId;
+        }
+
+        var changes = new ArrayList<TranslationChange>();
+        if (fallback != null) {
+            fallback.assets().forEach((assetId, entry) -> {
+                for (var row : entry.translations()) {
+                    changes.add(change(fallback, fallback.version(), entry, null, row));
+                }
+                return true;
+            });
+        }
+        return new ChangeFeed(log, fallback == null ? 0 : fallback.version(), true, changes);
+    }
+
+    /**
+     * Completes, on a dispatcher thread, once the log moves past {@code since}. Each caller gets its own future;
+     * completing it early (a timeout) or cancelling it forgets the waiter, so abandoned polls do not pile up.
+     */
+    public synchronized CompletableFuture<Long> awaitChange(long since) {
+        if (version > since) {
+            return CompletableFuture.completedFuture(version);
+        }
+        var waiter = new CompletableFuture<Long>();
+        waiters.add(waiter);
+        waiter.whenComplete((reached, e) -> forget(waiter));
+        return waiter;
+    }
+
+    synchronized int waiting() {
+        return waiters.size();
+    }
+
+    /**
+     * Pushes a feed to {@code sink} now and after every later change until the returned handle is closed or the
+     * sink throws. At most one push per subscriber is in flight.
+     */
+    public AutoCloseable subscribe(String log, long since, Consumer<ChangeFeed> sink) {
+        var subscriber = new Subscriber(log, since, sink);
+        dispatcher.execute(subscriber::pump);
+        return subscriber::close;
+    }
+
+    @Override
+    public void onLoad(CatalogSnapshot loaded) {
+        synchronized (this) {
+            logId = newLogId();
+            snapshot = loaded;
+            version = loaded.version();
+            retainedAfter = version;
+            Arrays.fill(ring, null);
+            head = 0;
+            size = 0;
+        }
+        signal();
+    }
+
+    @Override
+    public void onChange(CatalogSnapshot before, CatalogSnapshot after, int[] changedAssetIds) {
+        var changes = new ArrayList<TranslationChange>();
+        for (var assetId : changedAssetIds) {
+            var entry = after.asset(assetId);
+            if (entry != null) {
+                appendChanges(after, before.asset(assetId), entry, changes);
+            }
+        }
+
+        synchronized (this) {
+            snapshot = after;
+            version = after.version();
+            if (!changes.isEmpty()) {
+                if (size == ring.length) {
+                    retainedAfter = ring[head].version();
+                    head = (head + 1) % ring.length;
+                    size--;
+                }
+                ring[(head + size) % ring.length] = new Batch(version, changes.toArray(new TranslationChange[0]));
+                size++;
+            }
+        }
+        signal();
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    // listeners run under the catalog's write lock, waiters are only ever resumed on the dispatcher
+    private void signal() {
+        List<CompletableFuture<Long>> done;
+        long reached;
+        synchronized (this) {
+            done = new ArrayList<>(waiters);
+            waiters.clear();
+            reached = version;
+        }
+        for (var waiter : done) {
+            waiter.completeAsync(() -> reached, dispatcher);
+        }
+    }
+
+    private synchronized void forget(CompletableFuture<Long> waiter) {
+        waiters.remove(waiter);
+    }
+
+    private void appendChanges(CatalogSnapshot after, AssetEntry before, AssetEntry entry, List<TranslationChange> changes) {
+        var renamedFrom = before != null && !before.asset().name().equals(entry.asset().name())
+                ? before.asset().name()
+                : null;
+        for (var row : entry.translations()) {
+            var beforeRow = before == null ? null : before.translation(row.projectId(), row.languageId());
+            if (renamedFrom != null || !row.equals(beforeRow)) {
+                changes.add(change(after, after.version(), entry, renamedFrom, row));
+            }
+        }
+    }
+
+    private static TranslationChange change(CatalogSnapshot snapshot, long version, AssetEntry entry, String renamedFrom, TranslationRow row) {
+        var language = snapshot.languages().get(row.languageId());
+        return new TranslationChange(
+                version,
+                entry.assetId(),
+                entry.asset().name(),
+                renamedFrom,
+                row.projectId(),
+                row.languageId(),
+                language == null ? null : language.name(),
+                row.translation(),
+                row.updated());
+    }
+
+    private static String newLogId() {
+        return Long.toHexString(System.currentTimeMillis());
+    }
+
+    private final class Subscriber {
+        private final Consumer<ChangeFeed> sink;
+        private String log;
+        private long cursor;
+        private volatile boolean closed;
+        private volatile CompletableFuture<Long> waiting;
+
+        private Subscriber(String log, long since, Consumer<ChangeFeed> sink) {
+            this.log = log;
+            this.cursor = since;
+            this.sink = sink;
+        }
+
+        private void pump() {
+            if (closed) {
+                return;
+            }
+            try {
+                var feed = changesSince(log, cursor);
+                if (feed.snapshot() || !feed.changes().isEmpty()) {
+                    sink.accept(feed);
+                }
+                log = feed.log();
+                cursor = feed.version();
+            } catch (RuntimeException e) {
+                logger.debug("dropping change feed subscriber: {}", e.getMessage());
+                close();
+                return;
+            }
+            var waiter = awaitChange(cursor);
+            waiting = waiter;
+            waiter.thenRunAsync(this::pump, dispatcher);
+            if (closed) {
+                waiter.cancel(false);
+            }
+        }
+
+        private void close() {
+            closed = true;
+            var waiter = waiting;
+            if (waiter != null) {
+                waiter.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.feed;
+
+/**
+ * One translation cell as it is after a commit. {@code previousAssetName} is only set when the commit renamed the
+ * asset, so clients keyed by name can drop the old key.
+ */
+public record TranslationChange(
+        long version,
+        int assetId,
+        String assetName,
+        String previousAssetName,
+        int projectId,
+        int languageId,
+        String languageName,
+        String translation,
+        long updated // epoch millis
+) {
+}
@@ -0,0 +1,44 @@
+package org.example.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A gauge, or a counter kept elsewhere (JVM beans, pool statistics), read only when scraped.
+ */
+public final class CallbackMetric implements Metric {
+    private final String name;
+    private final String help;
+    private final String type;
+    private final String[] labelNames;
+    private final LinkedHashMap<String, DoubleSupplier> children = new LinkedHashMap<>();
+
+    CallbackMetric(String name, String help, String type, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.labelNames = labelNames;
+    }
+
+    public synchronized CallbackMetric child(DoubleSupplier value, String... labelValues) {
+        children.put(Labels.key(labelNames, labelValues), value);
+        return this;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public synchronized void write(StringBuilder out) {
+        Labels.header(out, name, help, type);
+        children.forEach((key, value) -> {
+            out.append(name);
+            Labels.write(out, labelNames, Labels.values(key, labelNames.length), null, null);
+            out.append(' ');
+            Labels.number(out, value.getAsDouble());
+            out.append('\n');
+        });
+    }
+}
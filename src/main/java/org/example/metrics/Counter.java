@@ -0,0 +1,52 @@
+package org.example.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Counter implements Metric {
+    private final String name;
+    private final String help;
+    private final String[] labelNames;
+    private final ConcurrentHashMap<String, Child> children = new ConcurrentHashMap<>();
+
+    Counter(String name, String help, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.labelNames = labelNames;
+    }
+
+    public Child labels(String... values) {
+        return children.computeIfAbsent(Labels.key(labelNames, values), key -> new Child());
+    }
+
+    public void inc() {
+        labels().inc();
+    }
+
+    public static final class Child {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void inc(long amount) {
+            value.add(amount);
+        }
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void write(StringBuilder out) {
+        Labels.header(out, name, help, "counter");
+        children.forEach((key, child) -> {
+            out.append(name);
+            Labels.write(out, labelNames, Labels.values(key, labelNames.length), null, null);
+            out.append(' ').append(child.value.sum()).append('\n');
+        });
+    }
+}
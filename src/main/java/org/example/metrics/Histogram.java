@@ -0,0 +1,102 @@
+package org.example.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative-bucket histogram. Observations only touch striped adders, so concurrent request threads do not
+ * contend on a shared counter.
+ */
+public final class Histogram implements Metric {
+    /**
+     * Half a millisecond to ten seconds, for request, query and render latencies.
+     */
+    public static final double[] LATENCY_SECONDS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    private final String name;
+    private final String help;
+    private final double[] buckets;
+    private final String[] labelNames;
+    private final ConcurrentHashMap<String, Child> children = new ConcurrentHashMap<>();
+
+    Histogram(String name, String help, double[] buckets, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.buckets = buckets;
+        this.labelNames = labelNames;
+    }
+
+    public Child labels(String... values) {
+        return children.computeIfAbsent(Labels.key(labelNames, values), key -> new Child(buckets.length));
+    }
+
+    public void observe(double value) {
+        labels().observe(value);
+    }
+
+    public void observeNanos(long nanos) {
+        labels().observeNanos(nanos);
+    }
+
+    public final class Child {
+        private final LongAdder[] counts;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Child(int bucketCount) {
+            counts = new LongAdder[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double value) {
+            for (int i = 0; i < buckets.length; i++) {
+                if (value <= buckets[i]) {
+                    counts[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            sum.add(value);
+        }
+
+        public void observeNanos(long nanos) {
+            observe(nanos / 1e9);
+        }
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void write(StringBuilder out) {
+        Labels.header(out, name, help, "histogram");
+        children.forEach((key, child) -> {
+            var values = Labels.values(key, labelNames.length);
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += child.counts[i].sum();
+                out.append(name).append("_bucket");
+                var upper = new StringBuilder();
+                Labels.number(upper, buckets[i]);
+                Labels.write(out, labelNames, values, "le", upper.toString());
+                out.append(' ').append(cumulative).append('\n');
+            }
+            out.append(name).append("_bucket");
+            Labels.write(out, labelNames, values, "le", "+Inf");
+            out.append(' ').append(child.count.sum()).append('\n');
+            out.append(name).append("_sum");
+            Labels.write(out, labelNames, values, null, null);
+            out.append(' ').append(child.sum.sum()).append('\n');
+            out.append(name).append("_count");
+            Labels.write(out, labelNames, values, null, null);
+            out.append(' ').append(child.count.sum()).append('\n');
+        });
+    }
+}
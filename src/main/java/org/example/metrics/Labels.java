@@ -0,0 +1,68 @@
+package org.example.metrics;
+
+/**
+ * Label keys for the children of a family. A single label value is used as is, so the common one-label lookup on
+ * the hot path allocates nothing.
+ */
+final class Labels {
+    private Labels() {
+    }
+
+    static String key(String[] names, String... values) {
+        if (values.length != names.length) {
+            throw new IllegalArgumentException("Expected " + names.length + " label values, got " + values.length);
+        }
+        return values.length == 1 ? values[0] : String.join("\u0000", values);
+    }
+
+    static String[] values(String key, int count) {
+        return count == 1 ? new String[]{key} : key.split("\u0000", -1);
+    }
+
+    static void write(StringBuilder out, String[] names, String[] values, String extraName, String extraValue) {
+        if (names.length == 0 && extraName == null) {
+            return;
+        }
+        out.append('{');
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(names[i]).append("=\"");
+            escape(out, values[i]);
+            out.append('"');
+        }
+        if (extraName != null) {
+            if (names.length > 0) {
+                out.append(',');
+            }
+            out.append(extraName).append("=\"").append(extraValue).append('"');
+        }
+        out.append('}');
+    }
+
+    static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    static void number(StringBuilder out, double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.metrics;
+
+/**
+ * A metric family that can render itself in the Prometheus text exposition format.
+ */
+interface Metric {
+    String name();
+
+    void write(StringBuilder out);
+}
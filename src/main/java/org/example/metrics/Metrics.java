@@ -0,0 +1,86 @@
+package org.example.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-wide metric registry, scraped in the Prometheus text format at {@code /metrics}. Families are created
+ * once, usually as static fields next to the code they measure; registering a name twice returns the existing
+ * family.
+ */
+public class Metrics {
+    private static final CopyOnWriteArrayList<Metric> metrics = new CopyOnWriteArrayList<>();
+
+    public static Counter counter(String name, String help, String... labelNames) {
+        return register(new Counter(name, help, labelNames));
+    }
+
+    public static Histogram histogram(String name, String help, double[] buckets, String... labelNames) {
+        return register(new Histogram(name, help, buckets, labelNames));
+    }
+
+    public static CallbackMetric gauge(String name, String help, String... labelNames) {
+        return register(new CallbackMetric(name, help, "gauge", labelNames));
+    }
+
+    public static CallbackMetric gauge(String name, String help, DoubleSupplier value) {
+        return gauge(name, help).child(value);
+    }
+
+    /**
+     * A counter whose value is kept elsewhere, e.g. by a JVM bean.
+     */
+    public static CallbackMetric counterFrom(String name, String help, String... labelNames) {
+        return register(new CallbackMetric(name, help, "counter", labelNames));
+    }
+
+    public static String scrape() {
+        var out = new StringBuilder(8192);
+        for (var metric : metrics) {
+            metric.write(out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Heap, GC, thread and uptime gauges from the platform MXBeans.
+     */
+    public static void registerJvmMetrics() {
+        var memory = ManagementFactory.getMemoryMXBean();
+        gauge("jvm_memory_bytes_used", "Used bytes of a given JVM memory area.", "area")
+                .child(() -> memory.getHeapMemoryUsage().getUsed(), "heap")
+                .child(() -> memory.getNonHeapMemoryUsage().getUsed(), "nonheap");
+        gauge("jvm_memory_bytes_committed", "Committed bytes of a given JVM memory area.", "area")
+                .child(() -> memory.getHeapMemoryUsage().getCommitted(), "heap")
+                .child(() -> memory.getNonHeapMemoryUsage().getCommitted(), "nonheap");
+        gauge("jvm_memory_bytes_max", "Max bytes of a given JVM memory area.", "area")
+                .child(() -> memory.getHeapMemoryUsage().getMax(), "heap");
+
+        var collections = counterFrom("jvm_gc_collections_total", "Collections run by each garbage collector.", "gc");
+        var collectionSeconds = counterFrom("jvm_gc_collection_seconds_total", "Time spent in each garbage collector.", "gc");
+        for (var gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections.child(gc::getCollectionCount, gc.getName());
+            collectionSeconds.child(() -> gc.getCollectionTime() / 1000.0, gc.getName());
+        }
+
+        var threads = ManagementFactory.getThreadMXBean();
+        gauge("jvm_threads_live", "Live platform threads.", threads::getThreadCount);
+        var runtime = ManagementFactory.getRuntimeMXBean();
+        gauge("process_uptime_seconds", "Seconds since the JVM started.", () -> runtime.getUptime() / 1000.0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized <T extends Metric> T register(T metric) {
+        for (var existing : metrics) {
+            if (existing.name().equals(metric.name())) {
+                if (existing.getClass() != metric.getClass()) {
+                    throw new IllegalArgumentException("Metric " + metric.name() + " is already registered as " + existing.getClass().getSimpleName());
+                }
+                return (T) existing;
+            }
+        }
+        metrics.add(metric);
+        return metric;
+    }
+}
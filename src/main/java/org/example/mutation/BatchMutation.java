@@ -0,0 +1,242 @@
+package org.example.mutation;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogSnapshot;
+import org.example.catalog.TranslationRow;
+import org.example.db.DBQueries;
+import org.example.db.DBUtils;
+import org.example.db.LanguageTranslation;
+import org.example.db.SQLFunction;
+import org.example.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Applies any number of cell edits in one transaction, each guarded by a compare-and-set on {@code updated}.
+ * <p>
+ * Entries are first checked against the catalog, which settles unchanged cells and most conflicts without touching
+ * the database, and text that would be written goes through the {@link Validator}; an error refuses that entry.
+ * The rest go out per project as two JDBC batches (guarded updates and insert-if-absent) in one task of that
+ * project's write pipeline, so projects in different shards commit in parallel and one project failing does not
+ * undo another. An entry whose statement matched no row lost a race and is reported as a conflict while the
+ * others still commit.
+ * <p>
+ * The whole batch is refused up front when {@code userId} is not a known user, since rows written under it would
+ * have no user to show and drop out of every view.
+ */
+public class BatchMutation {
+
+    private record Candidate(int index, AssetEntry entry, int projectId, TranslationMutation mutation, boolean insert) {
+    }
+
+    private record ProjectWrites(List<Candidate> updates, List<Candidate> inserts) {
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown user
+     */
+    public static BatchResult apply(List<TranslationMutation> mutations, int userId, Validator validator) {
+        var snapshot = Catalog.snapshot();
+        if (snapshot.users().get(userId) == null) {
+            throw new IllegalArgumentException("Unknown user " + userId);
+        }
+        var results = new MutationResult[mutations.size()];
+        var updates = new ArrayList<Candidate>();
+        var inserts = new ArrayList<Candidate>();
+        var cells = new HashSet<List<Integer>>();
+
+        for (int i = 0; i < mutations.size(); i++) {
+            var mutation = mutations.get(i);
+            var entry = snapshot.asset(mutation.assetId());
+            if (entry == null) {
+                results[i] = invalid(mutation, 0, "unknown asset");
+                continue;
+            }
+            if (snapshot.languages().get(mutation.languageId()) == null) {
+                results[i] = invalid(mutation, 0, "unknown language");
+                continue;
+            }
+            var projectId = resolveProject(snapshot, entry, mutation);
+            if (projectId == 0) {
+                results[i] = invalid(mutation, 0, "project is missing or ambiguous");
+                continue;
+            }
+            if (!cells.add(List.of(mutation.assetId(), projectId, mutation.languageId()))) {
+                results[i] = invalid(mutation, projectId, "cell appears more than once in the batch");
+                continue;
+            }
+
+            var current = entry.translation(projectId, mutation.languageId());
+            var insert = current == null && mutation.expectedUpdated() == 0;
+            if (!insert && (current == null || current.updated() != mutation.expectedUpdated())) {
+                results[i] = conflict(mutation, projectId, current);
+                continue;
+            }
+            if (!insert && Objects.equals(current.translation(), mutation.translation())) {
+                results[i] = new MutationResult(mutation.assetId(), projectId, mutation.languageId(),
+                        MutationStatus.UNCHANGED, current.updated(), null, null);
+                continue;
+            }
+            // only text that would be written is checked, an untouched cell with old issues still saves around it
+            var errors = Validator.errors(validator.check(entry, projectId, mutation.languageId(), mutation.translation()));
+            if (errors != null) {
+                results[i] = invalid(mutation, projectId, errors);
+                continue;
+            }
+            (insert ? inserts : updates).add(new Candidate(i, entry, projectId, mutation, insert));
+        }
+
+        if (!updates.isEmpty() || !inserts.isEmpty()) {
+            var byProject = new LinkedHashMap<Integer, ProjectWrites>();
+            for (var candidate : updates) {
+                writesOf(byProject, candidate.projectId()).updates().add(candidate);
+            }
+            for (var candidate : inserts) {
+                writesOf(byProject, candidate.projectId()).inserts().add(candidate);
+            }
+            write(byProject, userId, results);
+        }
+
+        var applied = 0;
+        var conflicts = 0;
+        for (var result : results) {
+            applied += result.status() == MutationStatus.APPLIED ? 1 : 0;
+            conflicts += result.status() == MutationStatus.CONFLICT ? 1 : 0;
+        }
+        return new BatchResult(applied, conflicts, List.of(results));
+    }
+
+    private static ProjectWrites writesOf(LinkedHashMap<Integer, ProjectWrites> byProject, int projectId) {
+        return byProject.computeIfAbsent(projectId, id -> new ProjectWrites(new ArrayList<>(), new ArrayList<>()));
+    }
+
+    private static void write(LinkedHashMap<Integer, ProjectWrites> byProject, int userId, MutationResult[] results) {
+        var now = System.currentTimeMillis();
+        var work = new LinkedHashMap<Integer, SQLFunction<List<LanguageTranslation>>>();
+        byProject.forEach((projectId, writes) -> work.put(projectId, write(writes.updates(), writes.inserts(), now, userId, results)));
+
+        var committed = DBUtils.writeEach(work, matched -> {
+            // runs on the writer thread, so the catalog sees each project's commits in the order its database did
+            if (!matched.isEmpty()) {
+                Catalog.applyTranslations(matched);
+            }
+        });
+
+        byProject.forEach((projectId, writes) -> {
+            if (!committed.containsKey(projectId)) {
+                for (var candidate : writes.updates()) {
+                    results[candidate.index()] = failed(candidate);
+                }
+                for (var candidate : writes.inserts()) {
+                    results[candidate.index()] = failed(candidate);
+                }
+            }
+        });
+    }
+
+    private static SQLFunction<List<LanguageTranslation>> write(List<Candidate> updates, List<Candidate> inserts, long now,
+                                                                int userId, MutationResult[] results) {
+        var updated = new ArrayList<LanguageTranslation>();
+        var updatedCandidates = new ArrayList<Candidate>();
+        for (var candidate : updates) {
+            // the new timestamp must differ from the expected one or the next compare-and-set could not tell them apart
+            updated.add(translation(candidate, Math.max(now, candidate.mutation().expectedUpdated() + 1), userId));
+            updatedCandidates.add(candidate);
+        }
+        var inserted = new ArrayList<LanguageTranslation>();
+        for (var candidate : inserts) {
+            inserted.add(translation(candidate, now, userId));
+        }
+
+        return session -> {
+            var updateParameters = DBQueries.updateTranslationParameters(updated);
+            for (int i = 0; i < updateParameters.size(); i++) {
+                updateParameters.set(i, append(updateParameters.get(i), updatedCandidates.get(i).mutation().expectedUpdated()));
+            }
+            var updateCounts = updated.isEmpty() ? new int[0] : session.updateBatch(DBQueries.COMPARE_AND_SET_TRANSLATION, updateParameters);
+            var insertCounts = inserted.isEmpty() ? new int[0] : session.updateBatch(DBQueries.INSERT_TRANSLATION_IF_ABSENT, DBQueries.updateTranslationParameters(inserted));
+
+            var matched = new ArrayList<LanguageTranslation>();
+            settle(updatedCandidates, updated, updateCounts, matched, results);
+            settle(inserts, inserted, insertCounts, matched, results);
+            return matched;
+        };
+    }
+
+    private static void settle(List<Candidate> candidates, List<LanguageTranslation> translations, int[] counts,
+                               List<LanguageTranslation> committed, MutationResult[] results) {
+        for (int i = 0; i < candidates.size(); i++) {
+            var candidate = candidates.get(i);
+            var mutation = candidate.mutation();
+            if (counts[i] > 0) {
+                var translation = translations.get(i);
+                committed.add(translation);
+                results[candidate.index()] = new MutationResult(mutation.assetId(), candidate.projectId(),
+                        mutation.languageId(), MutationStatus.APPLIED, translation.updated(), null, null);
+            } else {
+                // lost the race inside the database, the catalog has not caught up with the winner yet
+                results[candidate.index()] = conflict(mutation, candidate.projectId(),
+                        candidate.entry().translation(candidate.projectId(), mutation.languageId()));
+            }
+        }
+    }
+
+    private static int resolveProject(CatalogSnapshot snapshot, AssetEntry entry, TranslationMutation mutation) {
+        if (mutation.projectId() != null) {
+            return snapshot.projects().get(mutation.projectId()) == null ? 0 : mutation.projectId();
+        }
+        var found = 0;
+        for (var row : entry.translations()) {
+            if (row.languageId() == mutation.languageId()) {
+                if (found != 0) {
+                    return 0;
+                }
+                found = row.projectId();
+            }
+        }
+        return found;
+    }
+
+    private static LanguageTranslation translation(Candidate candidate, long updated, int userId) {
+        var mutation = candidate.mutation();
+        return new LanguageTranslation(
+                mutation.assetId(),
+                null,
+                mutation.translation(),
+                updated,
+                candidate.entry().asset().name(),
+                null,
+                candidate.projectId(),
+                mutation.languageId(),
+                userId);
+    }
+
+    private static Object[] append(Object[] parameters, Object last) {
+        var extended = new Object[parameters.length + 1];
+        System.arraycopy(parameters, 0, extended, 0, parameters.length);
+        extended[parameters.length] = last;
+        return extended;
+    }
+
+    private static MutationResult conflict(TranslationMutation mutation, int projectId, TranslationRow current) {
+        return new MutationResult(mutation.assetId(), projectId, mutation.languageId(), MutationStatus.CONFLICT,
+                current == null ? 0 : current.updated(),
+                current == null ? null : current.translation(),
+                "changed by someone else since it was read");
+    }
+
+    private static MutationResult invalid(TranslationMutation mutation, int projectId, String message) {
+        return new MutationResult(mutation.assetId(), projectId, mutation.languageId(), MutationStatus.INVALID, 0, null, message);
+    }
+
+    private static MutationResult failed(Candidate candidate) {
+        var mutation = candidate.mutation();
+        return new MutationResult(mutation.assetId(), candidate.projectId(), mutation.languageId(), MutationStatus.FAILED,
+                mutation.expectedUpdated(), null, "could not be written, nothing in this batch was saved for its project");
+    }
+}
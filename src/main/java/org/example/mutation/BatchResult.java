@@ -0,0 +1,10 @@
+package org.example.mutation;
+
+import java.util.List;
+
+public record BatchResult(
+        int applied,
+        int conflicts,
+        List<MutationResult> results
+) {
+}
@@ -0,0 +1,16 @@
+package org.example.mutation;
+
+/**
+ * Outcome for one entry of a batch. {@code updated} is the cell's timestamp after the batch, i.e. the token for
+ * the next compare-and-set; on a conflict {@code currentTranslation} is the text that won.
+ */
+public record MutationResult(
+        int assetId,
+        int projectId,
+        int languageId,
+        MutationStatus status,
+        long updated,
+        String currentTranslation,
+        String message
+) {
+}
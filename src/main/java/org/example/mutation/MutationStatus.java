@@ -0,0 +1,10 @@
+package org.example.mutation;
+
+public enum MutationStatus {
+    APPLIED,
+    UNCHANGED,
+    // someone else saved the cell after the client read it
+    CONFLICT,
+    INVALID,
+    FAILED
+}
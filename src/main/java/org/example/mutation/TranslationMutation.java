@@ -0,0 +1,14 @@
+package org.example.mutation;
+
+/**
+ * New text for one cell, valid only if the cell still carries {@code expectedUpdated}; 0 expects the cell not to
+ * exist yet. Without a {@code projectId} the asset's only project for that language is used.
+ */
+public record TranslationMutation(
+        int assetId,
+        Integer projectId,
+        int languageId,
+        String translation,
+        long expectedUpdated // epoch millis
+) {
+}
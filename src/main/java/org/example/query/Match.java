@@ -5,13 +5,18 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 public record Match(
-        Integer assetId,
+        int assetId,
         String href,
         String title,
         String description,
-        Long lastUpdatedTime, // epoch time
-        String lastUpdatedBy
+        long lastUpdatedTime, // epoch time
+        String lastUpdatedBy,
+        String snippet // highlighted html excerpt, only set for search hits
 ) {
+    public Match withSnippet(String snippet) {
+        return new Match(assetId, href, title, description, lastUpdatedTime, lastUpdatedBy, snippet);
+    }
+
     public String lastUpdatedTimeFormatted() {
         var instant = Instant.ofEpochMilli(this.lastUpdatedTime);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
@@ -0,0 +1,131 @@
+package org.example.query;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.CatalogSnapshot;
+import org.example.search.SearchIndex;
+import org.example.search.Snippets;
+
+import java.util.ArrayList;
+
+/**
+ * Answers the Menu/HUD list and search in one go: matches come ranked from the search index, non-matches from a
+ * single ascending walk over the catalog that skips the matched ids.
+ * <p>
+ * Unranked lists are keyset-paginated by asset id: a page holds the first {@code pageSize} assets with an id above
+ * {@code nonMatchesAfter}, and {@code next*After} is the cursor for the following page, or -1 on the last one.
+ * Matches are paginated by rank instead: a page holds the {@code pageSize} hits ranked after {@code matchesAfter}
+ * (0 is the best hit). Ranking is deterministic, so a rank cursor is stable for a given snapshot.
+ */
+public class MenuHudQuery {
+    public static final int NO_MORE = -1;
+
+    public record PartitionedMatches(
+            int matchCount,
+            int nonMatchCount,
+            ArrayList<Match> matches,
+            ArrayList<Match> nonMatches,
+            int nextMatchesAfter,
+            int nextNonMatchesAfter
+    ) {
+    }
+
+    public static PartitionedMatches run(CatalogSnapshot snapshot,
+                                         SearchIndex searchIndex,
+                                         String searchLike,
+                                         int matchesAfter,
+                                         int nonMatchesAfter,
+                                         int pageSize) {
+        if (searchLike == null || searchLike.isBlank()) {
+            var page = new KeysetPage(snapshot, nonMatchesAfter, pageSize);
+            snapshot.assets().forEach((assetId, entry) -> {
+                page.offer(assetId, entry);
+                return true;
+            });
+            return new PartitionedMatches(page.count, 0, page.rows, new ArrayList<>(), page.nextAfter(), NO_MORE);
+        }
+
+        // one hit past the page tells whether another page follows
+        var first = Math.max(0, matchesAfter + 1);
+        var results = searchIndex.search(searchLike, first + pageSize + 1);
+        var hits = results.hits();
+        var end = Math.min(hits.size(), first + pageSize);
+
+        var matches = new ArrayList<Match>(pageSize);
+        for (int rank = first; rank < end; rank++) {
+            var entry = snapshot.asset(hits.get(rank).assetId());
+            if (entry == null) {
+                continue;
+            }
+            var snippet = Snippets.forAsset(entry, results.terms());
+            var before = matches.size();
+            snapshot.appendMatches(entry, matches);
+            for (int i = before; i < matches.size(); i++) {
+                matches.set(i, matches.get(i).withSnippet(snippet));
+            }
+        }
+
+        // both the catalog walk and the matched ids are ascending, so membership is a merge rather than a lookup
+        var matchedIds = results.assetIds();
+        var nonMatches = new KeysetPage(snapshot, nonMatchesAfter, pageSize);
+        var cursor = new int[1];
+        var matchCount = new int[1];
+        snapshot.assets().forEach((assetId, entry) -> {
+            while (cursor[0] < matchedIds.length && matchedIds[cursor[0]] < assetId) {
+                cursor[0]++;
+            }
+            if (cursor[0] < matchedIds.length && matchedIds[cursor[0]] == assetId) {
+                if (entry.translations().length > 0) {
+                    matchCount[0]++;
+                }
+            } else {
+                nonMatches.offer(assetId, entry);
+            }
+            return true;
+        });
+
+        var nextMatchesAfter = hits.size() > end ? end - 1 : NO_MORE;
+        return new PartitionedMatches(matchCount[0], nonMatches.count, matches, nonMatches.rows, nextMatchesAfter, nonMatches.nextAfter());
+    }
+
+    /**
+     * Counts every listed asset but only keeps the page after the cursor, so memory stays at one page.
+     */
+    private static final class KeysetPage {
+        private final CatalogSnapshot snapshot;
+        private final int afterAssetId;
+        private final int pageSize;
+        private final ArrayList<Match> rows;
+        private int count;
+        private int taken;
+        private int lastTaken = NO_MORE;
+        private boolean more;
+
+        private KeysetPage(CatalogSnapshot snapshot, int afterAssetId, int pageSize) {
+            this.snapshot = snapshot;
+            this.afterAssetId = afterAssetId;
+            this.pageSize = pageSize;
+            this.rows = new ArrayList<>(pageSize);
+        }
+
+        private void offer(int assetId, AssetEntry entry) {
+            if (entry.translations().length == 0) {
+                return;
+            }
+            count++;
+            if (assetId <= afterAssetId) {
+                return;
+            }
+            if (taken == pageSize) {
+                more = true;
+                return;
+            }
+            snapshot.appendMatches(entry, rows);
+            taken++;
+            lastTaken = assetId;
+        }
+
+        private int nextAfter() {
+            return more ? lastTaken : NO_MORE;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.release;
+
+/**
+ * A named, immutable snapshot of the catalog, e.g. the strings that shipped in one game build.
+ * {@code changedAssets} and {@code changedCells} count what it stored over the release before it.
+ */
+public record Release(
+        int releaseId,
+        String name,
+        long created, // epoch millis
+        long catalogVersion,
+        int changedAssets,
+        int changedCells
+) {
+}
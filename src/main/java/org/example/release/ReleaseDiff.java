@@ -0,0 +1,21 @@
+package org.example.release;
+
+import java.util.List;
+
+/**
+ * Changes from release {@code from} to {@code to}, either of which may be {@value Releases#HEAD}. A null text means
+ * the cell or asset did not exist on that side.
+ */
+public record ReleaseDiff(
+        String from,
+        String to,
+        List<AssetChange> assets,
+        List<CellChange> cells
+) {
+    public record AssetChange(int assetId, String nameBefore, String nameAfter, String urlBefore, String urlAfter,
+                              String descriptionBefore, String descriptionAfter) {
+    }
+
+    public record CellChange(int assetId, String asset, int projectId, int languageId, String before, String after) {
+    }
+}
@@ -0,0 +1,314 @@
+package org.example.release;
+
+import org.example.catalog.AssetRow;
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogDiff;
+import org.example.catalog.CatalogSnapshot;
+import org.example.catalog.CowArray;
+import org.example.catalog.TranslationRow;
+import org.example.db.DBUtils;
+import org.example.db.NamedQuery;
+import org.example.runtime.KeyIndex;
+import org.example.search.SearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Named release snapshots of the catalog. Taking one keeps a reference to the current {@link CatalogSnapshot},
+ * which already shares every untouched chunk with head, and stores only the cells and assets that changed since
+ * the previous release; both cost in what changed, and neither takes the catalog's write lock. A release reads
+ * exactly like head since it is the same kind of snapshot.
+ * <p>
+ * At startup the delta log is replayed release by release, each built on the one before so they share structure
+ * again, and the chain is then rebased onto the freshly loaded head: one full comparison of the newest release
+ * with head, then the cheap release-to-release deltas backwards. Afterwards every release shares its untouched
+ * chunks with head, so the next {@link #create} compares only what changed and a release costs its delta in
+ * memory rather than a copy of the catalog. Lookup tables (languages, projects, users) are not versioned and come
+ * from head.
+ */
+public class Releases {
+    public static final String HEAD = "head";
+
+    private static final Logger logger = LoggerFactory.getLogger(Releases.class);
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,63}");
+
+    private static final NamedQuery RELEASES = new NamedQuery("releases", """
+            SELECT release_id, name, created, catalog_version,
+                   (SELECT count(*) FROM release_asset ra WHERE ra.release_id = r.release_id),
+                   (SELECT count(*) FROM release_translation rt WHERE rt.release_id = r.release_id)
+            FROM release r
+            ORDER BY release_id;
+            """);
+
+    private static final NamedQuery RELEASE_ASSETS = new NamedQuery("releaseAssets", """
+            SELECT release_id, asset_id, asset_name, asset_url, asset_description, removed
+            FROM release_asset
+            ORDER BY release_id, asset_id;
+            """);
+
+    private static final NamedQuery RELEASE_TRANSLATIONS = new NamedQuery("releaseTranslations", """
+            SELECT release_id, asset_id, project_id, language_id, translation, updated, who_updated, removed
+            FROM release_translation
+            ORDER BY release_id, asset_id, language_id, project_id;
+            """);
+
+    private static final NamedQuery INSERT_RELEASE = new NamedQuery("insertRelease", """
+            INSERT INTO release (name, created, catalog_version)
+            VALUES (?, ?, ?)
+            RETURNING release_id;
+            """);
+
+    private static final NamedQuery INSERT_RELEASE_ASSET = new NamedQuery("insertReleaseAsset", """
+            INSERT INTO release_asset (release_id, asset_id, asset_name, asset_url, asset_description, removed)
+            VALUES (?, ?, ?, ?, ?, ?);
+            """);
+
+    private static final NamedQuery INSERT_RELEASE_TRANSLATION = new NamedQuery("insertReleaseTranslation", """
+            INSERT INTO release_translation (release_id, asset_id, project_id, language_id, translation, updated, who_updated, removed)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?);
+            """);
+
+    private static final class Held {
+        private final Release release;
+        private final CatalogSnapshot snapshot;
+        private volatile SearchIndex searchIndex;
+        private volatile KeyIndex keyIndex;
+
+        private Held(Release release, CatalogSnapshot snapshot) {
+            this.release = release;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Held> byName = new ConcurrentHashMap<>();
+    private final ArrayList<Held> ordered = new ArrayList<>();
+
+    /**
+     * Replays the stored releases; call after {@link Catalog#load()}.
+     */
+    public synchronized void load() {
+        byName.clear();
+        ordered.clear();
+
+        var assetChanges = new HashMap<Integer, List<CatalogDiff.AssetChange>>();
+        DBUtils.forEach(RELEASE_ASSETS, row -> {
+            var assetId = row.getInt(2);
+            var after = row.getBoolean(6) ? null : new AssetRow(assetId, row.getString(3), row.getString(4), row.getString(5));
+            return Map.entry(row.getInt(1), new CatalogDiff.AssetChange(assetId, null, after));
+        }, change -> assetChanges.computeIfAbsent(change.getKey(), id -> new ArrayList<>()).add(change.getValue()));
+
+        var cellChanges = new HashMap<Integer, List<CatalogDiff.CellChange>>();
+        DBUtils.forEach(RELEASE_TRANSLATIONS, row -> {
+            var assetId = row.getInt(2);
+            var projectId = row.getInt(3);
+            var languageId = row.getInt(4);
+            var after = row.getBoolean(8) ? null
+                    : new TranslationRow(assetId, projectId, languageId, row.getString(5), row.getLong(6), row.getInt(7));
+            return Map.entry(row.getInt(1), new CatalogDiff.CellChange(assetId, projectId, languageId, null, after));
+        }, change -> cellChanges.computeIfAbsent(change.getKey(), id -> new ArrayList<>()).add(change.getValue()));
+
+        var started = System.nanoTime();
+        var releases = DBUtils.query(RELEASES, row -> new Release(
+                row.getInt(1), row.getString(2), row.getLong(3), row.getLong(4), row.getInt(5), row.getInt(6)));
+        var replayed = new ArrayList<CatalogSnapshot>(releases.size());
+        var snapshot = empty(Catalog.snapshot());
+        for (var release : releases) {
+            var diff = new CatalogDiff(
+                    assetChanges.getOrDefault(release.releaseId(), List.of()),
+                    cellChanges.getOrDefault(release.releaseId(), List.of()));
+            snapshot = diff.applyTo(snapshot, release.catalogVersion());
+            replayed.add(snapshot);
+        }
+
+        var rebased = rebase(replayed, Catalog.snapshot());
+        for (int i = 0; i < releases.size(); i++) {
+            hold(new Held(releases.get(i), rebased.get(i)));
+        }
+        logger.info("Loaded {} releases in {} ms", ordered.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * The same releases rebuilt on {@code head}, newest first: only the newest one is compared with head in full,
+     * each older one is the newer one with their shared-structure diff undone.
+     */
+    private static List<CatalogSnapshot> rebase(List<CatalogSnapshot> replayed, CatalogSnapshot head) {
+        var rebased = new CatalogSnapshot[replayed.size()];
+        var base = head;
+        for (int i = replayed.size() - 1; i >= 0; i--) {
+            var release = replayed.get(i);
+            var from = i == replayed.size() - 1 ? head : replayed.get(i + 1);
+            base = CatalogDiff.between(from, release).applyTo(base, release.version());
+            rebased[i] = base;
+        }
+        return List.of(rebased);
+    }
+
+    /**
+     * Pins the current catalog under {@code name}.
+     *
+     * @return the new release, or null when {@code name} is already taken
+     * @throws IllegalArgumentException when {@code name} is not a valid release name
+     */
+    public synchronized Release create(String name) {
+        if (name == null || !NAME.matcher(name).matches() || name.equals(HEAD)) {
+            throw new IllegalArgumentException("Release names are 1 to 64 letters, digits, '.', '_' or '-' and not '" + HEAD + "'");
+        }
+        if (byName.containsKey(name)) {
+            return null;
+        }
+
+        var head = Catalog.snapshot();
+        var previous = ordered.isEmpty() ? empty(head) : ordered.getLast().snapshot;
+        var diff = CatalogDiff.between(previous, head);
+        var created = System.currentTimeMillis();
+
+        var releaseId = DBUtils.write(session -> {
+            var id = session.query(INSERT_RELEASE, row -> row.getInt(1), name, created, head.version()).getFirst();
+            if (!diff.assets().isEmpty()) {
+                var rows = new ArrayList<Object[]>(diff.assets().size());
+                for (var change : diff.assets()) {
+                    var after = change.after();
+                    rows.add(new Object[]{id, change.assetId(),
+                            after == null ? null : after.name(),
+                            after == null ? null : after.url(),
+                            after == null ? null : after.description(),
+                            after == null});
+                }
+                session.updateBatch(INSERT_RELEASE_ASSET, rows);
+            }
+            if (!diff.cells().isEmpty()) {
+                var rows = new ArrayList<Object[]>(diff.cells().size());
+                for (var change : diff.cells()) {
+                    var after = change.after();
+                    rows.add(new Object[]{id, change.assetId(), change.projectId(), change.languageId(),
+                            after == null ? null : after.translation(),
+                            after == null ? null : after.updated(),
+                            after == null ? null : after.whoUpdated(),
+                            after == null});
+                }
+                session.updateBatch(INSERT_RELEASE_TRANSLATION, rows);
+            }
+            return id;
+        }, null);
+        if (releaseId == null) {
+            throw new IllegalStateException("Could not store release " + name);
+        }
+
+        var release = new Release(releaseId, name, created, head.version(), diff.assets().size(), diff.cells().size());
+        hold(new Held(release, head));
+        logger.info("Created release {} at catalog version {} with {} changed assets and {} changed cells",
+                name, head.version(), release.changedAssets(), release.changedCells());
+        return release;
+    }
+
+    public synchronized List<Release> list() {
+        var releases = new ArrayList<Release>(ordered.size());
+        for (var held : ordered) {
+            releases.add(held.release);
+        }
+        return releases;
+    }
+
+    /**
+     * The catalog as of release {@code name}, head for {@value #HEAD}, or null for an unknown release.
+     */
+    public CatalogSnapshot snapshot(String name) {
+        if (HEAD.equals(name)) {
+            return Catalog.snapshot();
+        }
+        var held = byName.get(name);
+        return held == null ? null : held.snapshot;
+    }
+
+    /**
+     * Full-text index over release {@code name}, built on its first search; {@code head} for {@value #HEAD}.
+     */
+    public SearchIndex searchIndex(String name, SearchIndex head) {
+        if (HEAD.equals(name)) {
+            return head;
+        }
+        var held = Objects.requireNonNull(byName.get(name), name);
+        var index = held.searchIndex;
+        if (index == null) {
+            synchronized (held) {
+                index = held.searchIndex;
+                if (index == null) {
+                    index = new SearchIndex();
+                    index.onLoad(held.snapshot);
+                    held.searchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Asset-key index over release {@code name}, built on its first runtime lookup; {@code head} for {@value #HEAD}.
+     */
+    public KeyIndex keyIndex(String name, KeyIndex head) {
+        if (HEAD.equals(name)) {
+            return head;
+        }
+        var held = Objects.requireNonNull(byName.get(name), name);
+        var index = held.keyIndex;
+        if (index == null) {
+            synchronized (held) {
+                index = held.keyIndex;
+                if (index == null) {
+                    index = new KeyIndex();
+                    index.onLoad(held.snapshot);
+                    held.keyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * What changed from {@code from} to {@code to}, or null when either is unknown.
+     */
+    public ReleaseDiff diff(String from, String to) {
+        var before = snapshot(from);
+        var after = snapshot(to);
+        if (before == null || after == null) {
+            return null;
+        }
+
+        var diff = CatalogDiff.between(before, after);
+        var assets = new ArrayList<ReleaseDiff.AssetChange>(diff.assets().size());
+        for (var change : diff.assets()) {
+            var was = change.before();
+            var is = change.after();
+            assets.add(new ReleaseDiff.AssetChange(change.assetId(),
+                    was == null ? null : was.name(), is == null ? null : is.name(),
+                    was == null ? null : was.url(), is == null ? null : is.url(),
+                    was == null ? null : was.description(), is == null ? null : is.description()));
+        }
+        var cells = new ArrayList<ReleaseDiff.CellChange>(diff.cells().size());
+        for (var change : diff.cells()) {
+            var entry = after.asset(change.assetId()) != null ? after.asset(change.assetId()) : before.asset(change.assetId());
+            cells.add(new ReleaseDiff.CellChange(change.assetId(), entry == null ? null : entry.asset().name(),
+                    change.projectId(), change.languageId(),
+                    change.before() == null ? null : change.before().translation(),
+                    change.after() == null ? null : change.after().translation()));
+        }
+        return new ReleaseDiff(from, to, assets, cells);
+    }
+
+    private void hold(Held held) {
+        byName.put(held.release.name(), held);
+        ordered.add(held);
+    }
+
+    private static CatalogSnapshot empty(CatalogSnapshot head) {
+        return new CatalogSnapshot(0, CowArray.empty(), head.languages(), head.projects(), head.users());
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.runtime;
+
+import org.example.catalog.CatalogListener;
+import org.example.catalog.CatalogSnapshot;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asset name to asset id, so a runtime lookup costs one hash probe per key instead of a scan of the catalog. Two
+ * assets with the same name resolve to the lower id, as in a bundle. The index can run ahead of a snapshot a reader
+ * holds, so callers check the name on the entry they get.
+ */
+public class KeyIndex implements CatalogListener {
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String loadId = "";
+
+    @Override
+    public synchronized void onLoad(CatalogSnapshot snapshot) {
+        ids.clear();
+        snapshot.assets().forEach((assetId, entry) -> {
+            ids.putIfAbsent(entry.asset().name(), assetId);
+            return true;
+        });
+        // catalog versions restart with every load, this keeps validators built on them apart
+        loadId = Long.toHexString(System.currentTimeMillis());
+    }
+
+    @Override
+    public synchronized void onChange(CatalogSnapshot before, CatalogSnapshot after, int[] changedAssetIds) {
+        for (var assetId : changedAssetIds) {
+            var was = before.asset(assetId);
+            var is = after.asset(assetId);
+            var oldName = was == null ? null : was.asset().name();
+            var newName = is == null ? null : is.asset().name();
+            if (oldName != null && oldName.equals(newName)) {
+                continue;
+            }
+            if (oldName != null && ids.remove(oldName, assetId)) {
+                // rare: another asset may carry the same name and now takes over
+                after.assets().forEach((otherId, entry) -> {
+                    if (entry.asset().name().equals(oldName)) {
+                        ids.put(oldName, otherId);
+                        return false;
+                    }
+                    return true;
+                });
+            }
+            if (newName != null) {
+                ids.merge(newName, assetId, Math::min);
+            }
+        }
+    }
+
+    /**
+     * The asset named {@code key}, or -1 when there is none.
+     */
+    public int assetId(String key) {
+        var id = ids.get(key);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Changes with every catalog load.
+     */
+    public String loadId() {
+        return loadId;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.runtime;
+
+import java.util.List;
+
+/**
+ * Strings to resolve for one language. {@code fallback} languages are tried in order when {@code language} has no
+ * text for a key; without a {@code project} the lowest project id that has text wins. With {@code pseudo} every
+ * resolved text comes back pseudo-localized, for layout testing.
+ */
+public record LookupRequest(
+        String language,
+        List<String> fallback,
+        Integer project,
+        List<String> keys,
+        Boolean pseudo
+) {
+}
@@ -0,0 +1,18 @@
+package org.example.runtime;
+
+import java.util.List;
+
+/**
+ * One entry per requested key, in request order. {@code language} indexes {@code languages}, the requested
+ * language first and then its fallbacks; {@link #MISSING} means no language in the chain had text.
+ */
+public record LookupResult(
+        long version,
+        List<String> languages,
+        List<Entry> entries
+) {
+    public static final int MISSING = -1;
+
+    public record Entry(String key, String value, int language) {
+    }
+}
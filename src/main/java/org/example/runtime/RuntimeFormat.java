@@ -0,0 +1,57 @@
+package org.example.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary answer to a runtime lookup, all integers little endian like a {@code BundleFormat} file:
+ * <pre>
+ * header    magic "AMLR", u16 format, u16 language count, u64 catalog version, u32 entry count     (20 bytes)
+ * languages language count x { u16 length, UTF-8 code }
+ * entries   entry count x { u8 language index (0xff when missing), u32 key length, UTF-8 key,
+ *                           u32 value length, UTF-8 value }
+ * </pre>
+ * Entries come in request order, so a client that remembers its keys can skip over them.
+ */
+public final class RuntimeFormat {
+    public static final int MAGIC = 0x524C4D41; // "AMLR" read little endian
+    public static final short FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 20;
+    public static final int MISSING = 0xff;
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    public static final String CONTENT_TYPE = "application/vnd.amorphous.strings";
+
+    private RuntimeFormat() {
+    }
+
+    public static byte[] encode(LookupResult result) {
+        var out = new ByteArrayOutputStream(HEADER_SIZE + result.entries().size() * 48);
+        var scratch = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+        scratch.putInt(MAGIC)
+                .putShort(FORMAT_VERSION)
+                .putShort((short) result.languages().size())
+                .putLong(result.version())
+                .putInt(result.entries().size());
+        out.write(scratch.array(), 0, HEADER_SIZE);
+
+        for (var code : result.languages()) {
+            var bytes = code.getBytes(StandardCharsets.UTF_8);
+            out.write(scratch.clear().putShort((short) bytes.length).array(), 0, 2);
+            out.write(bytes, 0, bytes.length);
+        }
+        for (var entry : result.entries()) {
+            out.write(entry.language() == LookupResult.MISSING ? MISSING : entry.language());
+            writeString(out, scratch, entry.key());
+            writeString(out, scratch, entry.value());
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeString(ByteArrayOutputStream out, ByteBuffer scratch, String text) {
+        var bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        out.write(scratch.clear().putInt(bytes.length).array(), 0, 4);
+        out.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.runtime;
+
+import org.example.bundle.BundleFormat;
+import org.example.catalog.CatalogSnapshot;
+import org.example.catalog.TranslationRow;
+import org.example.validation.PseudoLocalizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Resolves a batch of asset keys against a catalog snapshot, the machine-facing counterpart of the editor views.
+ * Everything is read from memory, so a game asking for the few hundred strings of a scene costs one round trip and
+ * no database work.
+ */
+public class StringLookup {
+    public static final int MAX_KEYS = Integer.getInteger("amorphous.runtime.maxKeys", 1000);
+    public static final int MAX_LANGUAGES = 8;
+
+    /**
+     * @throws IllegalArgumentException for an unknown language, no keys or more than {@link #MAX_KEYS} of them
+     */
+    public static LookupResult resolve(CatalogSnapshot snapshot, KeyIndex index, LookupRequest request) {
+        var keys = keys(request);
+        var codes = chain(request);
+        var languageIds = new int[codes.size()];
+        for (int i = 0; i < languageIds.length; i++) {
+            languageIds[i] = snapshot.languageId(codes.get(i));
+            if (languageIds[i] < 0) {
+                throw new IllegalArgumentException("Unknown language " + codes.get(i));
+            }
+        }
+        var project = request.project();
+        var pseudo = Boolean.TRUE.equals(request.pseudo());
+
+        var entries = new ArrayList<LookupResult.Entry>(keys.size());
+        for (var key : keys) {
+            var assetId = index.assetId(key);
+            var entry = assetId < 0 ? null : snapshot.asset(assetId);
+            String value = null;
+            var language = LookupResult.MISSING;
+            // the index may already know about a rename the snapshot has not seen
+            if (entry != null && entry.asset().name().equals(key)) {
+                for (int i = 0; i < languageIds.length && value == null; i++) {
+                    value = text(entry.translations(), languageIds[i], project);
+                    language = value == null ? LookupResult.MISSING : i;
+                }
+            }
+            entries.add(new LookupResult.Entry(key, pseudo ? PseudoLocalizer.localize(value) : value, language));
+        }
+        return new LookupResult(snapshot.version(), codes, entries);
+    }
+
+    /**
+     * Strong validator for the answer to {@code request}: it only changes when the catalog moves (or reloads), and
+     * differs per request and {@code format}.
+     */
+    public static String etag(KeyIndex index, CatalogSnapshot snapshot, LookupRequest request, String format) {
+        var canonical = new StringBuilder(format).append('\n')
+                .append(request.project()).append('\n')
+                .append(Boolean.TRUE.equals(request.pseudo())).append('\n')
+                .append(String.join(",", chain(request))).append('\n');
+        for (var key : keys(request)) {
+            canonical.append(key).append('\n');
+        }
+        return "\"" + index.loadId() + "-" + snapshot.version() + "-" + Long.toHexString(BundleFormat.hash(canonical.toString())) + "\"";
+    }
+
+    private static List<String> keys(LookupRequest request) {
+        var keys = request.keys();
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("keys is required");
+        }
+        if (keys.size() > MAX_KEYS) {
+            throw new IllegalArgumentException("At most " + MAX_KEYS + " keys per request, got " + keys.size());
+        }
+        for (var key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("keys must not contain null");
+            }
+        }
+        return keys;
+    }
+
+    private static List<String> chain(LookupRequest request) {
+        if (request.language() == null || request.language().isBlank()) {
+            throw new IllegalArgumentException("language is required");
+        }
+        var codes = new ArrayList<String>();
+        codes.add(request.language());
+        for (var code : Objects.requireNonNullElse(request.fallback(), List.<String>of())) {
+            if (code != null && !code.isBlank() && !codes.contains(code)) {
+                codes.add(code);
+            }
+        }
+        if (codes.size() > MAX_LANGUAGES) {
+            throw new IllegalArgumentException("At most " + (MAX_LANGUAGES - 1) + " fallback languages");
+        }
+        return codes;
+    }
+
+    // rows are sorted by language then project, so the first hit is the lowest project id; empty text falls through
+    private static String text(TranslationRow[] rows, int languageId, Integer project) {
+        for (var row : rows) {
+            if (row.languageId() == languageId && (project == null || row.projectId() == project)
+                    && row.translation() != null && !row.translation().isEmpty()) {
+                return row.translation();
+            }
+        }
+        return null;
+    }
+}
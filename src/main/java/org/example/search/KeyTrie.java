@@ -0,0 +1,354 @@
+package org.example.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Compressed (radix) trie from normalized keys to asset ids. Every node whose subtree holds more than
+ * {@link #SCAN_BELOW} entries caches its best {@link #TOP_K} distinct ids by recency, so a prefix lookup costs one
+ * walk down the query plus a copy of that list; smaller subtrees are simply scanned.
+ * <p>
+ * Cached lists are sorted by the {@code recency} function at the time they were built. Whoever changes an id's
+ * recency must {@link #refresh(String)} every key of that id, since only the nodes on those paths hold it.
+ * Not thread-safe.
+ */
+final class KeyTrie {
+    static final int TOP_K = 20;
+    private static final int SCAN_BELOW = 32;
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final int[] NO_IDS = new int[0];
+
+    private final IntToLongFunction recency;
+    private Node root = new Node("");
+
+    KeyTrie(IntToLongFunction recency) {
+        this.recency = recency;
+    }
+
+    private static final class Node {
+        private String label;
+        private char[] firsts = NO_CHARS;
+        private Node[] children = NO_NODES;
+        // ids whose key ends exactly here
+        private int[] ids = NO_IDS;
+        // entries in the whole subtree, duplicates included
+        private int count;
+        private int[] top;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Adds without touching any cached list; call {@link #rebuild()} once the bulk load is done.
+     */
+    void insertUnranked(String key, int id) {
+        insert(key, id, new ArrayList<>());
+    }
+
+    void insert(String key, int id) {
+        var path = new ArrayList<Node>();
+        insert(key, id, path);
+        refresh(path);
+    }
+
+    void remove(String key, int id) {
+        var path = new ArrayList<Node>();
+        var node = root;
+        path.add(node);
+        var i = 0;
+        while (i < key.length()) {
+            var slot = Arrays.binarySearch(node.firsts, key.charAt(i));
+            if (slot < 0) {
+                return;
+            }
+            var child = node.children[slot];
+            if (!key.startsWith(child.label, i)) {
+                return;
+            }
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        var at = indexOf(node.ids, id);
+        if (at < 0) {
+            return;
+        }
+        node.ids = removeAt(node.ids, at);
+        for (var onPath : path) {
+            onPath.count--;
+        }
+
+        // prune the emptied leaf and fold single-child nodes back into their parent edge
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            var current = path.get(depth);
+            var parent = path.get(depth - 1);
+            if (current.ids.length == 0 && current.children.length == 0) {
+                removeChild(parent, current);
+            } else if (current.ids.length == 0 && current.children.length == 1) {
+                var only = current.children[0];
+                only.label = current.label + only.label;
+                replaceChild(parent, current, only);
+            }
+        }
+        refresh(key);
+    }
+
+    /**
+     * Rebuilds the cached lists along {@code key}'s path, after the recency of one of its ids changed.
+     */
+    void refresh(String key) {
+        var path = new ArrayList<Node>();
+        var node = root;
+        path.add(node);
+        var i = 0;
+        while (i < key.length()) {
+            var slot = Arrays.binarySearch(node.firsts, key.charAt(i));
+            if (slot < 0) {
+                break;
+            }
+            var child = node.children[slot];
+            if (!key.startsWith(child.label, i)) {
+                break;
+            }
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        refresh(path);
+    }
+
+    /**
+     * Recomputes every cached list bottom-up.
+     */
+    void rebuild() {
+        rebuild(root);
+    }
+
+    void clear() {
+        root = new Node("");
+    }
+
+    /**
+     * The best {@code limit} (at most {@link #TOP_K}) distinct ids under keys starting with {@code prefix}, most
+     * recent first.
+     */
+    int[] top(String prefix, int limit) {
+        var node = root;
+        var i = 0;
+        while (i < prefix.length()) {
+            var slot = Arrays.binarySearch(node.firsts, prefix.charAt(i));
+            if (slot < 0) {
+                return NO_IDS;
+            }
+            var child = node.children[slot];
+            var common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return NO_IDS;
+            }
+            i += common;
+            node = child;
+        }
+        var best = best(node);
+        return best.length <= limit ? best : Arrays.copyOf(best, limit);
+    }
+
+    private void insert(String key, int id, ArrayList<Node> path) {
+        var node = root;
+        path.add(node);
+        var i = 0;
+        while (i < key.length()) {
+            var c = key.charAt(i);
+            var slot = Arrays.binarySearch(node.firsts, c);
+            if (slot < 0) {
+                var leaf = new Node(key.substring(i));
+                addChild(node, leaf, -slot - 1);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+
+            var child = node.children[slot];
+            var common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // the key leaves this edge half way: split it
+                var split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.firsts = new char[]{child.label.charAt(0)};
+                split.children = new Node[]{child};
+                split.count = child.count;
+                split.top = child.top;
+                node.children[slot] = split;
+                child = split;
+            }
+            i += common;
+            node = child;
+            path.add(node);
+        }
+        node.ids = Arrays.copyOf(node.ids, node.ids.length + 1);
+        node.ids[node.ids.length - 1] = id;
+        for (var onPath : path) {
+            onPath.count++;
+        }
+    }
+
+    private void refresh(ArrayList<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            rank(path.get(i));
+        }
+    }
+
+    private void rebuild(Node node) {
+        for (var child : node.children) {
+            rebuild(child);
+        }
+        rank(node);
+    }
+
+    private void rank(Node node) {
+        node.top = node.count <= SCAN_BELOW ? null : merge(node);
+    }
+
+    private int[] best(Node node) {
+        if (node.top != null) {
+            return node.top;
+        }
+        var ids = new int[node.count];
+        var size = collect(node, ids, 0);
+        return distinctByRecency(ids, size);
+    }
+
+    private static int collect(Node node, int[] into, int size) {
+        System.arraycopy(node.ids, 0, into, size, node.ids.length);
+        size += node.ids.length;
+        for (var child : node.children) {
+            size = collect(child, into, size);
+        }
+        return size;
+    }
+
+    /**
+     * Merges the node's own ids with each child's sorted best list, stopping at {@link #TOP_K} distinct ids. Every
+     * id of the subtree's true top list is within the top list of the child it came from, so nothing is lost.
+     */
+    private int[] merge(Node node) {
+        var lists = new int[node.children.length + 1][];
+        lists[0] = distinctByRecency(node.ids.clone(), node.ids.length);
+        for (int i = 0; i < node.children.length; i++) {
+            lists[i + 1] = best(node.children[i]);
+        }
+
+        var heads = new int[lists.length];
+        var merged = new int[TOP_K];
+        var size = 0;
+        while (size < TOP_K) {
+            var pick = -1;
+            for (int l = 0; l < lists.length; l++) {
+                if (heads[l] < lists[l].length
+                        && (pick < 0 || ranksBefore(lists[l][heads[l]], lists[pick][heads[pick]]))) {
+                    pick = l;
+                }
+            }
+            if (pick < 0) {
+                break;
+            }
+            var id = lists[pick][heads[pick]++];
+            if (indexOf(merged, size, id) < 0) {
+                merged[size++] = id;
+            }
+        }
+        return size == TOP_K ? merged : Arrays.copyOf(merged, size);
+    }
+
+    // small inputs only: insertion sort, dropping repeats of the same id
+    private int[] distinctByRecency(int[] ids, int size) {
+        for (int i = 1; i < size; i++) {
+            var id = ids[i];
+            var j = i - 1;
+            while (j >= 0 && ranksBefore(id, ids[j])) {
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            ids[j + 1] = id;
+        }
+        var distinct = 0;
+        for (int i = 0; i < size && distinct < TOP_K; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+
+    private boolean ranksBefore(int a, int b) {
+        var recencyA = recency.applyAsLong(a);
+        var recencyB = recency.applyAsLong(b);
+        return recencyA > recencyB || (recencyA == recencyB && a < b);
+    }
+
+    private static void addChild(Node parent, Node child, int at) {
+        var firsts = new char[parent.firsts.length + 1];
+        var children = new Node[parent.children.length + 1];
+        System.arraycopy(parent.firsts, 0, firsts, 0, at);
+        System.arraycopy(parent.children, 0, children, 0, at);
+        firsts[at] = child.label.charAt(0);
+        children[at] = child;
+        System.arraycopy(parent.firsts, at, firsts, at + 1, parent.firsts.length - at);
+        System.arraycopy(parent.children, at, children, at + 1, parent.children.length - at);
+        parent.firsts = firsts;
+        parent.children = children;
+    }
+
+    private static void removeChild(Node parent, Node child) {
+        var at = Arrays.binarySearch(parent.firsts, child.label.charAt(0));
+        var firsts = new char[parent.firsts.length - 1];
+        var children = new Node[parent.children.length - 1];
+        System.arraycopy(parent.firsts, 0, firsts, 0, at);
+        System.arraycopy(parent.children, 0, children, 0, at);
+        System.arraycopy(parent.firsts, at + 1, firsts, at, firsts.length - at);
+        System.arraycopy(parent.children, at + 1, children, at, children.length - at);
+        parent.firsts = firsts;
+        parent.children = children;
+    }
+
+    // the replacement starts with the same character, so the slot stays put
+    private static void replaceChild(Node parent, Node child, Node replacement) {
+        parent.children[Arrays.binarySearch(parent.firsts, child.label.charAt(0))] = replacement;
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        var max = Math.min(label.length(), key.length() - from);
+        var i = 0;
+        while (i < max && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOf(int[] values, int id) {
+        return indexOf(values, values.length, id);
+    }
+
+    private static int indexOf(int[] values, int length, int id) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] removeAt(int[] values, int at) {
+        var removed = new int[values.length - 1];
+        System.arraycopy(values, 0, removed, 0, at);
+        System.arraycopy(values, at + 1, removed, at, removed.length - at);
+        return removed;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.search;
+
+import java.util.Arrays;
+
+/**
+ * Posting list of one term: document ids in ascending order with the field-weighted term frequency of each.
+ */
+final class Postings {
+    private int[] docs = new int[4];
+    private float[] weights = new float[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int doc(int i) {
+        return docs[i];
+    }
+
+    float weight(int i) {
+        return weights[i];
+    }
+
+    void put(int doc, float weight) {
+        var at = Arrays.binarySearch(docs, 0, size, doc);
+        if (at >= 0) {
+            weights[at] = weight;
+            return;
+        }
+        at = -at - 1;
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        System.arraycopy(docs, at, docs, at + 1, size - at);
+        System.arraycopy(weights, at, weights, at + 1, size - at);
+        docs[at] = doc;
+        weights[at] = weight;
+        size++;
+    }
+
+    void remove(int doc) {
+        var at = Arrays.binarySearch(docs, 0, size, doc);
+        if (at < 0) {
+            return;
+        }
+        System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+        System.arraycopy(weights, at + 1, weights, at, size - at - 1);
+        size--;
+    }
+}
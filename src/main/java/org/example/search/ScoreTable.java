@@ -0,0 +1,83 @@
+package org.example.search;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from document id to score, so scoring a query never boxes an int or a double.
+ */
+final class ScoreTable {
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private double[] values;
+    private int size;
+
+    ScoreTable(int expected) {
+        var capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new double[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int key) {
+        return keys[slot(key)] == key;
+    }
+
+    double get(int key) {
+        var slot = slot(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    void max(int key, double value) {
+        var slot = slot(key);
+        if (keys[slot] == key) {
+            values[slot] = Math.max(values[slot], value);
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    void forEach(Entry visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Entry {
+        void accept(int key, double value);
+    }
+
+    private int slot(int key) {
+        var mask = keys.length - 1;
+        var slot = (key * 0x9E3779B9) >>> 1 & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new double[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                max(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
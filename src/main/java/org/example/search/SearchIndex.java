@@ -0,0 +1,219 @@
+package org.example.search;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.CatalogListener;
+import org.example.catalog.CatalogSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over asset names, descriptions and the translation text of every language. Every query
+ * term is matched as a prefix, all terms must match, and hits are ranked with BM25 over field-weighted term
+ * frequencies. The index follows the {@link org.example.catalog.Catalog} so it is updated per changed asset rather
+ * than rebuilt.
+ */
+public class SearchIndex implements CatalogListener {
+    static final float NAME_WEIGHT = 3f;
+    static final float DESCRIPTION_WEIGHT = 1.5f;
+    static final float TRANSLATION_WEIGHT = 1f;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_PENALTY = 0.8;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private String[][] docTerms = new String[0][];
+    private float[] docLengths = new float[0];
+    private int docCount;
+    private double totalLength;
+
+    public record SearchHit(int assetId, double score) {
+    }
+
+    /**
+     * {@code hits} holds the best {@code limit} documents in rank order, {@code assetIds} every matching document in
+     * ascending id order.
+     */
+    public record SearchResults(int total, List<SearchHit> hits, int[] assetIds, List<String> terms) {
+    }
+
+    @Override
+    public void onLoad(CatalogSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docTerms = new String[snapshot.assets().capacity()][];
+            docLengths = new float[snapshot.assets().capacity()];
+            docCount = 0;
+            totalLength = 0;
+            snapshot.assets().forEach((assetId, entry) -> {
+                indexLocked(entry);
+                return true;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onChange(CatalogSnapshot before, CatalogSnapshot after, int[] changedAssetIds) {
+        lock.writeLock().lock();
+        try {
+            for (var assetId : changedAssetIds) {
+                removeLocked(assetId);
+                var entry = after.asset(assetId);
+                if (entry != null) {
+                    indexLocked(entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchResults search(String query, int limit) {
+        var terms = Tokenizer.terms(query).stream().distinct().sorted(Comparator.comparingInt(String::length).reversed()).toList();
+        if (terms.isEmpty()) {
+            return new SearchResults(0, List.of(), new int[0], terms);
+        }
+
+        lock.readLock().lock();
+        try {
+            ScoreTable scores = null;
+            for (var term : terms) {
+                var termScores = scoreTerm(term, scores);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.size() == 0) {
+                    break;
+                }
+            }
+            return new SearchResults(scores.size(), topHits(scores, limit), matchedIds(scores), terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every document containing {@code term} or a term starting with it, keeping the best expansion per
+     * document. Every expansion is visited, however many there are, since skipping one would drop the documents
+     * only it matches. When {@code candidates} is set only those documents are scored.
+     */
+    private ScoreTable scoreTerm(String term, ScoreTable candidates) {
+        var averageLength = totalLength / Math.max(1, docCount);
+        var termScores = new ScoreTable(candidates == null ? 64 : candidates.size());
+
+        for (var expansion : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            var list = expansion.getValue();
+            var documentFrequency = list.size();
+            var idf = Math.log(1 + (docCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            var boost = expansion.getKey().length() == term.length() ? 1.0 : PREFIX_PENALTY;
+
+            for (int i = 0; i < list.size(); i++) {
+                var doc = list.doc(i);
+                if (candidates != null && !candidates.contains(doc)) {
+                    continue;
+                }
+                var tf = list.weight(i);
+                var norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                termScores.max(doc, boost * idf * tf * (K1 + 1) / (tf + norm));
+            }
+        }
+        return termScores;
+    }
+
+    private static ScoreTable intersect(ScoreTable scores, ScoreTable termScores) {
+        var merged = new ScoreTable(termScores.size());
+        termScores.forEach((doc, score) -> {
+            if (scores.contains(doc)) {
+                merged.max(doc, scores.get(doc) + score);
+            }
+        });
+        return merged;
+    }
+
+    private static List<SearchHit> topHits(ScoreTable scores, int limit) {
+        Comparator<SearchHit> ranking = Comparator.comparingDouble(SearchHit::score)
+                .thenComparing(Comparator.comparingInt(SearchHit::assetId).reversed());
+        var heap = new PriorityQueue<SearchHit>(Math.max(1, Math.min(limit, scores.size())), ranking);
+        scores.forEach((doc, score) -> {
+            if (heap.size() < limit) {
+                heap.add(new SearchHit(doc, score));
+            } else if (!heap.isEmpty() && score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new SearchHit(doc, score));
+            }
+        });
+
+        var hits = new ArrayList<>(heap);
+        hits.sort(ranking.reversed());
+        return hits;
+    }
+
+    private static int[] matchedIds(ScoreTable scores) {
+        var ids = new int[scores.size()];
+        var count = new int[1];
+        scores.forEach((doc, score) -> ids[count[0]++] = doc);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private void indexLocked(AssetEntry entry) {
+        var weights = new HashMap<String, Float>();
+        var length = addField(weights, entry.asset().name(), NAME_WEIGHT)
+                + addField(weights, entry.asset().description(), DESCRIPTION_WEIGHT);
+        for (var row : entry.translations()) {
+            length += addField(weights, row.translation(), TRANSLATION_WEIGHT);
+        }
+
+        var assetId = entry.assetId();
+        ensureCapacity(assetId);
+        for (var weight : weights.entrySet()) {
+            postings.computeIfAbsent(weight.getKey(), k -> new Postings()).put(assetId, weight.getValue());
+        }
+        docTerms[assetId] = weights.keySet().toArray(new String[0]);
+        docLengths[assetId] = length;
+        docCount++;
+        totalLength += length;
+    }
+
+    private void removeLocked(int assetId) {
+        if (assetId >= docTerms.length || docTerms[assetId] == null) {
+            return;
+        }
+        for (var term : docTerms[assetId]) {
+            var list = postings.get(term);
+            list.remove(assetId);
+            if (list.size() == 0) {
+                postings.remove(term);
+            }
+        }
+        docTerms[assetId] = null;
+        docCount--;
+        totalLength -= docLengths[assetId];
+        docLengths[assetId] = 0;
+    }
+
+    private static float addField(HashMap<String, Float> weights, String text, float fieldWeight) {
+        var terms = Tokenizer.terms(text);
+        for (var term : terms) {
+            weights.merge(term, fieldWeight, Float::sum);
+        }
+        return terms.size() * fieldWeight;
+    }
+
+    private void ensureCapacity(int assetId) {
+        if (assetId >= docTerms.length) {
+            var capacity = Math.max(assetId + 1, docTerms.length * 2);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+        }
+    }
+}
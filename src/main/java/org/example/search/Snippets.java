@@ -0,0 +1,99 @@
+package org.example.search;
+
+import org.example.catalog.AssetEntry;
+
+import java.util.List;
+
+/**
+ * Builds short, HTML-escaped excerpts with the matched terms wrapped in {@code <mark>}.
+ */
+public class Snippets {
+    private static final int CONTEXT_BEFORE = 30;
+    private static final int MAX_LENGTH = 120;
+
+    /**
+     * Excerpt from the description, or else the first translation, that contains a query term. Null when only the
+     * asset name matched, since the name is already shown as the title.
+     */
+    public static String forAsset(AssetEntry entry, List<String> terms) {
+        var snippet = highlight(entry.asset().description(), terms);
+        if (snippet != null) {
+            return snippet;
+        }
+        for (var row : entry.translations()) {
+            snippet = highlight(row.translation(), terms);
+            if (snippet != null) {
+                return snippet;
+            }
+        }
+        return null;
+    }
+
+    public static String highlight(String text, List<String> terms) {
+        if (text == null || terms.isEmpty()) {
+            return null;
+        }
+
+        var tokens = Tokenizer.tokens(text);
+        var first = -1;
+        for (int i = 0; i < tokens.size() && first < 0; i++) {
+            if (matches(tokens.get(i).term(), terms)) {
+                first = i;
+            }
+        }
+        if (first < 0) {
+            return null;
+        }
+
+        var from = Math.max(0, tokens.get(first).start() - CONTEXT_BEFORE);
+        while (from > 0 && !Character.isWhitespace(text.charAt(from - 1))) {
+            from--;
+        }
+        var to = Math.min(text.length(), from + MAX_LENGTH);
+
+        var html = new StringBuilder(to - from + 32);
+        if (from > 0) {
+            html.append("&hellip;");
+        }
+        var cursor = from;
+        for (int i = first; i < tokens.size() && tokens.get(i).end() <= to; i++) {
+            var token = tokens.get(i);
+            if (!matches(token.term(), terms)) {
+                continue;
+            }
+            escape(text, cursor, token.start(), html);
+            html.append("<mark>");
+            escape(text, token.start(), token.end(), html);
+            html.append("</mark>");
+            cursor = token.end();
+        }
+        escape(text, cursor, to, html);
+        if (to < text.length()) {
+            html.append("&hellip;");
+        }
+        return html.toString();
+    }
+
+    private static boolean matches(String token, List<String> terms) {
+        for (var term : terms) {
+            if (token.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder html) {
+        for (int i = from; i < to; i++) {
+            var c = text.charAt(i);
+            switch (c) {
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+    }
+}
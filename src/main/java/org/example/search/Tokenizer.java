@@ -0,0 +1,75 @@
+package org.example.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-case, accent-folded terms. Anything that is not a letter or digit separates terms, so an
+ * asset key like {@code GAME_MAIN_MENU} indexes as {@code game}, {@code main} and {@code menu}.
+ */
+public class Tokenizer {
+
+    public record Token(String term, int start, int end) {
+    }
+
+    public static List<String> terms(String text) {
+        var terms = new ArrayList<String>();
+        for (var token : tokens(text)) {
+            terms.add(token.term());
+        }
+        return terms;
+    }
+
+    /**
+     * Tokens with their character offsets in {@code text}, for highlighting.
+     */
+    public static List<Token> tokens(String text) {
+        var tokens = new ArrayList<Token>();
+        if (text == null) {
+            return tokens;
+        }
+
+        var length = text.length();
+        var i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.codePointAt(i))) {
+                i += Character.charCount(text.codePointAt(i));
+            }
+            var start = i;
+            while (i < length && Character.isLetterOrDigit(text.codePointAt(i))) {
+                i += Character.charCount(text.codePointAt(i));
+            }
+            if (i > start) {
+                tokens.add(new Token(normalize(text.substring(start, i)), start, i));
+            }
+        }
+        return tokens;
+    }
+
+    static String normalize(String term) {
+        var lower = term.toLowerCase(Locale.ROOT);
+        if (isAscii(lower)) {
+            return lower;
+        }
+        var decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        var folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            var c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0x7f) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.search;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.CatalogListener;
+import org.example.catalog.CatalogSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Asset-key autocomplete. Keys are normalized to lower case with every run of separators (and each camelCase hump)
+ * turned into one {@code _}, and indexed once per segment, so {@code MAIN_MENU}, {@code main menu} and
+ * {@code mainMenu} all find {@code GAME_MAIN_MENU}. Suggestions are the most recently modified assets first.
+ */
+public class Typeahead implements CatalogListener {
+    public static final int MAX_LIMIT = KeyTrie.TOP_K;
+    // long keys add a trie entry per segment; past this many the tail segments are not worth the memory
+    private static final int MAX_SEGMENTS = 8;
+
+    public record Suggestion(int assetId, String key, long modified) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] recency = new long[0];
+    private String[] names = new String[0];
+    private final KeyTrie trie = new KeyTrie(assetId -> recency[assetId]);
+
+    @Override
+    public void onLoad(CatalogSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            recency = new long[snapshot.assets().capacity()];
+            names = new String[snapshot.assets().capacity()];
+            snapshot.assets().forEach((assetId, entry) -> {
+                recency[assetId] = entry.modified();
+                names[assetId] = entry.asset().name();
+                for (var key : keys(entry.asset().name())) {
+                    trie.insertUnranked(key, assetId);
+                }
+                return true;
+            });
+            trie.rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onChange(CatalogSnapshot before, CatalogSnapshot after, int[] changedAssetIds) {
+        lock.writeLock().lock();
+        try {
+            for (var assetId : changedAssetIds) {
+                update(assetId, after.asset(assetId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String query, int limit) {
+        var prefix = normalize(query, false);
+        lock.readLock().lock();
+        try {
+            var ids = trie.top(prefix, Math.max(0, Math.min(limit, MAX_LIMIT)));
+            var suggestions = new ArrayList<Suggestion>(ids.length);
+            for (var assetId : ids) {
+                suggestions.add(new Suggestion(assetId, names[assetId], recency[assetId]));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(int assetId, AssetEntry entry) {
+        ensureCapacity(assetId);
+        var oldName = names[assetId];
+        var newName = entry == null ? null : entry.asset().name();
+        recency[assetId] = entry == null ? 0 : entry.modified();
+
+        if (oldName != null && oldName.equals(newName)) {
+            // same keys, only the ranking moved
+            for (var key : keys(oldName)) {
+                trie.refresh(key);
+            }
+            return;
+        }
+        if (oldName != null) {
+            for (var key : keys(oldName)) {
+                trie.remove(key, assetId);
+            }
+        }
+        names[assetId] = newName;
+        if (newName != null) {
+            for (var key : keys(newName)) {
+                trie.insert(key, assetId);
+            }
+        }
+    }
+
+    private void ensureCapacity(int assetId) {
+        if (assetId >= recency.length) {
+            var capacity = Math.max(assetId + 1, recency.length * 2);
+            recency = Arrays.copyOf(recency, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+    }
+
+    /**
+     * The normalized key and every suffix of it that starts a segment.
+     */
+    static List<String> keys(String name) {
+        var normalized = normalize(name, true);
+        var keys = new LinkedHashSet<String>();
+        if (!normalized.isEmpty()) {
+            keys.add(normalized);
+        }
+        for (int i = 0; i < normalized.length() && keys.size() < MAX_SEGMENTS; i++) {
+            if (normalized.charAt(i) == '_' && i + 1 < normalized.length()) {
+                keys.add(normalized.substring(i + 1));
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * A trailing separator is kept for queries, so typing {@code GAME_} already narrows to keys with more segments.
+     */
+    static String normalize(String text, boolean trimTrailing) {
+        if (text == null) {
+            return "";
+        }
+        var out = new StringBuilder(text.length() + 4);
+        var previous = 0;
+        for (int i = 0; i < text.length(); ) {
+            var c = text.codePointAt(i);
+            i += Character.charCount(c);
+            if (Character.isLetterOrDigit(c)) {
+                if (Character.isUpperCase(c) && Character.isLowerCase(previous)) {
+                    out.append('_');
+                }
+                out.append(new String(Character.toChars(c)).toLowerCase(Locale.ROOT));
+            } else if (!out.isEmpty() && out.charAt(out.length() - 1) != '_') {
+                out.append('_');
+            }
+            previous = c;
+        }
+        if (trimTrailing && !out.isEmpty() && out.charAt(out.length() - 1) == '_') {
+            out.setLength(out.length() - 1);
+        }
+        return out.toString();
+    }
+}
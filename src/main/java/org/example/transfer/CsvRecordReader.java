@@ -0,0 +1,138 @@
+package org.example.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV. The header row names the columns, so their order is free and unknown columns are ignored; either
+ * {@code asset_id} or {@code asset_name} has to be present.
+ */
+public class CsvRecordReader implements RecordReader {
+    private final BufferedReader reader;
+    private final int assetId;
+    private final int assetName;
+    private final int projectId;
+    private final int languageCode;
+    private final int translation;
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+
+    public CsvRecordReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        var header = readRow();
+        if (header == null) {
+            throw new IOException("CSV input is empty, expected a header row");
+        }
+        // tolerate a byte order mark from spreadsheet exports
+        if (!header.isEmpty() && header.getFirst().startsWith("\uFEFF")) {
+            header.set(0, header.getFirst().substring(1));
+        }
+        this.assetId = header.indexOf("asset_id");
+        this.assetName = header.indexOf("asset_name");
+        this.projectId = required(header, "project_id");
+        this.languageCode = required(header, "language_code");
+        this.translation = required(header, "translation");
+        if (assetId < 0 && assetName < 0) {
+            throw new IOException("CSV header needs an asset_id or asset_name column, got " + header);
+        }
+    }
+
+    @Override
+    public TranslationRecord next() throws IOException {
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.getFirst().isEmpty());
+
+        try {
+            return new TranslationRecord(
+                    assetId < 0 || column(row, assetId).isEmpty() ? 0 : Integer.parseInt(column(row, assetId)),
+                    assetName < 0 ? null : column(row, assetName),
+                    Integer.parseInt(column(row, projectId)),
+                    column(row, languageCode),
+                    null,
+                    column(row, translation));
+        } catch (NumberFormatException e) {
+            throw new IOException("Line " + line + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String column(List<String> row, int index) {
+        return index < row.size() ? row.get(index) : "";
+    }
+
+    private static int required(List<String> header, String column) throws IOException {
+        var index = header.indexOf(column);
+        if (index < 0) {
+            throw new IOException("CSV header is missing column " + column + ", expected " + Arrays.toString(CsvRecordWriter.HEADER));
+        }
+        return index;
+    }
+
+    /**
+     * One logical row; quoted fields may span lines.
+     */
+    private List<String> readRow() throws IOException {
+        var c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        var row = new ArrayList<String>();
+        var quoted = false;
+        field.setLength(0);
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Line " + line + ": unterminated quoted field");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    var next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c < 0) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                line++;
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
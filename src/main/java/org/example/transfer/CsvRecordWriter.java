@@ -0,0 +1,59 @@
+package org.example.transfer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV with a header row, UTF-8, CRLF line ends.
+ */
+public class CsvRecordWriter implements RecordWriter {
+    static final String[] HEADER = {"asset_id", "asset_name", "project_id", "language_code", "translation"};
+
+    private final BufferedWriter writer;
+
+    public CsvRecordWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", HEADER));
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(TranslationRecord record) throws IOException {
+        writer.write(Integer.toString(record.assetId()));
+        writer.write(',');
+        writeField(record.assetName());
+        writer.write(',');
+        writer.write(Integer.toString(record.projectId()));
+        writer.write(',');
+        writeField(record.languageCode());
+        writer.write(',');
+        writeField(record.translation());
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        var needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            var c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
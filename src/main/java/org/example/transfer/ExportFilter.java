@@ -0,0 +1,12 @@
+package org.example.transfer;
+
+/**
+ * Which cells an export covers. Null fields do not filter; {@code sourceLanguageCode} is the language put into
+ * XLIFF {@code <source>} elements.
+ */
+public record ExportFilter(
+        String languageCode,
+        Integer projectId,
+        String sourceLanguageCode
+) {
+}
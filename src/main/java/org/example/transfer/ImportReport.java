@@ -0,0 +1,18 @@
+package org.example.transfer;
+
+import java.util.List;
+
+/**
+ * Running totals of an import. {@code errors} keeps the first few rejected records; {@code failed} is set when a
+ * chunk could not be written, in which case nothing after the last committed chunk was applied.
+ */
+public record ImportReport(
+        long read,
+        long unchanged,
+        long written,
+        long rejected,
+        int chunks,
+        boolean failed,
+        List<String> errors
+) {
+}
@@ -0,0 +1,58 @@
+package org.example.transfer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the array written by {@link JsonRecordWriter} token by token; unknown fields are skipped.
+ */
+public class JsonRecordReader implements RecordReader {
+    private final JsonParser parser;
+
+    public JsonRecordReader(InputStream in) throws IOException {
+        this.parser = new JsonFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("JSON input must be an array of translations, found " + parser.currentToken()
+                    + " at " + parser.currentLocation());
+        }
+    }
+
+    @Override
+    public TranslationRecord next() throws IOException {
+        var token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY || token == null) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a translation object at " + parser.currentLocation());
+        }
+
+        int assetId = 0;
+        String assetName = null;
+        int projectId = 0;
+        String languageCode = null;
+        String translation = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "assetId" -> assetId = parser.getValueAsInt();
+                case "assetName" -> assetName = parser.getValueAsString();
+                case "projectId" -> projectId = parser.getValueAsInt();
+                case "languageCode" -> languageCode = parser.getValueAsString();
+                case "translation" -> translation = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new TranslationRecord(assetId, assetName, projectId, languageCode, null, translation);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
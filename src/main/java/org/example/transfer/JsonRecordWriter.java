@@ -0,0 +1,37 @@
+package org.example.transfer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A JSON array of flat objects, written with the streaming generator so nothing is buffered per record.
+ */
+public class JsonRecordWriter implements RecordWriter {
+    private final JsonGenerator generator;
+
+    public JsonRecordWriter(OutputStream out) throws IOException {
+        this.generator = new JsonFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+    }
+
+    @Override
+    public void write(TranslationRecord record) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("assetId", record.assetId());
+        generator.writeStringField("assetName", record.assetName());
+        generator.writeNumberField("projectId", record.projectId());
+        generator.writeStringField("languageCode", record.languageCode());
+        generator.writeStringField("translation", record.translation());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+}
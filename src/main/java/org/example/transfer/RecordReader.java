@@ -0,0 +1,14 @@
+package org.example.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pulls records off a stream one at a time.
+ */
+public interface RecordReader extends Closeable {
+    /**
+     * @return the next record, or null at the end of the input
+     */
+    TranslationRecord next() throws IOException;
+}
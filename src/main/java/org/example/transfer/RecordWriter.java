@@ -0,0 +1,11 @@
+package org.example.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes records to a stream as they come; {@link #close()} finishes the document but leaves the stream open.
+ */
+public interface RecordWriter extends Closeable {
+    void write(TranslationRecord record) throws IOException;
+}
@@ -0,0 +1,51 @@
+package org.example.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public enum TransferFormat {
+    CSV("text/csv; charset=utf-8", ".csv"),
+    JSON("application/json", ".json"),
+    XLIFF("application/xliff+xml", ".xlf");
+
+    private final String contentType;
+    private final String extension;
+
+    TransferFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static TransferFormat parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unsupported format '" + name + "', expected csv, json or xliff");
+        }
+    }
+
+    public RecordReader reader(InputStream in) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvRecordReader(in);
+            case JSON -> new JsonRecordReader(in);
+            case XLIFF -> new XliffRecordReader(in);
+        };
+    }
+
+    public RecordWriter writer(OutputStream out, ExportFilter filter) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvRecordWriter(out);
+            case JSON -> new JsonRecordWriter(out);
+            case XLIFF -> new XliffRecordWriter(out, filter);
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.transfer;
+
+import org.example.catalog.CatalogSnapshot;
+import org.example.catalog.LanguageRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams the cells of a catalog snapshot to a file format, one record at a time.
+ */
+public class TranslationExporter {
+
+    /**
+     * @return the number of records written
+     */
+    public static long export(CatalogSnapshot snapshot, TransferFormat format, ExportFilter filter, OutputStream out) throws IOException {
+        var language = filter.languageCode() == null ? null : language(snapshot, filter.languageCode());
+        var source = filter.sourceLanguageCode() == null ? defaultSource(snapshot) : language(snapshot, filter.sourceLanguageCode());
+        var resolved = new ExportFilter(filter.languageCode(), filter.projectId(), source == null ? null : source.code());
+
+        var written = new long[1];
+        var failure = new IOException[1];
+        try (var writer = format.writer(out, resolved)) {
+            snapshot.assets().forEach((assetId, entry) -> {
+                for (var row : entry.translations()) {
+                    if ((language != null && row.languageId() != language.languageId())
+                            || (filter.projectId() != null && row.projectId() != filter.projectId())) {
+                        continue;
+                    }
+                    var rowLanguage = snapshot.languages().get(row.languageId());
+                    var sourceRow = source == null ? null : entry.translation(row.projectId(), source.languageId());
+                    try {
+                        writer.write(new TranslationRecord(
+                                assetId,
+                                entry.asset().name(),
+                                row.projectId(),
+                                rowLanguage == null ? null : rowLanguage.code(),
+                                sourceRow == null ? null : sourceRow.translation(),
+                                row.translation()));
+                    } catch (IOException e) {
+                        failure[0] = e;
+                        return false;
+                    }
+                    written[0]++;
+                }
+                return true;
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        return written[0];
+    }
+
+    static LanguageRow language(CatalogSnapshot snapshot, String code) {
+        var found = new LanguageRow[1];
+        snapshot.languages().forEach((languageId, language) -> {
+            if (code.equalsIgnoreCase(language.code()) || code.equalsIgnoreCase(language.name())) {
+                found[0] = language;
+                return false;
+            }
+            return true;
+        });
+        if (found[0] == null) {
+            throw new IllegalArgumentException("Unknown language '" + code + "'");
+        }
+        return found[0];
+    }
+
+    // the lowest language id is the one the catalog was authored in
+    private static LanguageRow defaultSource(CatalogSnapshot snapshot) {
+        var found = new LanguageRow[1];
+        snapshot.languages().forEach((languageId, language) -> {
+            found[0] = language;
+            return false;
+        });
+        return found[0];
+    }
+}
@@ -0,0 +1,198 @@
+package org.example.transfer;
+
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogSnapshot;
+import org.example.db.DBQueries;
+import org.example.db.DBUtils;
+import org.example.db.LanguageTranslation;
+import org.example.db.SQLFunction;
+import org.example.validation.Validator;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Streams records from a {@link RecordReader} into the database in chunks. Each record is compared against the
+ * in-memory catalog first, so unchanged cells cost no database round trip; the changed ones are upserted as one
+ * JDBC batch per chunk and project, each atomically on that project's database (so the projects of a chunk commit
+ * in parallel when they live in different shards), and applied to the catalog once it committed.
+ * <p>
+ * Changed text goes through the {@link Validator} like an edit in the editor, against the source text as of the
+ * last committed chunk; a record with an error is rejected and the import carries on.
+ */
+public class TranslationImporter {
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    public interface Progress {
+        void chunkCommitted(ImportReport soFar);
+    }
+
+    private final int userId;
+    private final int chunkSize;
+    private final Validator validator;
+    private final Progress progress;
+    private final ArrayList<LanguageTranslation> chunk = new ArrayList<>();
+    private final ArrayList<String> errors = new ArrayList<>();
+    private HashMap<String, Integer> assetIdsByName;
+    private long read;
+    private long unchanged;
+    private long written;
+    private long rejected;
+    private int chunks;
+    private boolean failed;
+
+    /**
+     * @throws IllegalArgumentException when {@code userId} is not a user of the loaded catalog
+     */
+    public TranslationImporter(int userId, int chunkSize, Validator validator, Progress progress) {
+        // rows written under an unknown user would drop out of every view, so refuse before reading anything
+        if (Catalog.snapshot().users().get(userId) == null) {
+            throw new IllegalArgumentException("Unknown user " + userId);
+        }
+        this.userId = userId;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.validator = validator;
+        this.progress = progress;
+    }
+
+    public static int defaultChunkSize() {
+        return Integer.getInteger("amorphous.import.chunkSize", 1000);
+    }
+
+    public ImportReport run(RecordReader reader) throws IOException {
+        TranslationRecord record;
+        while (!failed && (record = reader.next()) != null) {
+            read++;
+            accept(record);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+        if (!failed) {
+            flush();
+        }
+        return report();
+    }
+
+    private void accept(TranslationRecord record) {
+        // the catalog already holds every flushed chunk, so it is the baseline for the unchanged check
+        var snapshot = Catalog.snapshot();
+        var assetId = resolveAsset(snapshot, record);
+        if (assetId == 0) {
+            reject(record, "unknown asset");
+            return;
+        }
+        if (record.languageCode() == null) {
+            reject(record, "no language");
+            return;
+        }
+        if (snapshot.projects().get(record.projectId()) == null) {
+            reject(record, "unknown project " + record.projectId());
+            return;
+        }
+        if (record.translation() == null) {
+            reject(record, "no translation");
+            return;
+        }
+
+        int languageId;
+        String languageName;
+        try {
+            var language = TranslationExporter.language(snapshot, record.languageCode());
+            languageId = language.languageId();
+            languageName = language.name();
+        } catch (IllegalArgumentException e) {
+            reject(record, e.getMessage());
+            return;
+        }
+
+        var entry = snapshot.asset(assetId);
+        var current = entry.translation(record.projectId(), languageId);
+        if (current != null && Objects.equals(current.translation(), record.translation())) {
+            unchanged++;
+            return;
+        }
+        var invalid = Validator.errors(validator.check(entry, record.projectId(), languageId, record.translation()));
+        if (invalid != null) {
+            reject(record, invalid);
+            return;
+        }
+
+        chunk.add(new LanguageTranslation(
+                assetId,
+                languageName,
+                record.translation(),
+                Instant.now().toEpochMilli(),
+                entry.asset().name(),
+                null,
+                record.projectId(),
+                languageId,
+                userId));
+    }
+
+    private int resolveAsset(CatalogSnapshot snapshot, TranslationRecord record) {
+        if (record.assetId() > 0) {
+            return snapshot.asset(record.assetId()) == null ? 0 : record.assetId();
+        }
+        if (record.assetName() == null) {
+            return 0;
+        }
+        if (assetIdsByName == null) {
+            assetIdsByName = new HashMap<>();
+            snapshot.assets().forEach((assetId, entry) -> {
+                assetIdsByName.putIfAbsent(entry.asset().name(), assetId);
+                return true;
+            });
+        }
+        return assetIdsByName.getOrDefault(record.assetName(), 0);
+    }
+
+    private void flush() {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        var byProject = new LinkedHashMap<Integer, List<LanguageTranslation>>();
+        for (var translation : chunk) {
+            byProject.computeIfAbsent(translation.projectId(), projectId -> new ArrayList<>()).add(translation);
+        }
+        var work = new LinkedHashMap<Integer, SQLFunction<List<LanguageTranslation>>>();
+        byProject.forEach((projectId, translations) -> work.put(projectId, session -> {
+            session.updateBatch(DBQueries.UPSERT_TRANSLATION, DBQueries.updateTranslationParameters(translations));
+            return translations;
+        }));
+
+        var committed = DBUtils.writeEach(work, Catalog::applyTranslations);
+        for (var translations : committed.values()) {
+            written += translations.size();
+        }
+        if (committed.size() < byProject.size()) {
+            failed = true;
+            errors.add("chunk " + (chunks + 1) + " could not be written for projects "
+                    + byProject.keySet().stream().filter(projectId -> !committed.containsKey(projectId)).toList()
+                    + ", import stopped after record " + read);
+            return;
+        }
+        chunks++;
+        chunk.clear();
+        if (progress != null) {
+            progress.chunkCommitted(report());
+        }
+    }
+
+    private void reject(TranslationRecord record, String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            var asset = record.assetId() > 0 ? Integer.toString(record.assetId()) : record.assetName();
+            errors.add("record " + read + " (" + asset + ", " + record.languageCode() + "): " + reason);
+        }
+    }
+
+    private ImportReport report() {
+        return new ImportReport(read, unchanged, written, rejected, chunks, failed, List.copyOf(errors));
+    }
+}
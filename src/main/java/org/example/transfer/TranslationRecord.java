@@ -0,0 +1,15 @@
+package org.example.transfer;
+
+/**
+ * One translation cell as it travels through an import or export file. Either {@code assetId} or
+ * {@code assetName} identifies the asset; {@code source} is only filled for formats that carry the source text.
+ */
+public record TranslationRecord(
+        int assetId, // 0 when unknown
+        String assetName,
+        int projectId,
+        String languageCode,
+        String source,
+        String translation
+) {
+}
@@ -0,0 +1,104 @@
+package org.example.transfer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Pulls trans-units out of an XLIFF 1.2 document with StAX, so only the current unit is in memory. Units either
+ * use the {@code projectId/assetId} ids written by {@link XliffRecordWriter} or name the asset through
+ * {@code resname}; the latter land in project {@code defaultProjectId}.
+ */
+public class XliffRecordReader implements RecordReader {
+    private final XMLStreamReader xml;
+    private final int defaultProjectId;
+    private String targetLanguage;
+
+    public XliffRecordReader(InputStream in) throws IOException {
+        this(in, 1);
+    }
+
+    public XliffRecordReader(InputStream in, int defaultProjectId) throws IOException {
+        this.defaultProjectId = defaultProjectId;
+        try {
+            var factory = XMLInputFactory.newFactory();
+            // vendor files are untrusted input
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+            this.xml = factory.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public TranslationRecord next() throws IOException {
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                switch (xml.getLocalName()) {
+                    case "file" -> targetLanguage = xml.getAttributeValue(null, "target-language");
+                    case "trans-unit" -> {
+                        return readUnit();
+                    }
+                    default -> {
+                    }
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private TranslationRecord readUnit() throws XMLStreamException, IOException {
+        var id = xml.getAttributeValue(null, "id");
+        var assetName = xml.getAttributeValue(null, "resname");
+        int projectId = defaultProjectId;
+        int assetId = 0;
+        var slash = id == null ? -1 : id.indexOf('/');
+        if (slash > 0) {
+            try {
+                projectId = Integer.parseInt(id.substring(0, slash));
+                assetId = Integer.parseInt(id.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IOException("trans-unit id '" + id + "' is not projectId/assetId", e);
+            }
+        } else if (assetName == null) {
+            assetName = id;
+        }
+
+        String source = null;
+        String target = null;
+        var depth = 1;
+        while (depth > 0) {
+            var event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    // getElementText leaves us on the end element, so depth is unchanged
+                    case "source" -> source = xml.getElementText();
+                    case "target" -> target = xml.getElementText();
+                    default -> depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return new TranslationRecord(assetId, assetName, projectId, targetLanguage, source, target);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.transfer;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * XLIFF 1.2 with one {@code <file>} per target language. Trans-unit ids are {@code projectId/assetId} and
+ * {@code resname} carries the asset name.
+ */
+public class XliffRecordWriter implements RecordWriter {
+    static final String NAMESPACE = "urn:oasis:names:tc:xliff:document:1.2";
+
+    private final XMLStreamWriter xml;
+
+    public XliffRecordWriter(OutputStream out, ExportFilter filter) throws IOException {
+        if (filter == null || filter.languageCode() == null) {
+            throw new IllegalArgumentException("An XLIFF export needs a target language");
+        }
+        try {
+            this.xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("xliff");
+            xml.writeDefaultNamespace(NAMESPACE);
+            xml.writeAttribute("version", "1.2");
+            xml.writeStartElement("file");
+            xml.writeAttribute("original", "amorphous");
+            xml.writeAttribute("datatype", "plaintext");
+            if (filter.sourceLanguageCode() != null) {
+                xml.writeAttribute("source-language", filter.sourceLanguageCode());
+            }
+            xml.writeAttribute("target-language", filter.languageCode());
+            xml.writeStartElement("body");
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void write(TranslationRecord record) throws IOException {
+        try {
+            xml.writeStartElement("trans-unit");
+            xml.writeAttribute("id", record.projectId() + "/" + record.assetId());
+            if (record.assetName() != null) {
+                xml.writeAttribute("resname", record.assetName());
+            }
+            xml.writeStartElement("source");
+            xml.writeCharacters(record.source() == null ? "" : record.source());
+            xml.writeEndElement();
+            xml.writeStartElement("target");
+            xml.writeCharacters(record.translation() == null ? "" : record.translation());
+            xml.writeEndElement();
+            xml.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+}
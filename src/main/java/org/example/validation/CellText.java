@@ -0,0 +1,17 @@
+package org.example.validation;
+
+/**
+ * What a rule sees of one translation cell. {@code source} is the source language text of the same asset and
+ * project, null when this cell is in the source language or there is no source text yet.
+ */
+public record CellText(
+        int assetId,
+        int projectId,
+        int languageId,
+        String text,
+        String source
+) {
+    public ValidationIssue issue(ValidationRule rule, Severity severity, String message) {
+        return new ValidationIssue(assetId, projectId, languageId, rule.id(), severity, message);
+    }
+}
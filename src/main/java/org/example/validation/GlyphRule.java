@@ -0,0 +1,92 @@
+package org.example.validation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Every character must exist in the game font, or it renders as a missing-glyph box. Whitespace and control
+ * characters are left to the text layout. Answers for the basic multilingual plane are remembered, the font is only
+ * asked once per character.
+ */
+public class GlyphRule implements ValidationRule {
+    private static final Logger logger = LoggerFactory.getLogger(GlyphRule.class);
+    private static final byte UNKNOWN = 0;
+    private static final byte PRESENT = 1;
+    private static final byte ABSENT = 2;
+
+    private final Font font;
+    private final String fontName;
+    // racy on purpose: two threads asking for the same character store the same answer
+    private final byte[] known = new byte[Character.MAX_VALUE + 1];
+
+    public GlyphRule(Font font, String fontName) {
+        this.font = font;
+        this.fontName = fontName;
+    }
+
+    /**
+     * The rule for the font at {@code amorphous.validation.font}, or null when that file does not exist.
+     */
+    public static GlyphRule fromSystemProperties() {
+        var file = Paths.get(System.getProperty("amorphous.validation.font", "bevy-project/assets/fonts/FiraCode-Regular.ttf"));
+        if (!Files.isRegularFile(file)) {
+            logger.info("No game font at {}, glyphs are not checked", file.toAbsolutePath());
+            return null;
+        }
+        return load(file);
+    }
+
+    public static GlyphRule load(Path file) {
+        try {
+            return new GlyphRule(Font.createFont(Font.TRUETYPE_FONT, file.toFile()), file.getFileName().toString());
+        } catch (FontFormatException | IOException e) {
+            throw new IllegalStateException("Could not read game font " + file, e);
+        }
+    }
+
+    @Override
+    public String id() {
+        return "glyphs";
+    }
+
+    @Override
+    public void check(CellText cell, List<ValidationIssue> issues) {
+        TreeSet<String> absent = null;
+        var text = cell.text();
+        for (int i = 0; i < text.length(); ) {
+            var codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isWhitespace(codePoint) || Character.isISOControl(codePoint) || canDisplay(codePoint)) {
+                continue;
+            }
+            if (absent == null) {
+                absent = new TreeSet<>();
+            }
+            absent.add(new String(Character.toChars(codePoint)) + " (U+" + String.format("%04X", codePoint) + ")");
+        }
+        if (absent != null) {
+            issues.add(cell.issue(this, Severity.ERROR, fontName + " has no glyph for " + String.join(", ", absent)));
+        }
+    }
+
+    private boolean canDisplay(int codePoint) {
+        if (codePoint > Character.MAX_VALUE) {
+            return font.canDisplay(codePoint);
+        }
+        var answer = known[codePoint];
+        if (answer == UNKNOWN) {
+            answer = font.canDisplay(codePoint) ? PRESENT : ABSENT;
+            known[codePoint] = answer;
+        }
+        return answer == PRESENT;
+    }
+}
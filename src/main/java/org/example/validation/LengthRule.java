@@ -0,0 +1,53 @@
+package org.example.validation;
+
+import java.util.List;
+
+/**
+ * Length budgets in code points: a hard cap for any string, and a cap relative to the source text since layouts are
+ * sized for it. Short sources get some slack, a three letter word legitimately grows by more than half.
+ */
+public class LengthRule implements ValidationRule {
+    private final int maxLength;
+    private final double maxExpansion;
+    private final int slack;
+
+    public LengthRule(int maxLength, double maxExpansion, int slack) {
+        this.maxLength = maxLength;
+        this.maxExpansion = maxExpansion;
+        this.slack = slack;
+    }
+
+    public static LengthRule fromSystemProperties() {
+        return new LengthRule(
+                Integer.getInteger("amorphous.validation.maxLength", 200),
+                Double.parseDouble(System.getProperty("amorphous.validation.maxExpansion", "1.5")),
+                Integer.getInteger("amorphous.validation.expansionSlack", 10));
+    }
+
+    @Override
+    public String id() {
+        return "length";
+    }
+
+    @Override
+    public Severity severity() {
+        return Severity.WARNING;
+    }
+
+    @Override
+    public void check(CellText cell, List<ValidationIssue> issues) {
+        var length = cell.text().codePointCount(0, cell.text().length());
+        if (maxLength > 0 && length > maxLength) {
+            issues.add(cell.issue(this, Severity.WARNING, length + " characters, the limit is " + maxLength));
+            return;
+        }
+        if (cell.source() != null) {
+            var sourceLength = cell.source().codePointCount(0, cell.source().length());
+            var budget = Math.max((int) (sourceLength * maxExpansion), sourceLength + slack);
+            if (length > budget) {
+                issues.add(cell.issue(this, Severity.WARNING,
+                        length + " characters for a " + sourceLength + " character source, the budget is " + budget));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.validation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * A translation must carry the same format placeholders as its source text, each as often, in any order:
+ * {@code {{name}}}, {@code {name}} / {@code {0}} and printf style {@code %s} / {@code %1$d}. {@code %%} is a literal.
+ */
+public class PlaceholderRule implements ValidationRule {
+    public static final Pattern PLACEHOLDER = Pattern.compile(
+            "\\{\\{[^{}]*}}|\\{[^{}\\s]*}|%%|%(?:\\d+\\$)?[-+0#]*\\d*(?:\\.\\d+)?[sdifxXoeEgGcb]");
+
+    @Override
+    public String id() {
+        return "placeholders";
+    }
+
+    @Override
+    public void check(CellText cell, List<ValidationIssue> issues) {
+        if (cell.source() == null) {
+            return;
+        }
+        var expected = count(cell.source());
+        var actual = count(cell.text());
+        if (expected.equals(actual)) {
+            return;
+        }
+
+        var missing = new ArrayList<String>();
+        var unexpected = new ArrayList<String>();
+        var all = new TreeMap<String, Integer>(expected);
+        actual.forEach((placeholder, times) -> all.putIfAbsent(placeholder, 0));
+        all.forEach((placeholder, ignored) -> {
+            var difference = expected.getOrDefault(placeholder, 0) - actual.getOrDefault(placeholder, 0);
+            for (int i = 0; i < Math.abs(difference); i++) {
+                (difference > 0 ? missing : unexpected).add(placeholder);
+            }
+        });
+        if (!missing.isEmpty()) {
+            issues.add(cell.issue(this, Severity.ERROR, "missing placeholder " + String.join(", ", missing)));
+        }
+        if (!unexpected.isEmpty()) {
+            issues.add(cell.issue(this, Severity.ERROR, "placeholder " + String.join(", ", unexpected) + " is not in the source text"));
+        }
+    }
+
+    private static HashMap<String, Integer> count(String text) {
+        var counts = new HashMap<String, Integer>();
+        var matcher = PLACEHOLDER.matcher(text);
+        while (matcher.find()) {
+            if (matcher.group().equals("%%")) {
+                continue;
+            }
+            counts.merge(matcher.group(), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.validation;
+
+/**
+ * Pseudo-localization for layout testing: letters become accented look-alikes, the text grows by
+ * {@code amorphous.pseudo.expansion} (a typical translation is about a third longer than English) and is bracketed,
+ * so truncation and hard-coded strings show up without a real translation. The look-alikes all come from
+ * Latin-1, Latin Extended-A, Greek and Cyrillic, which the game font covers. Placeholders are kept as they are so
+ * the result still formats.
+ */
+public class PseudoLocalizer {
+    public static final double EXPANSION = Double.parseDouble(System.getProperty("amorphous.pseudo.expansion", "0.35"));
+
+    private static final String PLAIN = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String ACCENTED = "àβçđéƒĝĥîĵķĺмñöþԛŕšţûѵŵҳýžÀБÇĐÉϜĜĤÎĴĶĹϺÑÖÞԚŔŠŢÛѴŴҲÝŽ";
+
+    public static String localize(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        var out = new StringBuilder(text.length() * 2 + 4).append("[");
+        var letters = 0;
+        var placeholders = PlaceholderRule.PLACEHOLDER.matcher(text);
+        var at = 0;
+        while (at < text.length()) {
+            var next = placeholders.find(at) ? placeholders.start() : text.length();
+            for (int i = at; i < next; i++) {
+                var c = text.charAt(i);
+                var plain = PLAIN.indexOf(c);
+                out.append(plain < 0 ? c : ACCENTED.charAt(plain));
+                letters += Character.isLetterOrDigit(c) ? 1 : 0;
+            }
+            if (next < text.length()) {
+                out.append(placeholders.group());
+                at = placeholders.end();
+            } else {
+                at = next;
+            }
+        }
+        var padding = (int) Math.ceil(letters * EXPANSION);
+        if (padding > 0) {
+            out.append(' ').append("~".repeat(padding));
+        }
+        return out.append("]").toString();
+    }
+}
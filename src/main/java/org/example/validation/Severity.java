@@ -0,0 +1,7 @@
+package org.example.validation;
+
+public enum Severity {
+    // breaks the string in game, the save is refused
+    ERROR,
+    WARNING
+}
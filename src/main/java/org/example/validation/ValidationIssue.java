@@ -0,0 +1,11 @@
+package org.example.validation;
+
+public record ValidationIssue(
+        int assetId,
+        int projectId,
+        int languageId,
+        String rule,
+        Severity severity,
+        String message
+) {
+}
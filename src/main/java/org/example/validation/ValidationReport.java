@@ -0,0 +1,19 @@
+package org.example.validation;
+
+import java.util.List;
+
+/**
+ * One pass over the catalog. {@code checked} is how many cells actually ran the rules, the rest came from the
+ * cache; {@code errors} and {@code warnings} count every issue, {@code issues} only those that were asked for.
+ */
+public record ValidationReport(
+        long version,
+        List<String> rules,
+        long cells,
+        long checked,
+        int errors,
+        int warnings,
+        long millis,
+        List<ValidationIssue> issues
+) {
+}
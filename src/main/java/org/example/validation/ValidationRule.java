@@ -0,0 +1,27 @@
+package org.example.validation;
+
+import java.util.List;
+
+/**
+ * One check on a translation. Rules run on the request thread for every saved cell and on many threads at once
+ * when the catalog is validated, so they must be cheap and keep no mutable state.
+ */
+public interface ValidationRule {
+    /**
+     * Short stable name, reported with every issue and used to pick rules in {@code amorphous.validation.rules}.
+     */
+    String id();
+
+    /**
+     * The most severe issue the rule can report. Error rules always run when a cell is saved, only warning rules
+     * give way to the inline time budget, so a rule that does not say is treated as an error rule.
+     */
+    default Severity severity() {
+        return Severity.ERROR;
+    }
+
+    /**
+     * Adds an issue for each problem with {@code cell}; the text is never null or empty.
+     */
+    void check(CellText cell, List<ValidationIssue> issues);
+}
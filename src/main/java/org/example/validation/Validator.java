@@ -0,0 +1,244 @@
+package org.example.validation;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.CatalogListener;
+import org.example.catalog.CatalogSnapshot;
+import org.example.catalog.TranslationRow;
+import org.example.coverage.Coverage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the {@link ValidationRule}s over translations. A saved cell is checked inline by {@link #check}; the whole
+ * catalog is checked in parallel slices of the asset range, on load and for every report. Results are kept per cell
+ * together with the {@code updated} stamps of the cell and of its source text, so a report only re-runs the rules
+ * for cells written (or whose source was rewritten) since the last one.
+ * <p>
+ * The source language is the one coverage counts staleness against.
+ */
+public class Validator implements CatalogListener {
+    public static final long INLINE_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Integer.getInteger("amorphous.validation.inlineBudgetMillis", 20));
+    private static final int SLICE = 256;
+    private static final Comparator<ValidationIssue> ISSUE_ORDER = Comparator
+            .comparingInt(ValidationIssue::assetId)
+            .thenComparingInt(ValidationIssue::projectId)
+            .thenComparingInt(ValidationIssue::languageId);
+
+    private static final Logger logger = LoggerFactory.getLogger(Validator.class);
+
+    private record CellId(int assetId, int projectId, int languageId) {
+    }
+
+    private record Checked(long updated, long sourceUpdated, List<ValidationIssue> issues) {
+    }
+
+    private final List<ValidationRule> rules;
+    private final List<ValidationRule> errorRules;
+    private final List<ValidationRule> warningRules;
+    private final ConcurrentHashMap<CellId, Checked> checked = new ConcurrentHashMap<>();
+    private final LongAdder checks = new LongAdder();
+    private volatile int sourceLanguageId = -1;
+
+    public Validator(List<ValidationRule> rules) {
+        this.rules = List.copyOf(rules);
+        this.errorRules = this.rules.stream().filter(rule -> rule.severity() == Severity.ERROR).toList();
+        this.warningRules = this.rules.stream().filter(rule -> rule.severity() != Severity.ERROR).toList();
+    }
+
+    /**
+     * The built-in rules named in {@code amorphous.validation.rules} (all of them by default); the glyph rule is left
+     * out when the game font cannot be found.
+     */
+    public static Validator fromSystemProperties() {
+        var available = new LinkedHashMap<String, ValidationRule>();
+        for (var rule : new ValidationRule[]{new PlaceholderRule(), LengthRule.fromSystemProperties(), GlyphRule.fromSystemProperties()}) {
+            if (rule != null) {
+                available.put(rule.id(), rule);
+            }
+        }
+        var names = System.getProperty("amorphous.validation.rules");
+        if (names == null) {
+            return new Validator(new ArrayList<>(available.values()));
+        }
+        var rules = new ArrayList<ValidationRule>();
+        for (var name : names.split(",")) {
+            var rule = available.get(name.trim());
+            if (rule == null) {
+                logger.warn("Validation rule {} is unknown or unavailable, known are {}", name.trim(), available.keySet());
+            } else {
+                rules.add(rule);
+            }
+        }
+        return new Validator(rules);
+    }
+
+    public List<String> rules() {
+        return rules.stream().map(ValidationRule::id).toList();
+    }
+
+    @Override
+    public void onLoad(CatalogSnapshot snapshot) {
+        checked.clear();
+        sourceLanguageId = snapshot.languageId(Coverage.SOURCE_LANGUAGE);
+        var report = report(snapshot, issue -> true, 0);
+        logger.info("Validated {} translations with {} in {} ms: {} errors, {} warnings",
+                report.cells(), rules(), report.millis(), report.errors(), report.warnings());
+    }
+
+    @Override
+    public void onChange(CatalogSnapshot before, CatalogSnapshot after, int[] changedAssetIds) {
+        // changed cells carry new stamps and are re-checked on the next read; only cells that are gone need dropping
+        for (var assetId : changedAssetIds) {
+            var was = before.asset(assetId);
+            if (was == null) {
+                continue;
+            }
+            var is = after.asset(assetId);
+            for (var row : was.translations()) {
+                if (is == null || is.translation(row.projectId(), row.languageId()) == null) {
+                    checked.remove(new CellId(assetId, row.projectId(), row.languageId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks a text about to be saved into a cell of {@code entry}. Every error rule runs, so nothing that would
+     * refuse the save is skipped; warning rules follow in order until the inline budget is spent, and any left over
+     * run with the next report, once the text is in the catalog.
+     */
+    public List<ValidationIssue> check(AssetEntry entry, int projectId, int languageId, String text) {
+        var issues = new ArrayList<ValidationIssue>();
+        if (text == null || text.isEmpty()) {
+            return issues;
+        }
+        var source = source(entry, projectId, languageId);
+        var cell = new CellText(entry.assetId(), projectId, languageId, text, source == null ? null : source.translation());
+        var deadline = System.nanoTime() + INLINE_BUDGET_NANOS;
+        for (var rule : errorRules) {
+            rule.check(cell, issues);
+        }
+        for (int i = 0; i < warningRules.size(); i++) {
+            if (System.nanoTime() > deadline) {
+                logger.warn("Inline validation of asset {} ran out of time, skipped {}", entry.assetId(),
+                        warningRules.subList(i, warningRules.size()).stream().map(ValidationRule::id).toList());
+                break;
+            }
+            warningRules.get(i).check(cell, issues);
+        }
+        return issues;
+    }
+
+    /**
+     * The messages of the errors among {@code issues} joined into one line, or null when there are none.
+     */
+    public static String errors(List<ValidationIssue> issues) {
+        String errors = null;
+        for (var issue : issues) {
+            if (issue.severity() == Severity.ERROR) {
+                errors = errors == null ? issue.message() : errors + "; " + issue.message();
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Issues of every translation of {@code entry}, from the cache where the cell has not changed.
+     */
+    public List<ValidationIssue> issues(AssetEntry entry) {
+        List<ValidationIssue> issues = null;
+        for (var row : entry.translations()) {
+            var found = issues(entry, row);
+            if (!found.isEmpty()) {
+                if (issues == null) {
+                    issues = new ArrayList<>();
+                }
+                issues.addAll(found);
+            }
+        }
+        return issues == null ? List.of() : issues;
+    }
+
+    /**
+     * Validates every translation of {@code snapshot} in parallel and returns up to {@code limit} issues that pass
+     * {@code filter}, ordered by asset, project and language. The counts cover every issue.
+     */
+    public ValidationReport report(CatalogSnapshot snapshot, Predicate<ValidationIssue> filter, int limit) {
+        var started = System.nanoTime();
+        var checksBefore = checks.sum();
+        var assets = snapshot.assets();
+        var slices = (assets.capacity() + SLICE - 1) / SLICE;
+        var cells = new LongAdder();
+        var errors = new LongAdder();
+        var warnings = new LongAdder();
+        var matching = IntStream.range(0, slices).parallel()
+                .mapToObj(slice -> {
+                    var found = new ArrayList<ValidationIssue>();
+                    var end = (slice + 1) * SLICE;
+                    assets.forEachFrom(slice * SLICE, (assetId, entry) -> {
+                        if (assetId >= end) {
+                            return false;
+                        }
+                        cells.add(entry.translations().length);
+                        for (var issue : issues(entry)) {
+                            (issue.severity() == Severity.ERROR ? errors : warnings).increment();
+                            if (filter.test(issue)) {
+                                found.add(issue);
+                            }
+                        }
+                        return true;
+                    });
+                    return found;
+                })
+                .flatMap(List::stream)
+                .sorted(ISSUE_ORDER)
+                .limit(Math.max(0, limit))
+                .toList();
+        return new ValidationReport(snapshot.version(), rules(), cells.sum(), checks.sum() - checksBefore,
+                errors.intValue(), warnings.intValue(), (System.nanoTime() - started) / 1_000_000, matching);
+    }
+
+    private List<ValidationIssue> issues(AssetEntry entry, TranslationRow row) {
+        if (row.translation() == null || row.translation().isEmpty()) {
+            return List.of();
+        }
+        var source = source(entry, row.projectId(), row.languageId());
+        var sourceUpdated = source == null ? 0 : source.updated();
+        var id = new CellId(row.assetId(), row.projectId(), row.languageId());
+        var cached = checked.get(id);
+        if (cached != null && cached.updated() == row.updated() && cached.sourceUpdated() == sourceUpdated) {
+            return cached.issues();
+        }
+
+        var issues = new ArrayList<ValidationIssue>();
+        var cell = new CellText(row.assetId(), row.projectId(), row.languageId(), row.translation(),
+                source == null ? null : source.translation());
+        for (var rule : rules) {
+            rule.check(cell, issues);
+        }
+        checks.increment();
+        var result = issues.isEmpty() ? List.<ValidationIssue>of() : List.copyOf(issues);
+        checked.put(id, new Checked(row.updated(), sourceUpdated, result));
+        return result;
+    }
+
+    private TranslationRow source(AssetEntry entry, int projectId, int languageId) {
+        var sourceId = sourceLanguageId;
+        if (sourceId < 0 || languageId == sourceId) {
+            return null;
+        }
+        var source = entry.translation(projectId, sourceId);
+        return source == null || source.translation() == null || source.translation().isEmpty() ? null : source;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.web;
+
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Picks between an identity and a precompressed gzip body by {@code Accept-Encoding}. Bodies below
+ * {@link #COMPRESS_ABOVE} bytes are not worth compressing; Javalin's on-the-fly gzip uses the same threshold for
+ * every response that was not precompressed, and leaves alone any response that already has a
+ * {@code Content-Encoding}.
+ */
+public class ContentEncoding {
+    public static final int COMPRESS_ABOVE = Integer.getInteger("amorphous.http.compressAbove", 1024);
+
+    /**
+     * Sends {@code gzip} when it exists and the client takes it, {@code identity} otherwise.
+     */
+    public static void send(Context ctx, String contentType, byte[] identity, byte[] gzip) {
+        ctx.contentType(contentType);
+        ctx.header(Header.VARY, Header.ACCEPT_ENCODING);
+        if (gzip != null && acceptsGzip(ctx)) {
+            ctx.header(Header.CONTENT_ENCODING, "gzip");
+            ctx.result(gzip);
+        } else {
+            ctx.result(identity);
+        }
+    }
+
+    /**
+     * The gzip variant of {@code data}, or null when it is too small or compression would not make it smaller.
+     */
+    public static byte[] gzipIfWorthIt(byte[] data, int level) {
+        if (data.length < COMPRESS_ABOVE) {
+            return null;
+        }
+        var compressed = gzip(data, level);
+        return compressed.length < data.length ? compressed : null;
+    }
+
+    public static byte[] gzip(byte[] data, int level) {
+        var out = new ByteArrayOutputStream(data.length / 3 + 64);
+        try (var gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static boolean acceptsGzip(Context ctx) {
+        var accept = ctx.header(Header.ACCEPT_ENCODING);
+        if (accept == null) {
+            return false;
+        }
+        for (var part : accept.split(",")) {
+            var semicolon = part.indexOf(';');
+            var coding = (semicolon < 0 ? part : part.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            if ((coding.equals("gzip") || coding.equals("*")) && !refused(semicolon < 0 ? "" : part.substring(semicolon + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // q=0 means "not acceptable"
+    private static boolean refused(String parameters) {
+        for (var parameter : parameters.split(";")) {
+            var trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.web;
+
+import com.github.mustachejava.MustacheFactory;
+import org.example.catalog.CatalogSnapshot;
+import org.example.query.MenuHudQuery;
+import org.example.validation.Severity;
+import org.example.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the htmx fragments of the editor from data already in hand. The routes wrap these in the fragment cache;
+ * the render benchmarks call them directly.
+ */
+public class HtmlRenderer {
+    private static final Logger logger = LoggerFactory.getLogger(HtmlRenderer.class);
+
+    private final MustacheFactory mf;
+
+    public HtmlRenderer(MustacheFactory mf) {
+        this.mf = mf;
+    }
+
+    public String assetTranslations(CatalogSnapshot snapshot, Validator validator, int assetId) {
+        return assetTranslations(snapshot, validator, assetId, List.of());
+    }
+
+    /**
+     * The localization form of one asset, with its validation issues and a notice for each entry of
+     * {@code conflicts}.
+     */
+    public String assetTranslations(CatalogSnapshot snapshot, Validator validator, int assetId, List<String> conflicts) {
+        var translations = snapshot.translations(assetId);
+        var assets = snapshot.matches(assetId);
+        if (assets.size() != 1)
+            throw new RuntimeException("Found " + assets.size() + " assets with assetId " + assetId);
+        var asset = assets.getFirst();
+
+        var issues = new ArrayList<Map<String, String>>();
+        for (var issue : validator.issues(snapshot.asset(assetId))) {
+            var language = snapshot.languages().get(issue.languageId());
+            issues.add(Map.of(
+                    "severity", issue.severity() == Severity.ERROR ? "error" : "warning",
+                    "message", (language == null ? "language " + issue.languageId() : language.name()) + ": " + issue.message()));
+        }
+
+        Writer writer = new StringWriter();
+        var scope = Map.of("assetId", assetId,
+                "translations", translations,
+                "assetName", asset.title(),
+                "conflicts", conflicts,
+                "issues", issues);
+        return mf.compile("localization.mustache").execute(writer, scope).toString();
+    }
+
+    public String inspectAsset(CatalogSnapshot snapshot, int assetId) {
+        var assets = snapshot.matches(assetId);
+
+        if (assets.size() != 1) {
+            throw new RuntimeException("Got multiple assets back for specific asset search. Id: " + assetId + ". Results: " + assets);
+        }
+
+        var asset = assets.getFirst();
+        logger.debug("got asset : {}", asset);
+
+        Writer writer = new StringWriter();
+        var generatedHtml = mf.compile("inspect-asset.mustache").execute(
+                writer,
+                Map.of("title", asset.title(),
+                        "assetId", asset.assetId(),
+                        "lastUpdatedTimeFormatted", asset.lastUpdatedTimeFormatted(),
+                        "lastUpdatedBy", asset.lastUpdatedBy(),
+                        "description", asset.description(),
+                        "href", asset.href()));
+        return generatedHtml.toString();
+    }
+
+    public void queryResults(Writer writer, MenuHudQuery.PartitionedMatches results, String searchLike, String release) {
+        HashMap<String, Object> scopes = new HashMap<>();
+        scopes.put("title", "Menu/HUD");
+        scopes.put("records-found", results.matchCount());
+        scopes.put("non-matches-found", results.nonMatchCount());
+        scopes.put("search", searchLike);
+        scopes.put("filter", "");
+        scopes.put("matches", results.matches());
+        scopes.put("non-matches", results.nonMatches());
+        scopes.put("next-matches", nextPageUrl("matches", results.nextMatchesAfter(), searchLike, release));
+        scopes.put("next-non-matches", nextPageUrl("non-matches", results.nextNonMatchesAfter(), searchLike, release));
+
+        mf.compile("query-results.mustache").execute(writer, scopes);
+    }
+
+    /**
+     * One further page of either the matching or the non-matching list, as swapped in by htmx.
+     */
+    public void menuHudPage(Writer writer, MenuHudQuery.PartitionedMatches results, boolean nonMatchPage, String searchLike, String release) {
+        var scopes = new HashMap<String, Object>();
+        if (nonMatchPage) {
+            scopes.put("non-matches", results.nonMatches());
+            scopes.put("next", nextPageUrl("non-matches", results.nextNonMatchesAfter(), searchLike, release));
+        } else {
+            scopes.put("matches", results.matches());
+            scopes.put("next", nextPageUrl("matches", results.nextMatchesAfter(), searchLike, release));
+        }
+        mf.compile("menu-hud-page.mustache").execute(writer, scopes);
+    }
+
+    /**
+     * htmx url that swaps in the page after {@code after}, or null once the list is exhausted.
+     */
+    private static String nextPageUrl(String list, int after, String searchLike, String release) {
+        if (after == MenuHudQuery.NO_MORE) {
+            return null;
+        }
+        var url = "/menu-hud/page?list=" + list + "&after=" + after;
+        if (searchLike != null && !searchLike.isBlank()) {
+            url += "&searchLike=" + URLEncoder.encode(searchLike, StandardCharsets.UTF_8);
+        }
+        if (release != null) {
+            url += "&release=" + URLEncoder.encode(release, StandardCharsets.UTF_8);
+        }
+        return url;
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.web;
+
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import io.javalin.http.NotFoundResponse;
+import org.example.ConditionalGet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Front-end files read from the classpath once at startup, so they serve the same from an exploded build and a
+ * packaged jar. Each keeps its bytes, a best-compression gzip variant and an ETag from a hash of the content;
+ * clients revalidate every time and get a 304 while the content is unchanged.
+ */
+public class StaticResources {
+    public record StaticResource(String name, String contentType, byte[] identity, byte[] gzip, String hash) {
+        String etag(boolean gzipped) {
+            // the two encodings are different representations, so they must not share a strong tag
+            return "\"" + hash + (gzipped ? "-gzip\"" : "\"");
+        }
+    }
+
+    private final Map<String, StaticResource> resources;
+
+    private StaticResources(Map<String, StaticResource> resources) {
+        this.resources = resources;
+    }
+
+    public static StaticResources load(String... names) {
+        var loaded = new LinkedHashMap<String, StaticResource>();
+        for (var name : names) {
+            try (var in = StaticResources.class.getClassLoader().getResourceAsStream(name)) {
+                if (in == null) {
+                    throw new IllegalStateException("Static resource " + name + " is not on the classpath");
+                }
+                var bytes = in.readAllBytes();
+                loaded.put(name, new StaticResource(name, contentType(name), bytes,
+                        ContentEncoding.gzipIfWorthIt(bytes, Deflater.BEST_COMPRESSION), hash(bytes)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read static resource " + name, e);
+            }
+        }
+        return new StaticResources(loaded);
+    }
+
+    public void serve(Context ctx, String name) {
+        var resource = resources.get(name);
+        if (resource == null) {
+            throw new NotFoundResponse();
+        }
+
+        var gzipped = resource.gzip() != null && ContentEncoding.acceptsGzip(ctx);
+        ctx.header(Header.ETAG, resource.etag(gzipped));
+        ctx.header(Header.CACHE_CONTROL, "no-cache");
+        ctx.header(Header.VARY, Header.ACCEPT_ENCODING);
+
+        var ifNoneMatch = ctx.header(Header.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ConditionalGet.matches(ifNoneMatch, resource.etag(false))
+                || ConditionalGet.matches(ifNoneMatch, resource.etag(true)))) {
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return;
+        }
+        ContentEncoding.send(ctx, resource.contentType(), resource.identity(), resource.gzip());
+    }
+
+    private static String contentType(String name) {
+        var dot = name.lastIndexOf('.');
+        return switch (dot < 0 ? "" : name.substring(dot + 1)) {
+            case "html" -> "text/html; charset=utf-8";
+            case "css" -> "text/css; charset=utf-8";
+            case "js", "mjs" -> "text/javascript; charset=utf-8";
+            case "json" -> "application/json";
+            case "svg" -> "image/svg+xml";
+            case "png" -> "image/png";
+            case "ico" -> "image/x-icon";
+            default -> "application/octet-stream";
+        };
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
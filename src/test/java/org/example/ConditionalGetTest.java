@@ -0,0 +1,134 @@
+package org.example;
+
+import io.javalin.Javalin;
+import org.example.catalog.AssetEntry;
+import org.example.catalog.AssetRow;
+import org.example.catalog.TranslationRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalGetTest {
+    private static final long MODIFIED = 1_700_000_000_000L;
+
+    private final AtomicReference<AssetEntry> entry = new AtomicReference<>(entry(3, MODIFIED));
+    private final AtomicInteger rendered = new AtomicInteger();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        // the same guard the per-asset routes put in front of their lookup and render
+        app = Javalin.create()
+                .get("/asset", ctx -> {
+                    if (ConditionalGet.notModified(ctx, entry.get())) {
+                        return;
+                    }
+                    rendered.incrementAndGet();
+                    ctx.result("<p>asset</p>");
+                })
+                .start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        app.stop();
+    }
+
+    @Test
+    void matchingEtagIsAnswered304WithoutRendering() throws Exception {
+        var first = get(null, null);
+        assertEquals(200, first.statusCode());
+        assertEquals("no-cache", header(first, "Cache-Control"));
+        var etag = header(first, "ETag");
+
+        var repeat = get(etag, null);
+        assertEquals(304, repeat.statusCode());
+        assertEquals("", repeat.body());
+        assertEquals(etag, header(repeat, "ETag"));
+        assertEquals(1, rendered.get());
+
+        // weak comparison, a list of tags and * all count
+        assertEquals(304, get("W/" + etag, null).statusCode());
+        assertEquals(304, get("\"other\", " + etag, null).statusCode());
+        assertEquals(304, get("*", null).statusCode());
+        assertEquals(200, get("\"other\"", null).statusCode());
+        assertEquals(2, rendered.get());
+    }
+
+    @Test
+    void changedEntryInvalidatesTheOldEtag() throws Exception {
+        var etag = header(get(null, null), "ETag");
+
+        entry.set(entry(4, MODIFIED + 60_000));
+        var changed = get(etag, null);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, header(changed, "ETag"));
+
+        // an asset-only edit bumps the version but may keep the timestamp
+        var edited = header(changed, "ETag");
+        entry.set(entry(5, MODIFIED + 60_000));
+        assertEquals(200, get(edited, null).statusCode());
+    }
+
+    @Test
+    void ifModifiedSinceIsHonouredWithoutAnEtag() throws Exception {
+        var lastModified = header(get(null, null), "Last-Modified");
+
+        assertEquals(304, get(null, lastModified).statusCode());
+        assertEquals(200, get(null, "Tue, 14 Nov 2023 22:13:19 GMT").statusCode());
+        assertEquals(200, get(null, "yesterday").statusCode());
+    }
+
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() throws Exception {
+        var first = get(null, null);
+        var lastModified = header(first, "Last-Modified");
+
+        assertEquals(200, get("\"stale\"", lastModified).statusCode());
+        assertEquals(304, get(header(first, "ETag"), "Tue, 14 Nov 2023 22:13:19 GMT").statusCode());
+    }
+
+    @Test
+    void tagsFromAnEarlierLoadNeverMatch() {
+        var entry = entry(3, MODIFIED);
+        var before = ConditionalGet.etag(entry, 1_000);
+        var after = ConditionalGet.etag(entry, 2_000);
+        assertNotEquals(before, after);
+        assertFalse(ConditionalGet.matches(before, after));
+        assertTrue(ConditionalGet.matches(after, after));
+    }
+
+    private HttpResponse<String> get(String ifNoneMatch, String ifModifiedSince) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + app.port() + "/asset"));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        if (ifModifiedSince != null) {
+            request.header("If-Modified-Since", ifModifiedSince);
+        }
+        return client.send(request.GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String header(HttpResponse<?> response, String name) {
+        return response.headers().firstValue(name).orElse(null);
+    }
+
+    private static AssetEntry entry(long version, long modified) {
+        var row = new TranslationRow(1, 1, 1, "Main menu", modified, 1);
+        return new AssetEntry(new AssetRow(1, "GAME_MAIN_MENU", "/menu", null),
+                new TranslationRow[]{row}, new TranslationRow[]{row}, version, modified);
+    }
+}
@@ -0,0 +1,90 @@
+package org.example;
+
+import io.javalin.Javalin;
+import org.example.db.DBUtils;
+import org.example.db.Migrations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadSheddingTest {
+    private static final String BATCH = """
+            {"mutations": [{"assetId": 1, "projectId": 1, "languageId": 2, "translation": "Hauptmenü", "expectedUpdated": 0}]}""";
+
+    @TempDir
+    Path directory;
+    private Javalin app;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        // one write may wait behind the one being committed, nothing more
+        System.setProperty("amorphous.db.write.maxQueued", "1");
+        DBUtils.setUrl("jdbc:sqlite:" + directory.resolve("amorphous"));
+        Migrations.migrate();
+        DBUtils.executeUpdate("INSERT INTO language_lookup VALUES (1, 'english', 'en'), (2, 'german', 'de')");
+        DBUtils.executeUpdate("INSERT INTO project VALUES (1, 'game')");
+        DBUtils.executeUpdate("INSERT INTO user VALUES (" + Main.DEFAULT_USER_ID + ", 'admin')");
+        DBUtils.executeUpdate("INSERT INTO asset VALUES (1, 'GAME_MAIN_MENU', '/menu', null)");
+        DBUtils.executeUpdate("""
+                INSERT INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+                VALUES (1, 1, 1, 'Main menu', 100, 1)""");
+        app = Main.start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        app.stop();
+        DBUtils.close();
+        System.clearProperty("amorphous.db.write.maxQueued");
+    }
+
+    @Test
+    void fullWriteQueueIsAnswered503AndRecovers() throws Exception {
+        var committing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var blocker = DBUtils.writes().submit(session -> {
+            committing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }, null);
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        var queued = DBUtils.writes().submit(session -> true, null);
+
+        var shed = post("/translations/batch", BATCH);
+        assertEquals(503, shed.statusCode());
+        assertEquals("1", shed.headers().firstValue("Retry-After").orElse(null));
+
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+
+        var retried = post("/translations/batch", BATCH);
+        assertEquals(200, retried.statusCode());
+        assertTrue(retried.body().contains("\"applied\":1"), retried.body());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + app.port() + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
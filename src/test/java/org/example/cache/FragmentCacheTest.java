@@ -0,0 +1,168 @@
+package org.example.cache;
+
+import org.example.cache.FragmentCache.FragmentKey;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FragmentCacheTest {
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    void secondLookupIsAHit() {
+        var cache = new FragmentCache(1024);
+        var key = key("localization", 1, 7);
+
+        assertEquals("<p>1</p>", html(cache.get(key, render("<p>1</p>"))));
+        assertEquals("<p>1</p>", html(cache.get(key, render("<p>other</p>"))));
+        assertEquals(1, renders.get());
+
+        // a newer version of the same asset is a different fragment
+        assertEquals("<p>2</p>", html(cache.get(key("localization", 1, 8), render("<p>2</p>"))));
+        var stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(2, stats.entries());
+    }
+
+    @Test
+    void changeDropsExactlyTheChangedAssetsAndTheCatalogWideFragments() {
+        var cache = new FragmentCache(1024);
+        cache.get(key("localization", 1, 1), render("one"));
+        cache.get(key("inspect-asset", 1, 1), render("one"));
+        cache.get(key("localization", 2, 1), render("two"));
+        cache.get(key("localization", 3, 1), render("three"));
+        cache.get(key("menu-hud", FragmentCache.ALL_ASSETS, 1), render("list"));
+
+        cache.onChange(null, null, new int[]{1, 3});
+
+        var stats = cache.stats();
+        assertEquals(1, stats.entries());
+        assertEquals(4, stats.invalidations());
+        assertEquals("two".length(), stats.bytes());
+        cache.get(key("localization", 2, 1), render("unused"));
+        assertEquals(5, renders.get());
+    }
+
+    @Test
+    void loadDropsEverything() {
+        var cache = new FragmentCache(1024);
+        cache.get(key("localization", 1, 1), render("one"));
+        cache.get(key("menu-hud", FragmentCache.ALL_ASSETS, 1), render("list"));
+
+        cache.onLoad(null);
+        assertEquals(0, cache.stats().entries());
+        assertEquals(0, cache.stats().bytes());
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvictedFirst() {
+        var cache = new FragmentCache(30);
+        var first = key("localization", 1, 1);
+        var second = key("localization", 2, 1);
+        var third = key("localization", 3, 1);
+        cache.get(first, render("a".repeat(10)));
+        cache.get(second, render("b".repeat(10)));
+        cache.get(first, render("unused"));
+        cache.get(third, render("c".repeat(15)));
+
+        // second was touched least recently
+        var stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(25, stats.bytes());
+        cache.get(first, render("unused"));
+        cache.get(third, render("unused"));
+        assertEquals(3, renders.get());
+        cache.get(second, render("b"));
+        assertEquals(4, renders.get());
+
+        // evicted keys are gone from the per-asset index too, so invalidating them counts nothing
+        var invalidations = cache.stats().invalidations();
+        cache.invalidate(2);
+        cache.invalidate(2);
+        assertEquals(invalidations + 1, cache.stats().invalidations());
+    }
+
+    @Test
+    void fragmentLargerThanTheCacheIsServedButNotKept() {
+        var cache = new FragmentCache(8);
+        var fragment = cache.get(key("localization", 1, 1), render("x".repeat(9)));
+        assertEquals("x".repeat(9), html(fragment));
+        assertEquals(0, cache.stats().entries());
+        assertEquals(0, cache.stats().bytes());
+    }
+
+    @Test
+    void largeFragmentsKeepAGzipVariant() {
+        var cache = new FragmentCache(1 << 20);
+        var fragment = cache.get(key("menu-hud", FragmentCache.ALL_ASSETS, 1), render("<li>row</li>".repeat(1000)));
+        assertNotNull(fragment.gzip());
+        assertTrue(fragment.gzip().length < fragment.identity().length);
+        assertEquals(fragment.identity().length + fragment.gzip().length, cache.stats().bytes());
+        assertNull(cache.get(key("localization", 1, 1), render("<p>small</p>")).gzip());
+    }
+
+    @Test
+    void concurrentLookupsAndInvalidationsKeepTheAccountingExact() throws Exception {
+        var cache = new FragmentCache(4096);
+        var threads = 8;
+        var start = new CountDownLatch(1);
+        var tasks = new ArrayList<Callable<Void>>();
+        for (int t = 0; t < threads; t++) {
+            var seed = t;
+            tasks.add(() -> {
+                start.await();
+                for (int i = 0; i < 2_000; i++) {
+                    var assetId = (seed + i) % 16;
+                    cache.get(key("localization", assetId, i % 3), () -> "asset " + assetId + " ".repeat(assetId * 10));
+                    if (i % 7 == 0) {
+                        cache.onChange(null, null, new int[]{(seed * i) % 16});
+                    }
+                }
+                return null;
+            });
+        }
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var futures = tasks.stream().map(executor::submit).toList();
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        var stats = cache.stats();
+        assertTrue(stats.bytes() <= stats.maxBytes());
+        assertEquals((long) threads * 2_000, stats.hits() + stats.misses());
+        for (int assetId = 0; assetId < 16; assetId++) {
+            cache.invalidate(assetId);
+        }
+        assertEquals(0, cache.stats().entries());
+        assertEquals(0, cache.stats().bytes());
+    }
+
+    private static FragmentKey key(String template, int assetId, long version) {
+        return new FragmentKey(template, assetId, version, "");
+    }
+
+    private Supplier<String> render(String html) {
+        return () -> {
+            renders.incrementAndGet();
+            return html;
+        };
+    }
+
+    private static String html(FragmentCache.Fragment fragment) {
+        return new String(fragment.identity(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogDiffTest {
+    private static final int ENGLISH = 1;
+    private static final int GERMAN = 2;
+    private static final int PROJECT = 1;
+
+    @Test
+    void unchangedSnapshotsHaveAnEmptyDiff() {
+        var base = base();
+        assertTrue(CatalogDiff.between(base, base).isEmpty());
+        assertTrue(CatalogDiff.between(base, base()).isEmpty());
+    }
+
+    @Test
+    void derivedSnapshotRoundTrips() {
+        var base = base();
+        var assets = base.assets()
+                .with(1, base.asset(1).withTranslation(row(1, GERMAN, "Hauptmenü", 50), 1))
+                .with(2, base.asset(2).withAsset(new AssetRow(2, "GAME_OPTIONS", "/options", "renamed"), 1, 60))
+                .with(3, null)
+                .with(200, entry(new AssetRow(200, "NEW_ASSET", "/new", null), row(200, ENGLISH, "New", 70)));
+        var after = snapshot(1, assets);
+
+        var diff = CatalogDiff.between(base, after);
+        assertEquals(List.of(2, 3, 200), diff.assets().stream().map(CatalogDiff.AssetChange::assetId).toList());
+        assertNull(diff.assets().get(1).after());
+        assertEquals(List.of(1, 3, 200), diff.cells().stream().map(CatalogDiff.CellChange::assetId).distinct().toList());
+
+        var applied = diff.applyTo(base, after.version());
+        assertEquals(after.version(), applied.version());
+        assertTrue(CatalogDiff.between(applied, after).isEmpty());
+        assertTrue(CatalogDiff.between(after, applied).isEmpty());
+        assertNull(applied.asset(3));
+        assertEquals("Hauptmenü", applied.asset(1).translation(PROJECT, GERMAN).translation());
+        assertEquals(row(1, GERMAN, "Hauptmenü", 50), applied.asset(1).latest(PROJECT));
+        // untouched entries are shared, not copied
+        assertSame(base.asset(4), applied.asset(4));
+    }
+
+    @Test
+    void separatelyLoadedSnapshotsRoundTrip() {
+        var base = base();
+        var rebuilt = new ArrayList<TranslationRow>(List.of(base.asset(1).translations()));
+        rebuilt.removeIf(row -> row.languageId() == ENGLISH);
+        rebuilt.add(row(1, ENGLISH, "Main menu", 80));
+        rebuilt.sort(AssetEntry.TRANSLATION_ORDER);
+        // every entry loaded anew, so nothing is shared with base
+        var builder = new CowArray.Builder<AssetEntry>();
+        base.assets().forEach((assetId, entry) -> {
+            builder.put(assetId, assetId == 1
+                    ? AssetEntry.loaded(entry.asset(), rebuilt.toArray(new TranslationRow[0]))
+                    : AssetEntry.loaded(entry.asset(), entry.translations().clone()));
+            return true;
+        });
+        var after = snapshot(5, builder.build());
+
+        var diff = CatalogDiff.between(base, after);
+        assertEquals(List.of(), diff.assets());
+        assertEquals(1, diff.cells().size());
+        var cell = diff.cells().getFirst();
+        assertEquals("Main", cell.before().translation());
+        assertEquals("Main menu", cell.after().translation());
+
+        assertTrue(CatalogDiff.between(diff.applyTo(base, 5), after).isEmpty());
+    }
+
+    @Test
+    void removedCellsAndAssetsApplyWithoutTheBeforeSide() {
+        var base = base();
+        var after = snapshot(1, base.assets()
+                .with(1, AssetEntry.loaded(base.asset(1).asset(), new TranslationRow[]{row(1, GERMAN, "Menü", 2)}))
+                .with(3, null));
+
+        // a diff read back from storage only knows the after side
+        var diff = CatalogDiff.between(base, after);
+        var afterOnly = new CatalogDiff(
+                diff.assets().stream().map(change -> new CatalogDiff.AssetChange(change.assetId(), null, change.after())).toList(),
+                diff.cells().stream().map(change -> new CatalogDiff.CellChange(change.assetId(), change.projectId(),
+                        change.languageId(), null, change.after())).toList());
+
+        var applied = afterOnly.applyTo(base, 1);
+        assertTrue(CatalogDiff.between(applied, after).isEmpty());
+        assertEquals(1, applied.asset(1).translations().length);
+    }
+
+    private static CatalogSnapshot base() {
+        var assets = CowArray.<AssetEntry>empty()
+                .with(1, entry(new AssetRow(1, "GAME_MAIN_MENU", "/menu", "main menu"),
+                        row(1, ENGLISH, "Main", 1), row(1, GERMAN, "Menü", 2)))
+                .with(2, entry(new AssetRow(2, "GAME_SETTINGS", "/settings", null), row(2, ENGLISH, "Settings", 3)))
+                .with(3, entry(new AssetRow(3, "GAME_QUIT", "/quit", null), row(3, ENGLISH, "Quit", 4)))
+                .with(4, entry(new AssetRow(4, "GAME_EMPTY", "/empty", null)));
+        return snapshot(0, assets);
+    }
+
+    private static CatalogSnapshot snapshot(long version, CowArray<AssetEntry> assets) {
+        return new CatalogSnapshot(version, assets, CowArray.empty(), CowArray.empty(), CowArray.empty());
+    }
+
+    private static AssetEntry entry(AssetRow asset, TranslationRow... translations) {
+        return AssetEntry.loaded(asset, translations);
+    }
+
+    private static TranslationRow row(int assetId, int languageId, String text, long updated) {
+        return new TranslationRow(assetId, PROJECT, languageId, text, updated, 1);
+    }
+}
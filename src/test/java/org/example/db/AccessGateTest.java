@@ -0,0 +1,107 @@
+package org.example.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessGateTest {
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Test
+    void readersBeyondThePermitsAndTheQueueAreShed() {
+        var gate = new AccessGate(2, 0, 0, TIMEOUT_MILLIS);
+        gate.enterRead();
+        gate.enterRead();
+
+        assertThrows(PoolSaturatedException.class, gate::enterRead);
+        assertEquals(1, gate.rejected());
+        assertEquals(0, gate.queuedReads());
+
+        gate.exitRead();
+        gate.enterRead();
+        assertEquals(1, gate.rejected());
+    }
+
+    @Test
+    void queuedReaderGetsInOnceAPermitIsReleased() throws Exception {
+        var gate = new AccessGate(1, 1, 0, TIMEOUT_MILLIS);
+        gate.enterRead();
+
+        var waiting = CompletableFuture.runAsync(gate::enterRead);
+        awaitQueued(() -> gate.queuedReads() == 1);
+        // the one queue slot is taken, so the next caller is shed at once
+        assertThrows(PoolSaturatedException.class, gate::enterRead);
+        assertFalse(waiting.isDone());
+
+        gate.exitRead();
+        waiting.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(0, gate.queuedReads());
+        assertEquals(1, gate.rejected());
+    }
+
+    @Test
+    void waitingPastTheTimeoutIsShed() {
+        var gate = new AccessGate(1, 1, 1, 50);
+        gate.enterWrite();
+
+        var start = System.nanoTime();
+        assertThrows(PoolSaturatedException.class, gate::enterWrite);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, gate.queuedWrites());
+        assertEquals(1, gate.rejected());
+    }
+
+    @Test
+    void thereIsOnlyEverOneWriterAndReadsDoNotWaitForIt() throws Exception {
+        var gate = new AccessGate(1, 0, 1, TIMEOUT_MILLIS);
+        gate.enterWrite();
+        gate.enterRead();
+        gate.exitRead();
+
+        var second = CompletableFuture.runAsync(gate::enterWrite);
+        awaitQueued(() -> gate.queuedWrites() == 1);
+        assertFalse(second.isDone());
+
+        gate.exitWrite();
+        second.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(0, gate.rejected());
+    }
+
+    @Test
+    void interruptedWaiterIsShedAndKeepsItsInterrupt() throws Exception {
+        var gate = new AccessGate(1, 1, 1, TIMEOUT_MILLIS);
+        gate.enterRead();
+
+        var outcome = new CompletableFuture<Boolean>();
+        var waiter = Thread.ofVirtual().start(() -> {
+            try {
+                gate.enterRead();
+                outcome.complete(false);
+            } catch (PoolSaturatedException e) {
+                outcome.complete(Thread.currentThread().isInterrupted());
+            }
+        });
+        awaitQueued(() -> gate.queuedReads() == 1);
+        waiter.interrupt();
+
+        assertTrue(outcome.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        assertEquals(0, gate.queuedReads());
+    }
+
+    private static void awaitQueued(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("caller never queued");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MigrationsTest {
+    private static final NamedQuery SCHEMA_OBJECTS = new NamedQuery("testSchemaObjects", """
+            SELECT type || ':' || name
+            FROM sqlite_master
+            WHERE name LIKE 'asset_latest_update%'
+            ORDER BY type, name;
+            """);
+
+    private static final NamedQuery INSERT = new NamedQuery("testInsert", """
+            INSERT INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+            VALUES (?, ?, ?, ?, ?, ?);
+            """);
+
+    private static final NamedQuery RECORD_VERSION = new NamedQuery("testRecordVersion", """
+            INSERT INTO schema_version (version, description, applied)
+            VALUES (?, ?, ?);
+            """);
+
+    @TempDir
+    Path directory;
+    private Database database;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new Database("jdbc:sqlite:" + directory.resolve("amorphous"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void migrateIsIdempotent() {
+        var version = Migrations.migrate(database);
+        assertEquals(Migrations.ALL.getLast().version(), version);
+        assertEquals(version, Migrations.currentVersion(database));
+        assertEquals(version, Migrations.migrate(database));
+    }
+
+    @Test
+    void latestUpdateSummaryIsGone() {
+        Migrations.migrate(database);
+        assertEquals(List.of(), schemaObjects());
+    }
+
+    @Test
+    void upgradeDropsTheSummaryAndItsTriggers() {
+        // a database migrated before the summary was dropped, with rows the triggers kept up to date
+        migrateTo(3);
+        assertEquals(4, schemaObjects().size());
+        assertEquals(1, database.update(INSERT, 1, 1, 1, "text", 100, 7));
+
+        Migrations.migrate(database);
+        assertEquals(List.of(), schemaObjects());
+        // writes no longer touch the dropped table
+        assertEquals(1, database.update(INSERT, 1, 1, 2, "text", 200, 7));
+        database.executeUpdate("UPDATE language_translation SET updated = 300 WHERE language_id = 1");
+        database.executeUpdate("DELETE FROM language_translation WHERE language_id = 2");
+    }
+
+    private void migrateTo(int version) {
+        database.executeUpdate("""
+                CREATE TABLE schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied DATETIME NOT NULL
+                );""");
+        for (var migration : Migrations.ALL.subList(0, version)) {
+            database.write(session -> {
+                migration.apply().apply(session);
+                return session.update(RECORD_VERSION, migration.version(), migration.description(), 0);
+            }, null);
+        }
+        assertEquals(version, Migrations.currentVersion(database));
+    }
+
+    private List<String> schemaObjects() {
+        return database.query(SCHEMA_OBJECTS, row -> row.getString(1));
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardsTest {
+    private static final NamedQuery TRANSLATIONS = new NamedQuery("testTranslations", """
+            SELECT project_id || ':' || asset_id || ':' || language_id || ':' || translation
+            FROM language_translation
+            ORDER BY project_id, asset_id, language_id;
+            """);
+
+    private static final NamedQuery USERS = new NamedQuery("testUsers", """
+            SELECT user_name
+            FROM user
+            ORDER BY user_id;
+            """);
+
+    private static final NamedQuery INSERT = new NamedQuery("testInsert", """
+            INSERT INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+            VALUES (?, ?, ?, ?, ?, ?);
+            """);
+
+    @TempDir
+    Path directory;
+    private Database primary;
+    private Shards shards;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = new Database("jdbc:sqlite:" + directory.resolve("amorphous"));
+        Migrations.migrate(primary);
+        primary.executeUpdate("INSERT INTO language_lookup VALUES (1, 'english', 'en'), (2, 'german', 'de')");
+        primary.executeUpdate("INSERT INTO project VALUES (1, 'game'), (2, 'launcher')");
+        primary.executeUpdate("INSERT INTO user VALUES (1, 'admin'), (2, 'vendor')");
+        primary.executeUpdate("INSERT INTO asset VALUES (1, 'GAME_MAIN_MENU', '/menu', null), (2, 'GAME_QUIT', '/quit', null)");
+        primary.executeUpdate("""
+                INSERT INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+                VALUES (1, 1, 1, 'Main menu', 100, 1),
+                       (1, 1, 2, 'Hauptmenü', 200, 2),
+                       (2, 2, 1, 'Quit', 300, 1)""");
+        shards = new Shards(primary, directory.resolve("shards"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        shards.close();
+        primary.close();
+    }
+
+    @Test
+    void firstUseMovesTheProjectIntoItsShard() throws SQLException {
+        var shard = shards.forProject(1);
+
+        assertNotSame(primary, shard);
+        assertSame(shard, shards.forProject(1));
+        assertEquals(List.of(1), shards.projects());
+        assertEquals(List.of("1:1:1:Main menu", "1:1:2:Hauptmenü"), shard.query(TRANSLATIONS, row -> row.getString(1)));
+        assertEquals(List.of("2:2:1:Quit"), primary.query(TRANSLATIONS, row -> row.getString(1)));
+        // the shard joins locally against its replica of the shared tables
+        assertEquals(List.of("admin", "vendor"), shard.query(USERS, row -> row.getString(1)));
+    }
+
+    @Test
+    void eachProjectWritesToItsOwnShard() throws SQLException {
+        var committed = shards.writeEach(Map.<Integer, SQLFunction<Integer>>of(
+                1, session -> session.update(INSERT, 2, 1, 1, "Quit game", 400, 1),
+                2, session -> session.update(INSERT, 1, 2, 1, "Launcher menu", 500, 1)), null);
+
+        assertEquals(Map.of(1, 1, 2, 1), committed);
+        assertEquals(List.of("1:1:1:Main menu", "1:1:2:Hauptmenü", "1:2:1:Quit game"),
+                shards.forProject(1).query(TRANSLATIONS, row -> row.getString(1)));
+        assertEquals(List.of("2:1:1:Launcher menu", "2:2:1:Quit"), shards.forProject(2).query(TRANSLATIONS, row -> row.getString(1)));
+        assertEquals(List.of(1, 2), shards.projects());
+        assertEquals(List.of(), primary.query(TRANSLATIONS, row -> row.getString(1)));
+    }
+
+    @Test
+    void reopenedShardsRefreshTheirSharedTables() throws SQLException {
+        shards.forProject(1);
+        shards.close();
+        primary.executeUpdate("INSERT INTO user VALUES (3, 'reviewer')");
+
+        shards = new Shards(primary, directory.resolve("shards"));
+        shards.open();
+
+        assertEquals(List.of(1), shards.projects());
+        var shard = shards.forProject(1);
+        assertEquals(List.of("admin", "vendor", "reviewer"), shard.query(USERS, row -> row.getString(1)));
+        assertTrue(shard.query(TRANSLATIONS, row -> row.getString(1)).contains("1:1:2:Hauptmenü"));
+    }
+}
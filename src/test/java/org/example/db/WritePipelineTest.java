@@ -0,0 +1,141 @@
+package org.example.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WritePipelineTest {
+    private static final NamedQuery INSERT = new NamedQuery("testInsert", """
+            INSERT INTO note (id, text)
+            VALUES (?, ?);
+            """);
+
+    private static final NamedQuery IDS = new NamedQuery("testIds", """
+            SELECT id
+            FROM note
+            ORDER BY id;
+            """);
+
+    @TempDir
+    Path directory;
+    private Database database;
+    private WritePipeline pipeline;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new Database("jdbc:sqlite:" + directory.resolve("amorphous"));
+        database.executeUpdate("CREATE TABLE note (id INTEGER PRIMARY KEY, text TEXT NOT NULL)");
+        // a generous window, so everything queued behind a blocked group lands in the next one
+        pipeline = new WritePipeline(database.pool(), 4, 16, 50_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pipeline.close();
+        database.close();
+    }
+
+    @Test
+    void failingTaskRollsBackAloneWhileItsGroupCommits() throws Exception {
+        var blocker = blockWriter();
+        var first = pipeline.submit(session -> session.update(INSERT, 1, "one"), null);
+        var failing = pipeline.submit(session -> {
+            session.update(INSERT, 2, "two");
+            // the primary key clash fails the task after its first row went in
+            return session.update(INSERT, 1, "again");
+        }, null);
+        var third = pipeline.submit(session -> session.update(INSERT, 3, "three"), null);
+        release.countDown();
+
+        blocker.get(5, TimeUnit.SECONDS);
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, third.get(5, TimeUnit.SECONDS));
+        var failure = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, failure.getCause());
+
+        assertEquals(List.of(1, 3), database.query(IDS, row -> row.getInt(1)));
+        var stats = pipeline.stats();
+        assertEquals(2, stats.groups());
+        assertEquals(3, stats.maxGroupSize());
+        assertEquals(3, stats.committedTasks());
+        assertEquals(1, stats.failedTasks());
+    }
+
+    @Test
+    void afterCommitRunsInCommitOrderBeforeTheCallerSeesTheResult() throws Exception {
+        var seen = Collections.synchronizedList(new ArrayList<String>());
+        var blocker = blockWriter();
+        var writes = new ArrayList<CompletableFuture<Integer>>();
+        for (int id = 1; id <= 3; id++) {
+            var row = id;
+            var note = "note " + id;
+            writes.add(pipeline.submit(session -> session.update(INSERT, row, note),
+                    count -> seen.add(note + " on " + Thread.currentThread().getName())));
+        }
+        release.countDown();
+
+        blocker.get(5, TimeUnit.SECONDS);
+        for (var write : writes) {
+            write.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of("note 1 on amorphous-writer", "note 2 on amorphous-writer", "note 3 on amorphous-writer"), seen);
+    }
+
+    @Test
+    void fullQueueAndClosedPipelineRejectWrites() throws Exception {
+        var blocker = blockWriter();
+        var queued = new ArrayList<CompletableFuture<Integer>>();
+        for (int id = 1; id <= 4; id++) {
+            var row = id;
+            queued.add(pipeline.submit(session -> session.update(INSERT, row, "queued"), null));
+        }
+        assertThrows(PoolSaturatedException.class, () -> pipeline.submit(session -> 0, null));
+        assertEquals(1, pipeline.stats().rejectedTasks());
+
+        // closing drains what was already queued
+        release.countDown();
+        pipeline.close();
+        blocker.get(5, TimeUnit.SECONDS);
+        for (var write : queued) {
+            assertEquals(1, write.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(1, 2, 3, 4), database.query(IDS, row -> row.getInt(1)));
+        assertThrows(PoolSaturatedException.class, () -> pipeline.submit(session -> 0, null));
+    }
+
+    /**
+     * Holds the writer thread in a group of its own until {@link #release} opens.
+     */
+    private CompletableFuture<Boolean> blockWriter() throws InterruptedException {
+        var committing = new CountDownLatch(1);
+        var blocker = pipeline.submit(session -> {
+            committing.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }, null);
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        return blocker;
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.mutation;
+
+import org.example.catalog.Catalog;
+import org.example.db.DBUtils;
+import org.example.db.Migrations;
+import org.example.db.NamedQuery;
+import org.example.validation.PlaceholderRule;
+import org.example.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchMutationTest {
+    private static final int USER = 1;
+    private static final int PROJECT = 1;
+    private static final int ENGLISH = 1;
+    private static final int GERMAN = 2;
+
+    private static final NamedQuery TEXT = new NamedQuery("testText", """
+            SELECT translation
+            FROM language_translation
+            WHERE asset_id = ? AND project_id = ? AND language_id = ?;
+            """);
+
+    @TempDir
+    Path directory;
+    private final Validator validator = new Validator(List.of(new PlaceholderRule()));
+
+    @BeforeEach
+    void setUp() {
+        DBUtils.setUrl("jdbc:sqlite:" + directory.resolve("amorphous"));
+        Migrations.migrate();
+        DBUtils.executeUpdate("INSERT INTO language_lookup VALUES (1, 'english', 'en'), (2, 'german', 'de')");
+        DBUtils.executeUpdate("INSERT INTO project VALUES (1, 'game')");
+        DBUtils.executeUpdate("INSERT INTO user VALUES (1, 'admin')");
+        DBUtils.executeUpdate("INSERT INTO asset VALUES (1, 'GAME_MAIN_MENU', '/menu', null), (2, 'GAME_QUIT', '/quit', null)");
+        DBUtils.executeUpdate("""
+                INSERT INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+                VALUES (1, 1, 1, 'Main menu', 100, 1),
+                       (1, 1, 2, 'Hauptmenü', 200, 1),
+                       (2, 1, 1, 'Quit {0}', 300, 1)""");
+        Catalog.load();
+        validator.onLoad(Catalog.snapshot());
+    }
+
+    @AfterEach
+    void tearDown() {
+        DBUtils.close();
+    }
+
+    @Test
+    void staleTokenIsAConflictCarryingTheCurrentText() {
+        var result = apply(new TranslationMutation(1, PROJECT, GERMAN, "Menü", 150));
+
+        assertEquals(0, result.applied());
+        assertEquals(1, result.conflicts());
+        var conflict = result.results().getFirst();
+        assertEquals(MutationStatus.CONFLICT, conflict.status());
+        assertEquals(200, conflict.updated());
+        assertEquals("Hauptmenü", conflict.currentTranslation());
+        assertEquals("Hauptmenü", stored(1, GERMAN));
+    }
+
+    @Test
+    void returnedTokenGuardsTheNextWrite() {
+        var first = apply(new TranslationMutation(1, PROJECT, GERMAN, "Menü", 200)).results().getFirst();
+        assertEquals(MutationStatus.APPLIED, first.status());
+        assertEquals(first.updated(), Catalog.snapshot().asset(1).translation(PROJECT, GERMAN).updated());
+
+        // a second editor still holding the old token loses
+        var late = apply(new TranslationMutation(1, PROJECT, GERMAN, "Hauptmenü!", 200)).results().getFirst();
+        assertEquals(MutationStatus.CONFLICT, late.status());
+        assertEquals("Menü", late.currentTranslation());
+
+        var next = apply(new TranslationMutation(1, PROJECT, GERMAN, "Startmenü", first.updated())).results().getFirst();
+        assertEquals(MutationStatus.APPLIED, next.status());
+        assertEquals("Startmenü", stored(1, GERMAN));
+    }
+
+    @Test
+    void raceLostInTheDatabaseIsAConflictWhileTheRestCommits() {
+        // another writer got in after the catalog was read
+        DBUtils.executeUpdate("UPDATE language_translation SET translation = 'Menü', updated = 250 WHERE asset_id = 1 AND language_id = 2");
+
+        var result = apply(
+                new TranslationMutation(1, PROJECT, GERMAN, "Hauptmenü 2", 200),
+                new TranslationMutation(1, PROJECT, ENGLISH, "Main menu 2", 100));
+
+        assertEquals(1, result.applied());
+        assertEquals(1, result.conflicts());
+        assertEquals(MutationStatus.CONFLICT, result.results().get(0).status());
+        assertEquals(MutationStatus.APPLIED, result.results().get(1).status());
+        assertEquals("Menü", stored(1, GERMAN));
+        assertEquals("Main menu 2", stored(1, ENGLISH));
+    }
+
+    @Test
+    void insertOfACellCreatedMeanwhileIsAConflict() {
+        DBUtils.executeUpdate("""
+                INSERT INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+                VALUES (2, 1, 2, 'Beenden {0}', 400, 1)""");
+
+        var conflict = apply(new TranslationMutation(2, PROJECT, GERMAN, "Verlassen {0}", 0)).results().getFirst();
+        assertEquals(MutationStatus.CONFLICT, conflict.status());
+        assertEquals("Beenden {0}", stored(2, GERMAN));
+    }
+
+    @Test
+    void unchangedAndInvalidEntriesAreNotConflicts() {
+        var result = apply(
+                new TranslationMutation(1, PROJECT, ENGLISH, "Main menu", 100),
+                new TranslationMutation(2, PROJECT, GERMAN, "Beenden", 0),
+                new TranslationMutation(9, PROJECT, GERMAN, "?", 0));
+
+        assertEquals(0, result.conflicts());
+        assertEquals(MutationStatus.UNCHANGED, result.results().get(0).status());
+        assertEquals(MutationStatus.INVALID, result.results().get(1).status());
+        assertEquals(MutationStatus.INVALID, result.results().get(2).status());
+        assertNull(stored(2, GERMAN));
+    }
+
+    @Test
+    void unknownUserRefusesTheWholeBatch() {
+        var mutations = List.of(new TranslationMutation(1, PROJECT, GERMAN, "Menü", 200));
+        assertThrows(IllegalArgumentException.class, () -> BatchMutation.apply(mutations, 99, validator));
+
+        assertEquals("Hauptmenü", stored(1, GERMAN));
+        assertEquals(200, Catalog.snapshot().asset(1).translation(PROJECT, GERMAN).updated());
+    }
+
+    private BatchResult apply(TranslationMutation... mutations) {
+        return BatchMutation.apply(List.of(mutations), USER, validator);
+    }
+
+    private static String stored(int assetId, int languageId) {
+        var texts = DBUtils.query(TEXT, row -> row.getString(1), assetId, PROJECT, languageId);
+        return texts.isEmpty() ? null : texts.getFirst();
+    }
+}
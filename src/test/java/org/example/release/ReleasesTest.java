@@ -0,0 +1,175 @@
+package org.example.release;
+
+import org.example.catalog.Catalog;
+import org.example.catalog.CatalogSnapshot;
+import org.example.db.DBUtils;
+import org.example.db.LanguageTranslation;
+import org.example.db.Migrations;
+import org.example.db.NamedQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReleasesTest {
+    private static final int USER = 1;
+    private static final int PROJECT = 1;
+    private static final int ENGLISH = 1;
+    private static final int GERMAN = 2;
+
+    private static final NamedQuery UPSERT = new NamedQuery("testUpsertTranslation", """
+            INSERT OR REPLACE INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+            VALUES (?, ?, ?, ?, ?, ?);
+            """);
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        DBUtils.setUrl("jdbc:sqlite:" + directory.resolve("amorphous"));
+        Migrations.migrate();
+        DBUtils.executeUpdate("INSERT INTO language_lookup VALUES (1, 'english', 'en'), (2, 'german', 'de')");
+        DBUtils.executeUpdate("INSERT INTO project VALUES (1, 'game')");
+        DBUtils.executeUpdate("INSERT INTO user VALUES (1, 'admin')");
+        DBUtils.executeUpdate("INSERT INTO asset VALUES (1, 'GAME_MAIN_MENU', '/menu', null), (2, 'GAME_QUIT', '/quit', null), (3, 'GAME_SAVE', '/save', null)");
+        DBUtils.executeUpdate("""
+                INSERT INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+                VALUES (1, 1, 1, 'Main menu', 100, 1),
+                       (1, 1, 2, 'Hauptmenü', 200, 1),
+                       (2, 1, 1, 'Quit', 300, 1),
+                       (3, 1, 1, 'Save', 400, 1)""");
+        Catalog.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DBUtils.close();
+    }
+
+    @Test
+    void replayAfterRestartReadsLikeTheReleasesDidBefore() {
+        var releases = new Releases();
+        releases.create("v1");
+        translate(1, GERMAN, "Menü", 500);
+        translate(2, GERMAN, "Beenden", 600);
+        // asset edits only live in memory, so after the restart only the release remembers this name
+        Catalog.applyAsset(2, "GAME_EXIT", "/exit", "leaves the game");
+        releases.create("v2");
+        translate(1, GERMAN, "Startmenü", 700);
+        releases.create("v3");
+
+        var before = contentsOf(releases);
+        var diff = releases.diff("v1", "v3");
+
+        Catalog.load();
+        var restarted = new Releases();
+        restarted.load();
+
+        assertEquals(releases.list(), restarted.list());
+        assertEquals(before, contentsOf(restarted));
+        assertEquals(diff, restarted.diff("v1", "v3"));
+        assertEquals("GAME_EXIT", restarted.snapshot("v2").asset(2).asset().name());
+        assertEquals("GAME_QUIT", Catalog.snapshot().asset(2).asset().name());
+        assertEquals("Hauptmenü", restarted.snapshot("v1").asset(1).translation(PROJECT, GERMAN).translation());
+        assertNull(restarted.snapshot("v1").asset(2).translation(PROJECT, GERMAN));
+        assertEquals(4, restarted.snapshot("v3").version());
+    }
+
+    @Test
+    void rebasedReleasesShareUntouchedEntriesWithHead() {
+        var releases = new Releases();
+        releases.create("v1");
+        translate(1, GERMAN, "Menü", 500);
+        releases.create("v2");
+
+        Catalog.load();
+        var restarted = new Releases();
+        restarted.load();
+
+        var head = Catalog.snapshot();
+        for (var name : List.of("v1", "v2")) {
+            assertSame(head.asset(2), restarted.snapshot(name).asset(2), name);
+            assertSame(head.asset(3), restarted.snapshot(name).asset(3), name);
+        }
+        assertSame(head.asset(1), restarted.snapshot("v2").asset(1));
+        assertNotSame(head.asset(1), restarted.snapshot("v1").asset(1));
+
+        // the next release is compared with the rebased chain, so it stores only what changed since v2
+        translate(3, GERMAN, "Speichern", 800);
+        var v3 = restarted.create("v3");
+        assertEquals(0, v3.changedAssets());
+        assertEquals(1, v3.changedCells());
+    }
+
+    @Test
+    void releasesTakenWhileTheCatalogChangesReplayToWhatTheyPinned() throws Exception {
+        var releases = new Releases();
+        var running = new AtomicBoolean(true);
+        var writer = new Thread(() -> {
+            var updated = 1_000L;
+            while (running.get()) {
+                updated++;
+                translate((int) (updated % 3) + 1, GERMAN, "text " + updated, updated);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 1; i <= 20; i++) {
+                releases.create("v" + i);
+                Thread.onSpinWait();
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+
+        var before = contentsOf(releases);
+        Catalog.load();
+        var restarted = new Releases();
+        restarted.load();
+
+        assertEquals(releases.list(), restarted.list());
+        assertEquals(before, contentsOf(restarted));
+    }
+
+    /**
+     * Persists one German translation and publishes it to the catalog the way the mutate routes do.
+     */
+    private static void translate(int assetId, int languageId, String text, long updated) {
+        DBUtils.update(UPSERT, assetId, PROJECT, languageId, text, updated, USER);
+        Catalog.applyTranslations(List.of(new LanguageTranslation(
+                assetId, null, text, updated, null, null, PROJECT, languageId, USER)));
+    }
+
+    private static HashMap<String, List<String>> contentsOf(Releases releases) {
+        var contents = new HashMap<String, List<String>>();
+        for (var release : releases.list()) {
+            contents.put(release.name(), contentsOf(releases.snapshot(release.name())));
+        }
+        return contents;
+    }
+
+    private static List<String> contentsOf(CatalogSnapshot snapshot) {
+        var lines = new ArrayList<String>();
+        snapshot.assets().forEach((assetId, entry) -> {
+            lines.add(entry.asset().toString());
+            for (var row : entry.translations()) {
+                lines.add(row.toString());
+            }
+            return true;
+        });
+        return lines;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.runtime;
+
+import org.example.catalog.Catalog;
+import org.example.db.DBUtils;
+import org.example.db.Migrations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StringLookupTest {
+    @TempDir
+    Path directory;
+    private final KeyIndex index = new KeyIndex();
+
+    @BeforeEach
+    void setUp() {
+        DBUtils.setUrl("jdbc:sqlite:" + directory.resolve("amorphous"));
+        Migrations.migrate();
+        DBUtils.executeUpdate("INSERT INTO language_lookup VALUES (1, 'english', 'en'), (2, 'german', 'de'), (3, 'swiss german', 'de-CH')");
+        DBUtils.executeUpdate("INSERT INTO project VALUES (1, 'game'), (2, 'dlc')");
+        DBUtils.executeUpdate("INSERT INTO user VALUES (1, 'admin')");
+        DBUtils.executeUpdate("INSERT INTO asset VALUES (1, 'GAME_MAIN_MENU', '/menu', null), (2, 'GAME_QUIT', '/quit', null), (3, 'GAME_SAVE', '/save', null)");
+        DBUtils.executeUpdate("""
+                INSERT INTO language_translation (asset_id, project_id, language_id, translation, updated, who_updated)
+                VALUES (1, 1, 1, 'Main menu', 100, 1),
+                       (1, 1, 2, 'Hauptmenü', 100, 1),
+                       (1, 1, 3, 'Hauptmenü CH', 100, 1),
+                       (2, 1, 1, 'Quit', 100, 1),
+                       (2, 1, 2, '', 100, 1),
+                       (3, 1, 1, 'Save', 100, 1),
+                       (3, 2, 2, 'Speichern', 100, 1)""");
+        Catalog.load();
+        index.onLoad(Catalog.snapshot());
+    }
+
+    @AfterEach
+    void tearDown() {
+        DBUtils.close();
+    }
+
+    @Test
+    void fallbackChainIsTriedInOrder() {
+        var result = resolve(new LookupRequest("de-CH", List.of("de", "en"), 1,
+                List.of("GAME_MAIN_MENU", "GAME_QUIT", "GAME_SAVE", "GAME_UNKNOWN"), null));
+
+        assertEquals(List.of("de-CH", "de", "en"), result.languages());
+        assertEquals(new LookupResult.Entry("GAME_MAIN_MENU", "Hauptmenü CH", 0), result.entries().get(0));
+        // empty text falls through to the next language
+        assertEquals(new LookupResult.Entry("GAME_QUIT", "Quit", 2), result.entries().get(1));
+        assertEquals(new LookupResult.Entry("GAME_SAVE", "Save", 2), result.entries().get(2));
+        assertEquals(new LookupResult.Entry("GAME_UNKNOWN", null, LookupResult.MISSING), result.entries().get(3));
+    }
+
+    @Test
+    void withoutAProjectAnyProjectWithTextAnswers() {
+        var pinned = resolve(new LookupRequest("de", null, 1, List.of("GAME_SAVE"), null));
+        assertNull(pinned.entries().getFirst().value());
+        assertEquals(LookupResult.MISSING, pinned.entries().getFirst().language());
+
+        var any = resolve(new LookupRequest("de", null, null, List.of("GAME_SAVE"), null));
+        assertEquals("Speichern", any.entries().getFirst().value());
+    }
+
+    @Test
+    void duplicateAndBlankFallbacksAreDropped() {
+        var result = resolve(new LookupRequest("de", Arrays.asList("de", " ", null, "en", "en"), 1,
+                List.of("GAME_QUIT"), null));
+        assertEquals(List.of("de", "en"), result.languages());
+        assertEquals(1, result.entries().getFirst().language());
+    }
+
+    @Test
+    void requestsOutsideTheLimitsAreRefused() {
+        var tooMany = new ArrayList<String>();
+        for (int i = 0; i <= StringLookup.MAX_KEYS; i++) {
+            tooMany.add("KEY_" + i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> resolve(new LookupRequest("en", null, 1, tooMany, null)));
+        assertEquals(StringLookup.MAX_KEYS, resolve(new LookupRequest("en", null, 1, tooMany.subList(0, StringLookup.MAX_KEYS), null))
+                .entries().size());
+
+        assertThrows(IllegalArgumentException.class, () -> resolve(new LookupRequest("en", null, 1, List.of(), null)));
+        assertThrows(IllegalArgumentException.class, () -> resolve(new LookupRequest("xx", null, 1, List.of("GAME_QUIT"), null)));
+        assertThrows(IllegalArgumentException.class, () -> resolve(new LookupRequest("en", List.of("xx"), 1, List.of("GAME_QUIT"), null)));
+        assertThrows(IllegalArgumentException.class, () -> resolve(new LookupRequest(null, null, 1, List.of("GAME_QUIT"), null)));
+
+        var fallbacks = new ArrayList<String>();
+        for (int i = 0; i < StringLookup.MAX_LANGUAGES; i++) {
+            fallbacks.add("l" + i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> resolve(new LookupRequest("en", fallbacks, 1, List.of("GAME_QUIT"), null)));
+    }
+
+    @Test
+    void etagFollowsTheCatalogAndTheRequest() {
+        var request = new LookupRequest("de", List.of("en"), 1, List.of("GAME_QUIT"), null);
+        var etag = StringLookup.etag(index, Catalog.snapshot(), request, "json");
+
+        assertEquals(etag, StringLookup.etag(index, Catalog.snapshot(), request, "json"));
+        assertNotEquals(etag, StringLookup.etag(index, Catalog.snapshot(), request, "binary"));
+        assertNotEquals(etag, StringLookup.etag(index, Catalog.snapshot(),
+                new LookupRequest("de", List.of("en"), 1, List.of("GAME_QUIT", "GAME_SAVE"), null), "json"));
+
+        Catalog.applyAsset(3, "GAME_SAVE", "/save", "writes a save game");
+        assertNotEquals(etag, StringLookup.etag(index, Catalog.snapshot(), request, "json"));
+    }
+
+    private LookupResult resolve(LookupRequest request) {
+        return StringLookup.resolve(Catalog.snapshot(), index, request);
+    }
+}
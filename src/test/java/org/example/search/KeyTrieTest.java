@@ -0,0 +1,116 @@
+package org.example.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeyTrieTest {
+    private final HashMap<Integer, Long> recency = new HashMap<>();
+    private KeyTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new KeyTrie(id -> recency.getOrDefault(id, 0L));
+    }
+
+    private void insert(String key, int id, long lastUsed) {
+        recency.put(id, lastUsed);
+        trie.insert(key, id);
+    }
+
+    @Test
+    void topOrdersByRecencyThenId() {
+        insert("game main menu", 1, 10);
+        insert("game map", 2, 30);
+        insert("game menu", 3, 20);
+        insert("gold", 4, 40);
+        insert("other", 5, 50);
+
+        assertArrayEquals(new int[]{4, 2, 3, 1}, trie.top("g", 10));
+        assertArrayEquals(new int[]{2, 3, 1}, trie.top("game", 10));
+        assertArrayEquals(new int[]{2, 3}, trie.top("game m", 2));
+        assertArrayEquals(new int[]{3}, trie.top("game me", 10));
+        assertArrayEquals(new int[0], trie.top("game x", 10));
+        assertArrayEquals(new int[0], trie.top("game menus", 10));
+    }
+
+    @Test
+    void prefixEndingInsideAnEdgeMatchesTheWholeEdge() {
+        insert("wizard icon", 1, 1);
+        insert("wizard hat", 2, 2);
+
+        assertArrayEquals(new int[]{2, 1}, trie.top("wiz", 10));
+        assertArrayEquals(new int[]{1}, trie.top("wizard i", 10));
+    }
+
+    @Test
+    void anIdUnderSeveralKeysIsListedOnce() {
+        insert("menu title", 1, 5);
+        trie.insert("menu title short", 1);
+        insert("menu", 2, 1);
+
+        assertArrayEquals(new int[]{1, 2}, trie.top("menu", 10));
+    }
+
+    @Test
+    void removeDropsOnlyThatKeyAndId() {
+        insert("menu title", 1, 5);
+        insert("menu tip", 2, 4);
+        insert("menu", 3, 3);
+
+        trie.remove("menu tip", 2);
+        assertArrayEquals(new int[]{1, 3}, trie.top("menu", 10));
+        assertArrayEquals(new int[]{1}, trie.top("menu ti", 10));
+
+        // unknown key or id is a no-op
+        trie.remove("menu tip", 2);
+        trie.remove("menu title", 9);
+        assertArrayEquals(new int[]{1, 3}, trie.top("menu", 10));
+
+        trie.remove("menu", 3);
+        assertArrayEquals(new int[]{1}, trie.top("me", 10));
+        trie.remove("menu title", 1);
+        assertArrayEquals(new int[0], trie.top("", 10));
+    }
+
+    @Test
+    void cachedListsStayCorrectAboveTheScanThreshold() {
+        // enough keys that the shared prefix nodes keep a cached top list instead of scanning
+        for (int id = 1; id <= 100; id++) {
+            insert("item " + id, id, id);
+        }
+        assertArrayEquals(descending(100, KeyTrie.TOP_K), trie.top("item", 50));
+        assertArrayEquals(new int[]{100, 99, 98}, trie.top("item ", 3));
+
+        trie.remove("item 100", 100);
+        assertArrayEquals(descending(99, KeyTrie.TOP_K), trie.top("item", 50));
+
+        // an old id becomes the most recent: only its path is refreshed
+        recency.put(7, 1_000L);
+        trie.refresh("item 7");
+        assertEquals(7, trie.top("item", 1)[0]);
+        assertEquals(7, trie.top("i", 1)[0]);
+    }
+
+    @Test
+    void bulkLoadRanksOnRebuild() {
+        for (int id = 1; id <= 100; id++) {
+            recency.put(id, (long) id);
+            trie.insertUnranked("bulk " + id, id);
+        }
+        trie.rebuild();
+        assertArrayEquals(descending(100, KeyTrie.TOP_K), trie.top("bulk", KeyTrie.TOP_K));
+    }
+
+    private static int[] descending(int from, int count) {
+        var ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = from - i;
+        }
+        return ids;
+    }
+}
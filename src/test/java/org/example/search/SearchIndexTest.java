@@ -0,0 +1,81 @@
+package org.example.search;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.AssetRow;
+import org.example.catalog.CatalogSnapshot;
+import org.example.catalog.CowArray;
+import org.example.catalog.TranslationRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchIndexTest {
+    private static final int EXPANSIONS = 100;
+
+    @Test
+    void everyPrefixExpansionMatches() {
+        // ITEM_100 .. ITEM_199 index as item100 .. item199, a hundred expansions of "item"
+        var assets = CowArray.<AssetEntry>empty();
+        for (int i = 0; i < EXPANSIONS; i++) {
+            var assetId = i + 1;
+            assets = assets.with(assetId, entry(assetId, "ITEM" + (100 + i)));
+        }
+        assets = assets.with(EXPANSIONS + 1, entry(EXPANSIONS + 1, "QUIT"));
+        var index = index(assets);
+
+        var results = index.search("item", 10);
+        assertEquals(EXPANSIONS, results.total());
+        assertArrayEquals(IntStream.rangeClosed(1, EXPANSIONS).toArray(), results.assetIds());
+        assertEquals(10, results.hits().size());
+
+        // the last expansions in term order still match on their own and alongside another term
+        assertArrayEquals(new int[]{EXPANSIONS}, index.search("item199", 10).assetIds());
+        assertArrayEquals(IntStream.rangeClosed(EXPANSIONS - 9, EXPANSIONS).toArray(), index.search("item19", 20).assetIds());
+    }
+
+    @Test
+    void exactTermRanksAboveItsExpansions() {
+        var assets = CowArray.<AssetEntry>empty()
+                .with(1, entry(1, "MENU_MAIN"))
+                .with(2, entry(2, "MENUS"))
+                .with(3, entry(3, "QUIT"));
+        var results = index(assets).search("menu", 10);
+
+        assertEquals(2, results.total());
+        assertEquals(1, results.hits().getFirst().assetId());
+        assertEquals(2, results.hits().get(1).assetId());
+    }
+
+    @Test
+    void allTermsMustMatch() {
+        var assets = CowArray.<AssetEntry>empty()
+                .with(1, entry(1, "GAME_MAIN_MENU"))
+                .with(2, entry(2, "GAME_QUIT"))
+                .with(3, entry(3, "MAIN_QUIT"));
+        var index = index(assets);
+
+        assertArrayEquals(new int[]{1}, index.search("game menu", 10).assetIds());
+        assertArrayEquals(new int[]{2, 3}, sorted(index.search("qu", 10).assetIds()));
+        assertEquals(0, index.search("game missing", 10).total());
+    }
+
+    private static SearchIndex index(CowArray<AssetEntry> assets) {
+        var index = new SearchIndex();
+        index.onLoad(new CatalogSnapshot(0, assets, CowArray.empty(), CowArray.empty(), CowArray.empty()));
+        return index;
+    }
+
+    private static AssetEntry entry(int assetId, String name) {
+        return new AssetEntry(new AssetRow(assetId, name, "/" + assetId, null), new TranslationRow[0], new TranslationRow[0], 0, 0);
+    }
+
+    private static int[] sorted(int[] ids) {
+        var copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
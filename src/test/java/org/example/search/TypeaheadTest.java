@@ -0,0 +1,131 @@
+package org.example.search;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.AssetRow;
+import org.example.catalog.CatalogSnapshot;
+import org.example.catalog.CowArray;
+import org.example.catalog.TranslationRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeaheadTest {
+    private final Typeahead typeahead = new Typeahead();
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new CatalogSnapshot(0, CowArray.<AssetEntry>empty()
+                .with(1, entry(1, "GAME_MAIN_MENU", 100))
+                .with(2, entry(2, "GAME_MAP", 300))
+                .with(3, entry(3, "gameMenuTitle", 200))
+                .with(4, entry(4, "HUD_HEALTH", 400)),
+                CowArray.empty(), CowArray.empty(), CowArray.empty());
+        typeahead.onLoad(snapshot);
+    }
+
+    @Test
+    void anySpellingOfASegmentFindsTheKey() {
+        for (var query : List.of("MAIN_MENU", "main menu", "mainMenu", "main-me", "GAME_MAIN")) {
+            assertEquals(List.of(1), ids(query), query);
+        }
+        assertEquals(List.of(3, 1), ids("menu"));
+        // a trailing separator already asks for a further segment
+        assertEquals(List.of(2, 3, 1), ids("game"));
+        assertEquals(List.of(2, 3, 1), ids("GAME_"));
+        assertEquals(List.of(), ids("health_"));
+    }
+
+    @Test
+    void suggestionsAreMostRecentlyModifiedFirstAndLimited() {
+        assertEquals(List.of(4, 2, 3, 1), ids(""));
+        assertEquals(List.of(4, 2), ids("", 2));
+        assertEquals(List.of(), ids("", -1));
+
+        var suggestion = typeahead.suggest("map", 10).getFirst();
+        assertEquals(new Typeahead.Suggestion(2, "GAME_MAP", 300), suggestion);
+    }
+
+    @Test
+    void changesMoveRankingAndReplaceRenamedKeys() {
+        change(entry(1, "GAME_MAIN_MENU", 500));
+        assertEquals(List.of(1, 2, 3), ids("game"));
+
+        change(entry(2, "GAME_WORLD_MAP", 300));
+        assertEquals(List.of(), ids("game map"));
+        assertEquals(List.of(2), ids("world"));
+
+        // an asset created after the load, past the capacity of the load
+        change(entry(40, "GAME_CREDITS", 600));
+        assertEquals(List.of(40, 1, 2, 3), ids("game"));
+
+        change(40, null);
+        assertEquals(List.of(), ids("credits"));
+    }
+
+    @Test
+    void readersRacingRenamesOnlySeeConsistentSuggestions() throws Exception {
+        var running = new AtomicBoolean(true);
+        var start = new CountDownLatch(1);
+        var tasks = new ArrayList<Callable<Integer>>();
+        for (int t = 0; t < 4; t++) {
+            tasks.add(() -> {
+                start.await();
+                var seen = 0;
+                while (running.get()) {
+                    for (var suggestion : typeahead.suggest("game", Typeahead.MAX_LIMIT)) {
+                        assertTrue(suggestion.key().toLowerCase(Locale.ROOT).startsWith("game"), suggestion.key());
+                        seen++;
+                    }
+                }
+                return seen;
+            });
+        }
+        try (var executor = Executors.newFixedThreadPool(tasks.size())) {
+            var futures = tasks.stream().map(executor::submit).toList();
+            start.countDown();
+            for (int i = 0; i < 5_000; i++) {
+                change(entry(2, i % 2 == 0 ? "GAME_MAP_" + i : "GAME_MAP", 300 + i));
+            }
+            running.set(false);
+            for (var future : futures) {
+                assertTrue(future.get() > 0);
+            }
+        }
+        assertEquals(List.of(2, 3, 1), ids("game"));
+    }
+
+    private void change(AssetEntry entry) {
+        change(entry.assetId(), entry);
+    }
+
+    private void change(int assetId, AssetEntry entry) {
+        var before = snapshot;
+        snapshot = new CatalogSnapshot(before.version() + 1, before.assets().with(assetId, entry),
+                before.languages(), before.projects(), before.users());
+        typeahead.onChange(before, snapshot, new int[]{assetId});
+    }
+
+    private List<Integer> ids(String query) {
+        return ids(query, Typeahead.MAX_LIMIT);
+    }
+
+    private List<Integer> ids(String query, int limit) {
+        return typeahead.suggest(query, limit).stream().map(Typeahead.Suggestion::assetId).toList();
+    }
+
+    private static AssetEntry entry(int assetId, String name, long modified) {
+        var rows = new TranslationRow[0];
+        return new AssetEntry(new AssetRow(assetId, name, "/" + assetId, null), rows, rows, 0, modified);
+    }
+}
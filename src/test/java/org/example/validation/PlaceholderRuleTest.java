@@ -0,0 +1,72 @@
+package org.example.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlaceholderRuleTest {
+    private final PlaceholderRule rule = new PlaceholderRule();
+
+    private List<ValidationIssue> check(String text, String source) {
+        var issues = new ArrayList<ValidationIssue>();
+        rule.check(new CellText(1, 1, 2, text, source), issues);
+        return issues;
+    }
+
+    private List<String> messages(String text, String source) {
+        return check(text, source).stream().map(ValidationIssue::message).toList();
+    }
+
+    @Test
+    void samePlaceholdersInAnyOrderPass() {
+        assertEquals(List.of(), check("{1} von {0}", "{0} of {1}"));
+        assertEquals(List.of(), check("Hallo {{player}}, %d Münzen", "Hello {{player}}, %d coins"));
+        assertEquals(List.of(), check("%2$s und %1$s", "%1$s and %2$s"));
+        assertEquals(List.of(), check("{name} {name}", "{name} and {name}"));
+    }
+
+    @Test
+    void withoutSourceTextNothingIsChecked() {
+        assertEquals(List.of(), check("{0} %s", null));
+    }
+
+    @Test
+    void literalPercentIsNotAPlaceholder() {
+        assertEquals(List.of(), check("100%% sicher", "100%% sure"));
+        assertEquals(List.of(), check("sicher", "100%% sure"));
+    }
+
+    @Test
+    void missingPlaceholderIsAnError() {
+        var issues = check("Hallo", "Hello {{player}}");
+        assertEquals(1, issues.size());
+        var issue = issues.getFirst();
+        assertEquals(Severity.ERROR, issue.severity());
+        assertEquals("placeholders", issue.rule());
+        assertEquals(1, issue.assetId());
+        assertEquals(2, issue.languageId());
+        assertEquals("missing placeholder {{player}}", issue.message());
+    }
+
+    @Test
+    void repeatedPlaceholdersAreCounted() {
+        assertEquals(List.of("missing placeholder {name}"), messages("{name}", "{name} and {name}"));
+        assertEquals(List.of("placeholder %s is not in the source text"), messages("%s %s", "%s"));
+    }
+
+    @Test
+    void missingAndUnexpectedAreReportedSeparately() {
+        assertEquals(List.of("missing placeholder %d, {0}", "placeholder %s, {1} is not in the source text"),
+                messages("{1} %s", "{0} %d"));
+    }
+
+    @Test
+    void printfFlagsWidthAndPrecisionAreOnePlaceholder() {
+        assertEquals(List.of(), check("%-5.2f Gold", "%-5.2f gold"));
+        assertEquals(List.of("missing placeholder %-5.2f", "placeholder %f is not in the source text"),
+                messages("%f Gold", "%-5.2f gold"));
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.validation;
+
+import org.example.catalog.AssetEntry;
+import org.example.catalog.AssetRow;
+import org.example.catalog.TranslationRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ValidatorTest {
+    private static final AssetEntry ENTRY = new AssetEntry(new AssetRow(1, "GAME_MAIN_MENU", "/menu", null),
+            new TranslationRow[0], new TranslationRow[0], 0, 0);
+
+    private record Rule(String id, Severity severity, long sleepNanos) implements ValidationRule {
+        @Override
+        public void check(CellText cell, List<ValidationIssue> issues) {
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            issues.add(cell.issue(this, severity, id));
+        }
+    }
+
+    @Test
+    void errorRulesRunEvenWhenTheBudgetIsSpent() {
+        var validator = new Validator(List.of(
+                new Rule("slow", Severity.WARNING, Validator.INLINE_BUDGET_NANOS * 2),
+                new Rule("skipped", Severity.WARNING, 0),
+                new Rule("error", Severity.ERROR, 0)));
+
+        var issues = validator.check(ENTRY, 1, 2, "text");
+        assertEquals(List.of("error", "slow"), issues.stream().map(ValidationIssue::rule).toList());
+        assertEquals("error", Validator.errors(issues));
+    }
+
+    @Test
+    void reportsStillRunEveryRule() {
+        var validator = new Validator(List.of(
+                new Rule("slow", Severity.WARNING, Validator.INLINE_BUDGET_NANOS * 2),
+                new Rule("skipped", Severity.WARNING, 0)));
+        var entry = new AssetEntry(ENTRY.asset(), new TranslationRow[]{new TranslationRow(1, 1, 2, "text", 5, 1)},
+                new TranslationRow[0], 0, 5);
+
+        assertEquals(List.of("slow", "skipped"), validator.issues(entry).stream().map(ValidationIssue::rule).toList());
+    }
+
+    @Test
+    void emptyTextIsNotChecked() {
+        var validator = new Validator(List.of(new Rule("error", Severity.ERROR, 0)));
+        assertEquals(List.of(), validator.check(ENTRY, 1, 2, ""));
+        assertEquals(List.of(), validator.check(ENTRY, 1, 2, null));
+    }
+}
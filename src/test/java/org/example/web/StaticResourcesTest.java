@@ -0,0 +1,102 @@
+package org.example.web;
+
+import io.javalin.Javalin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaticResourcesTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        var staticResources = StaticResources.load("index.html");
+        // StaticResources picks the encoding itself, keep Javalin from compressing on top of it
+        app = Javalin.create(config -> config.http.disableCompression())
+                .get("/static/{name}", ctx -> staticResources.serve(ctx, ctx.pathParam("name")))
+                .start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        app.stop();
+    }
+
+    @Test
+    void gzipVariantIsTheSameContentUnderItsOwnTag() throws Exception {
+        var identity = get("index.html", null, null);
+        var gzipped = get("index.html", "gzip, deflate", null);
+
+        assertEquals(200, identity.statusCode());
+        assertNull(header(identity, "Content-Encoding"));
+        assertTrue(header(identity, "Content-Type").startsWith("text/html"));
+        assertEquals("gzip", header(gzipped, "Content-Encoding"));
+        assertTrue(gzipped.body().length < identity.body().length);
+        assertArrayEquals(identity.body(), gunzip(gzipped.body()));
+
+        assertNotEquals(header(identity, "ETag"), header(gzipped, "ETag"));
+        assertEquals("Accept-Encoding", header(gzipped, "Vary"));
+        assertEquals("no-cache", header(gzipped, "Cache-Control"));
+    }
+
+    @Test
+    void eitherTagRevalidatesTo304() throws Exception {
+        var identityTag = header(get("index.html", null, null), "ETag");
+        var gzipTag = header(get("index.html", "gzip", null), "ETag");
+
+        // a proxy may have decompressed, so either representation is current
+        for (var tag : new String[]{identityTag, gzipTag}) {
+            for (var encoding : new String[]{null, "gzip"}) {
+                var response = get("index.html", encoding, tag);
+                assertEquals(304, response.statusCode());
+                assertEquals(0, response.body().length);
+            }
+        }
+        assertEquals(200, get("index.html", "gzip", "\"0000000000000000\"").statusCode());
+        assertEquals(200, get("index.html", "gzip;q=0", null).statusCode());
+        assertNull(header(get("index.html", "gzip;q=0", null), "Content-Encoding"));
+    }
+
+    @Test
+    void unknownNamesAre404() throws Exception {
+        assertEquals(404, get("secrets.txt", null, null).statusCode());
+        assertThrows(IllegalStateException.class, () -> StaticResources.load("missing.html"));
+    }
+
+    private HttpResponse<byte[]> get(String name, String acceptEncoding, String ifNoneMatch) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + app.port() + "/static/" + name));
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String header(HttpResponse<?> response, String name) {
+        return response.headers().firstValue(name).orElse(null);
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}